@@ -1,4 +1,4 @@
-import java.util.ArrayList;
+import java.io.IOException;
 
 /** Class: Animal
  * @version 1.2
@@ -8,32 +8,119 @@ import java.util.ArrayList;
  */
 
 abstract class Animal extends Entity implements Movable {
+  //- The size of the town this animal lives in, so it knows where the edges are
+  private int gridH, gridW;
+
   //// CONSTRUCTORS ////
 
-  /** Animal(health, decayValue, hValue, zValue); 
+  /** Animal(registry, type, health, decayValue, hValue, zValue); 
    * The constructor for all the animals. Takes in the specified values and calls super with them.
+   * @param registry, the EntityRegistry of the town this animal lives in.
+   * @param type, a byte with Town.HUMAN or Town.ZOMBIE.
    * @param health, an int that has this animal's health.
    * @param decayValue, an int that has this animal's decay value.
    * @param hValue, a double that has this animal's value to humans.
    * @param zValue, a double that has this animal's value to zombies.
    */
-  Animal(int health, int decayValue, double hValue, double zValue) {
-    super(health, decayValue, hValue, zValue);
+  Animal(EntityRegistry registry, byte type, int health, int decayValue, double hValue, double zValue) {
+    super(registry, type, health, decayValue, hValue, zValue);
+  }
+
+  /** Animal(registry, type, in, hValue, zValue); 
+   * Loads an animal that was saved with writeTo(). The town sets its bounds afterwards, like any other animal.
+   * @param registry, the EntityRegistry of the town this animal lives in.
+   * @param type, a byte with Town.HUMAN or Town.ZOMBIE.
+   * @param in, the TownCheckpoint.Input to read from.
+   * @param hValue, a double that has this animal's value to humans.
+   * @param zValue, a double that has this animal's value to zombies.
+   * @throws IOException, in case the checkpoint cannot be read.
+   */
+  Animal(EntityRegistry registry, byte type, TownCheckpoint.Input in, double hValue, double zValue) throws IOException {
+    super(registry, type, in, hValue, zValue);
   }
   
   //// CONSTRUCTORS ////
 
-  abstract public int[] decideMovement(Entity[] surroundingEntities, double[] surroundingValues);
+  /// GETTERS/SETTERS ////
+  /** setBounds(gridH, gridW); 
+   * Sets the size of the town this animal lives in. Every town can be a different size, so the town sets this
+   * when the animal is made.
+   * @param gridH, an int with the height of the town.
+   * @param gridW, an int with the width of the town.
+   */
+  public void setBounds(int gridH, int gridW) {
+    this.gridH = gridH;
+    this.gridW = gridW;
+  }
+  /// GETTERS/SETTERS ////
+
+  /** isInBounds(row, col); 
+   * Checks to see if the given square is inside the town.
+   * @param row, an int with the row of the square.
+   * @param col, an int with the column of the square.
+   * @return true if the square is inside the town, otherwise false.
+   */
+  public boolean isInBounds(int row, int col) {
+    return (row >= 0) && (row < this.gridH) && (col >= 0) && (col < this.gridW);
+  }
 
-  abstract public ArrayList<Integer> findPossibleMoves(Entity[] surroundingEntities);
+  /** canStep(direction); 
+   * Checks to see if a step from this animal's cell in the given direction stays inside the town.
+   * @param direction, an int with the direction value.
+   * @return true if the square it would step onto is inside the town, otherwise false.
+   */
+  public boolean canStep(int direction) {
+    int cell = this.getCell();
+    return isInBounds(cell / this.gridW + directions[direction][0], cell % this.gridW + directions[direction][1]);
+  }
+
+  abstract public int decideMovement(Entity[] surroundingEntities, int[] surroundingValues, RandomService random);
+
+  abstract public int findPossibleMoves(Entity[] surroundingEntities);
+
+  /** chooseMove(possibleMoves, surroundingValues, random); 
+   * Picks the direction with the highest value out of the ones it can move in. If a few of them are tied, one of
+   * them is picked at random, each with the same chance.
+   * @param possibleMoves, an int with a mask of the directions it can move in (see findPossibleMoves).
+   * @param surroundingValues, an int array containing the 8 surrounding values, in hundredths.
+   * @param random, the RandomService used to break ties between equally good spots.
+   * @return an int with the direction value it picked, or STAY if it can't move anywhere.
+   */
+  protected int chooseMove(int possibleMoves, int[] surroundingValues, RandomService random) {
+    if (possibleMoves == 0) {
+      return STAY;
+    }
+
+    //- Get the max priority, and every direction that has it
+    int max = Integer.MIN_VALUE;
+    int betterLocations = 0;
+    for (int x = 0; x < directions.length; x++) {
+      if ((possibleMoves & (1 << x)) != 0) {
+        if (surroundingValues[x] > max) {
+          max = surroundingValues[x];
+          betterLocations = 1 << x;
+        } else if (surroundingValues[x] == max) {
+          betterLocations |= 1 << x;
+        }
+      }
+    }
+
+    //- Skip over the first few tied directions, in the same order as the directions
+    int choice = random.randInt(0, Integer.bitCount(betterLocations));
+    for (int x = 0; x < choice; x++) {
+      betterLocations &= betterLocations - 1;
+    }
+
+    return Integer.numberOfTrailingZeros(betterLocations);
+  }
   
   @Override
-  /** move(newCoords); 
-   * Takes in the coords of the new destination and sets this animal's position to them.
-   * @param newCoords, an int array with the new coordinates.
+  /** move(newCell); 
+   * Takes in the cell of the new destination and sets this animal's position to it.
+   * @param newCell, an int with the new cell.
    */
-  public void move(int[] newCoords) {
-    this.setLocation(newCoords);
+  public void move(int newCell) {
+    this.setCell(newCell);
 
   }
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+/** Class: ChangedCells
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: Keeps a list of every square of the town that changed since the list was last cleared, so whoever
+ *               is drawing the town only has to redraw those squares instead of the whole grid (see
+ *               Town.trackChangedCells). Every square is only listed once, however many times it changes.
+ *
+ *               If more than a quarter of the grid (or the given limit) changes, it stops listing squares and just
+ *               remembers that everything changed, since redrawing the whole grid is cheaper by then.
+ */
+
+class ChangedCells {
+  private final long[] marked; //- One bit for every square, set if it's in the list
+  private final int[] cells;
+  private final int limit;
+  private int size;
+  private boolean everything;
+
+  //// CONSTRUCTORS ////
+  /** ChangedCells(height, width);
+   * Creates the list for a grid of the given size, starting out with everything changed so the first drawing
+   * draws the whole grid.
+   * @param height, an int with the height of the grid.
+   * @param width, an int with the width of the grid.
+   */
+  ChangedCells(int height, int width) {
+    this(height, width, height * width / 4);
+  }
+
+  /** ChangedCells(height, width, limit);
+   * Creates the list for a grid of the given size, which gives up and marks everything once more than limit
+   * squares have changed. Useful when redrawing everything is cheap anyways (eg. only part of the grid is shown).
+   * @param height, an int with the height of the grid.
+   * @param width, an int with the width of the grid.
+   * @param limit, an int with the most squares to list.
+   */
+  ChangedCells(int height, int width, int limit) {
+    int area = height * width;
+    this.marked = new long[(area + 63) >>> 6];
+    this.limit = Math.max(1, Math.min(area, limit));
+    this.cells = new int[this.limit];
+    this.everything = true;
+  }
+  //// CONSTRUCTORS ////
+
+  /// GETTERS/SETTERS ////
+  /** size();
+   * Gets the amount of changed squares in the list.
+   * @return an int with the amount of squares.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /** get(index);
+   * Gets one of the changed squares.
+   * @param index, an int from 0 to size() - 1.
+   * @return an int with the cell of the square.
+   */
+  public int get(int index) {
+    return this.cells[index];
+  }
+
+  /** isEverything();
+   * Checks if so much changed that the whole grid should be redrawn, in which case the list is empty.
+   * @return true if the whole grid changed, otherwise false.
+   */
+  public boolean isEverything() {
+    return this.everything;
+  }
+  /// GETTERS/SETTERS ////
+
+  /** mark(cell);
+   * Adds a square to the list, if it isn't already in it.
+   * @param cell, an int with the cell of the square.
+   */
+  public void mark(int cell) {
+    if (everything) {
+      return;
+    }
+
+    long bit = 1L << cell;
+    if ((marked[cell >>> 6] & bit) == 0) {
+      if (size == limit) {
+        markAll();
+        return;
+      }
+      marked[cell >>> 6] |= bit;
+      cells[size++] = cell;
+    }
+  }
+
+  /** markAll();
+   * Marks the whole grid as changed.
+   */
+  public void markAll() {
+    clearList();
+    this.everything = true;
+  }
+
+  /** clear();
+   * Empties the list, once everything in it has been drawn.
+   */
+  public void clear() {
+    clearList();
+    this.everything = false;
+  }
+
+  /** clearList();
+   * Takes every square out of the list, only clearing the bits that were set.
+   */
+  private void clearList() {
+    for (int x = 0; x < size; x++) {
+      marked[cells[x] >>> 6] = 0;
+    }
+    size = 0;
+  }
+}
@@ -1,3 +1,5 @@
+import java.io.IOException;
+
 /** Class: Climate
  * @version 1.2
  * @author Joseph Wang
@@ -41,6 +43,21 @@ class Climate {
         this.seasonCooldown = SEASON_TURNS;
     }
 
+    /** Climate(in); 
+     * Loads a climate that was saved with writeTo(), with the same weather, season and cooldowns.
+     * @param in, the TownCheckpoint.Input to read from.
+     * @throws IOException, in case the checkpoint cannot be read.
+     */
+    Climate(TownCheckpoint.Input in) throws IOException {
+        this.MIN_WEATHER_TURNS = in.getInt();
+        this.SEASON_TURNS = in.getInt();
+
+        this.weatherCooldown = in.getInt();
+        this.currentWeather = in.getInt();
+        this.seasonCooldown = in.getInt();
+        this.currentSeason = in.getInt();
+    }
+
     /** getWeather(); 
      * Returns the current weather.
      * @return a string with the current weather.
@@ -71,28 +88,46 @@ class Climate {
         }
     }
 
-    /** changeGrowSpeed(defaultValue); 
+    /** getWeatherIndex(); 
+     * Returns the current weather as a number, for anything that needs to store it.
+     * @return an int with the current weather (0 sunny, 1 cloudy, 2 rainy).
+     */
+    public int getWeatherIndex() {
+        return currentWeather;
+    }
+
+    /** getSeasonIndex(); 
+     * Returns the current season as a number, for anything that needs to store it.
+     * @return an int with the current season (0 spring, 1 summer, 2 fall, 3 winter).
+     */
+    public int getSeasonIndex() {
+        return currentSeason;
+    }
+
+    /** changeGrowSpeed(defaultValue, random); 
      * Calculate the effects of both weather and season on the grow speed, adds the default value, and returns it.
      * @param defaultValue, an int with the absolute minimum amount of plants growing in the world.
+     * @param random, the RandomService used if the weather changes.
      * @return an int with the new grow speed.
      */
-    public int changeGrowSpeed(int defaultValue) {
-        return defaultValue + calculateWeather() + calculateSeason();
+    public int changeGrowSpeed(int defaultValue, RandomService random) {
+        return defaultValue + calculateWeather(random) + calculateSeason();
     };
 
-    /** calculateWeather(); 
+    /** calculateWeather(random); 
      * Calculate the effects of weather on growspeed, or changes the weather randomly if it's been long enough.
+     * @param random, the RandomService used to pick the new weather.
      * @return an int with the effects of weather on grow speed.
      */
-    private int calculateWeather() {
+    private int calculateWeather(RandomService random) {
         if (this.weatherCooldown == 0) {
             int newWeather;
             do {
-                newWeather = Simulation.randInt(0, weatherFactors.length);
+                newWeather = random.randInt(0, weatherFactors.length);
             } while(newWeather == this.currentWeather);
 
             this.currentWeather = newWeather;
-            this.weatherCooldown = this.MIN_WEATHER_TURNS + generateWeatherVariation();
+            this.weatherCooldown = this.MIN_WEATHER_TURNS + generateWeatherVariation(random);
         } else {
             this.weatherCooldown--;
         }
@@ -116,12 +151,28 @@ class Climate {
         return temperatureFactors[currentSeason];
     }
 
-    /** generateWeatherVariation(); 
+    /** writeTo(out); 
+     * Saves the current weather and season, and how long until they change.
+     * @param out, the TownCheckpoint.Output to write to.
+     * @throws IOException, in case the checkpoint cannot be written.
+     */
+    public void writeTo(TownCheckpoint.Output out) throws IOException {
+        out.putInt(this.MIN_WEATHER_TURNS);
+        out.putInt(this.SEASON_TURNS);
+
+        out.putInt(this.weatherCooldown);
+        out.putInt(this.currentWeather);
+        out.putInt(this.seasonCooldown);
+        out.putInt(this.currentSeason);
+    }
+
+    /** generateWeatherVariation(random); 
      * Returns a small offset for the weather so it doesn't last too long.
+     * @param random, the RandomService used to pick the offset.
      * @return a random int from -10 to 10.
      */
-    private int generateWeatherVariation() {
-        return Simulation.randInt(-10, 10);
+    private int generateWeatherVariation(RandomService random) {
+        return random.randInt(-10, 10);
       }
 
 }
\ No newline at end of file
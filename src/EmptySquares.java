@@ -0,0 +1,115 @@
+import java.io.IOException;
+import java.util.Arrays;
+
+/** Class: EmptySquares
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: Keeps a list of every empty square in the town, so a random empty square can be picked straight away
+ *               instead of guessing squares until an empty one turns up. Squares are stored as cells (row * width
+ *               + col, see Town.getCell).
+ *               Adding, removing and picking are all constant time.
+ */
+
+class EmptySquares {
+  //- The empty squares packed at the front, and where every square is in that list (or -1 if it isn't empty)
+  private final int[] squares, positions;
+  private int size;
+
+  //// CONSTRUCTORS ////
+  /** EmptySquares(height, width);
+   * Creates the list for a grid of the given size, with every square starting out empty.
+   * @param height, an int with the height of the grid.
+   * @param width, an int with the width of the grid.
+   */
+  EmptySquares(int height, int width) {
+    this.squares = new int[height * width];
+    this.positions = new int[height * width];
+
+    for (int x = 0; x < squares.length; x++) {
+      squares[x] = x;
+      positions[x] = x;
+    }
+    this.size = squares.length;
+  }
+
+  /** EmptySquares(height, width, in);
+   * Loads the list that was saved with writeTo(), with the empty squares in the same order, so the same squares
+   * get picked afterwards.
+   * @param height, an int with the height of the grid.
+   * @param width, an int with the width of the grid.
+   * @param in, the TownCheckpoint.Input to read from.
+   * @throws IOException, in case the checkpoint cannot be read.
+   */
+  EmptySquares(int height, int width, TownCheckpoint.Input in) throws IOException {
+    this.squares = new int[height * width];
+    this.positions = new int[height * width];
+
+    this.size = in.getInt();
+    in.getInts(squares, size);
+
+    Arrays.fill(positions, -1);
+    for (int x = 0; x < size; x++) {
+      positions[squares[x]] = x;
+    }
+  }
+  //// CONSTRUCTORS ////
+
+  /// GETTERS/SETTERS ////
+  /** size();
+   * Gets the amount of empty squares.
+   * @return an int with the amount of empty squares.
+   */
+  public int size() {
+    return this.size;
+  }
+  /// GETTERS/SETTERS ////
+
+  /** add(square);
+   * Marks a square as empty. Does nothing if it already is.
+   * @param square, an int with the cell of the square.
+   */
+  public void add(int square) {
+    if (positions[square] == -1) {
+      squares[size] = square;
+      positions[square] = size;
+      size++;
+    }
+  }
+
+  /** remove(square);
+   * Marks a square as taken, by moving the last empty square into its spot. Does nothing if it's already taken.
+   * @param square, an int with the cell of the square.
+   */
+  public void remove(int square) {
+    int position = positions[square];
+
+    if (position != -1) {
+      int last = squares[size - 1];
+      squares[position] = last;
+      positions[last] = position;
+
+      positions[square] = -1;
+      size--;
+    }
+  }
+
+  /** writeTo(out);
+   * Saves every empty square, in order.
+   * @param out, the TownCheckpoint.Output to write to.
+   * @throws IOException, in case the checkpoint cannot be written.
+   */
+  public void writeTo(TownCheckpoint.Output out) throws IOException {
+    out.putInt(size);
+    out.putInts(squares, size);
+  }
+
+  /** pick(random);
+   * Picks a random empty square. There must be at least one.
+   * @param random, the RandomService to pick the square with.
+   * @return an int with the cell of the square.
+   */
+  public int pick(RandomService random) {
+    return squares[random.randInt(0, size)];
+  }
+}
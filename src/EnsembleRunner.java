@@ -0,0 +1,169 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/** Class: EnsembleRunner
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: Runs the same town many times with different seeds, all at the same time on a fixed amount of
+ *               threads, to see how long humans usually survive. Every run gets its own Town, so the runs never
+ *               share anything except the (read only) name lists. Every run is printed as soon as it finishes, and
+ *               a summary of all of them is printed at the end.
+ *
+ *               Takes the same values as HeadlessSimulation, plus runs (how many towns to run) and threads (how
+ *               many to run at once, every core by default). Run i uses the seed seed + i.
+ *
+ *               Example: java EnsembleRunner runs=500 threads=8 humans=200 plants=500 zombies=5 gridHeight=100 gridWidth=100 maxTurns=5000 seed=1
+ */
+
+class EnsembleRunner {
+  public static void main(String[] args) throws Exception {
+    SimulationConfig config = SimulationConfig.fromArgs(args);
+    Simulation.nameGenerator = new NameGenerator();
+
+    int threads = config.threads;
+    if (threads == 0) {
+      threads = Runtime.getRuntime().availableProcessors();
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    ExecutorCompletionService<RunResult> completed = new ExecutorCompletionService<RunResult>(executor);
+
+    long start = System.nanoTime();
+    for (int x = 0; x < config.runs; x++) {
+      completed.submit(new Run(config, x, config.seed + x));
+    }
+
+    //- Print every run as soon as it's done, in whatever order they finish
+    ArrayList<RunResult> results = new ArrayList<RunResult>();
+    System.out.println("run,seed,turns,peakZombies,births,extinct");
+    try {
+      for (int x = 0; x < config.runs; x++) {
+        RunResult result = completed.take().get();
+        results.add(result);
+        System.out.println(result.run + "," + result.seed + "," + result.turns + "," + result.peakZombies + ","
+                           + result.births + "," + result.extinct);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    printSummary(results, threads, seconds);
+  }
+
+  /** printSummary(results, threads, seconds);
+   * Prints the spread of how long humans survived, and the averages of everything else.
+   * @param results, an ArrayList of RunResults with every run.
+   * @param threads, an int with the amount of threads the runs were spread over.
+   * @param seconds, a double with how long every run took altogether.
+   */
+  private static void printSummary(ArrayList<RunResult> results, int threads, double seconds) {
+    ArrayList<Integer> turns = new ArrayList<Integer>();
+    long totalTurns = 0, totalPeakZombies = 0, totalBirths = 0;
+    int extinct = 0;
+
+    for (int x = 0; x < results.size(); x++) {
+      RunResult result = results.get(x);
+      turns.add(result.turns);
+      totalTurns += result.turns;
+      totalPeakZombies += result.peakZombies;
+      totalBirths += result.births;
+      if (result.extinct) {
+        extinct++;
+      }
+    }
+    Collections.sort(turns);
+
+    double mean = (double) totalTurns / results.size();
+    double squares = 0;
+    for (int x = 0; x < turns.size(); x++) {
+      squares += (turns.get(x) - mean) * (turns.get(x) - mean);
+    }
+
+    System.out.println();
+    System.out.printf("Runs: %d on %d threads in %.3f s (%.1f runs per second, %.1f turns per second)%n",
+                      results.size(), threads, seconds, results.size() / seconds, totalTurns / seconds);
+    System.out.printf("Humans went extinct in %d of %d runs%n", extinct, results.size());
+    System.out.printf("Turns survived: mean %.1f, std dev %.1f, min %d, median %d, 90th percentile %d, max %d%n",
+                      mean, Math.sqrt(squares / results.size()), turns.get(0), percentile(turns, 0.5),
+                      percentile(turns, 0.9), turns.get(turns.size() - 1));
+    System.out.printf("Peak zombies: mean %.1f%n", (double) totalPeakZombies / results.size());
+    System.out.printf("Births: mean %.1f%n", (double) totalBirths / results.size());
+  }
+
+  /** percentile(sorted, fraction);
+   * Gets the value that the given fraction of the sorted values are at or below (nearest rank).
+   * @param sorted, an ArrayList of Integers sorted from smallest to biggest.
+   * @param fraction, a double from 0 to 1.
+   * @return an int with the value at that percentile.
+   */
+  private static int percentile(ArrayList<Integer> sorted, double fraction) {
+    int rank = (int) Math.ceil(fraction * sorted.size());
+    return sorted.get(Math.max(0, rank - 1));
+  }
+
+  //Inner Class
+  private static class Run implements Callable<RunResult> {
+    private final SimulationConfig config;
+    private final int run;
+    private final long seed;
+
+    /** Run(config, run, seed);
+     * Creates one run of the ensemble.
+     * @param config, the SimulationConfig shared by every run. It's only ever read.
+     * @param run, an int with the number of this run.
+     * @param seed, a long with the seed of this run.
+     */
+    Run(SimulationConfig config, int run, long seed) {
+      this.config = config;
+      this.run = run;
+      this.seed = seed;
+    }
+
+    /** call();
+     * Builds a town and runs it until the humans are gone or the turn cap is hit.
+     * @return a RunResult with how the run went.
+     */
+    public RunResult call() {
+      Town town = new Town(config, seed);
+      int peakZombies = town.getCounts()[Town.ZOMBIE];
+
+      while (town.checkForHumans() && (config.maxTurns == 0 || town.getTurnsSurvived() < config.maxTurns)) {
+        town.runCycle();
+        peakZombies = Math.max(peakZombies, town.getCounts()[Town.ZOMBIE]);
+      }
+
+      return new RunResult(run, seed, town.getTurnsSurvived(), peakZombies, town.getBirths(), !(town.checkForHumans()));
+    }
+  }
+
+  //Inner Class
+  private static class RunResult {
+    private final int run, turns, peakZombies, births;
+    private final long seed;
+    private final boolean extinct;
+
+    /** RunResult(run, seed, turns, peakZombies, births, extinct);
+     * Holds how one run went.
+     * @param run, an int with the number of the run.
+     * @param seed, a long with the seed of the run.
+     * @param turns, an int with how many turns the humans survived.
+     * @param peakZombies, an int with the most zombies there were at once.
+     * @param births, an int with how many babies were born.
+     * @param extinct, a boolean that is true if the humans died out before the turn cap.
+     */
+    RunResult(int run, long seed, int turns, int peakZombies, int births, boolean extinct) {
+      this.run = run;
+      this.seed = seed;
+      this.turns = turns;
+      this.peakZombies = peakZombies;
+      this.births = births;
+      this.extinct = extinct;
+    }
+  }
+}
@@ -1,3 +1,5 @@
+import java.io.IOException;
+
 /** Class: Entity
  * @version 2.1
  * @author Joseph Wang
@@ -6,36 +8,118 @@
  */
 
 abstract class Entity {
-  private int health, decayValue;
-  private double hValue, zValue;
-  private int[] location = new int[2];
-  private boolean shouldPerformAction = true;
+  private int id;
+  private int slot = -1; //- Where this entity is in the town's EntityRegistry, or -1 once it's been removed
+  private final EntityRegistry registry; //- Holds this entity's health, position and so on (see EntityRegistry)
+  private final double hValue, zValue;
   
   //// CONSTRUCTORS ////
-  /** Entity(health, decayValue, hValue, zValue); 
-   * Creates a new entity with the specified values. Assigns each of them to each of their class variables.
+  /** Entity(registry, type, health, decayValue, hValue, zValue); 
+   * Creates a new entity with the specified values and adds it to the registry, which keeps its health and decay
+   * value. The values to humans and zombies never change, so they're kept here.
+   * @param registry, the EntityRegistry of the town this entity lives in.
+   * @param type, a byte with Town.HUMAN, Town.ZOMBIE or Town.PLANT.
    * @param health, an int with this entity's health.
    * @param decayValue, an int with this entity's decay value.
    * @param hValue, a double with this entity's value to humans.
    * @param zValue, a double with this entity's value to zombies.
    */
-  Entity(int health, int decayValue, double hValue, double zValue) {
-    this.health = health;
-    this.decayValue = decayValue;
+  Entity(EntityRegistry registry, byte type, int health, int decayValue, double hValue, double zValue) {
+    this.registry = registry;
     this.hValue = hValue;
     this.zValue = zValue;
+
+    registry.add(this, type, health, decayValue);
+  }
+
+  /** Entity(registry, type, in, hValue, zValue); 
+   * Loads an entity that was saved with writeTo() and adds it to the registry, with the same id and everything
+   * the registry kept about it.
+   * @param registry, the EntityRegistry of the town this entity lives in.
+   * @param type, a byte with Town.HUMAN, Town.ZOMBIE or Town.PLANT.
+   * @param in, the TownCheckpoint.Input to read from.
+   * @param hValue, a double with this entity's value to humans.
+   * @param zValue, a double with this entity's value to zombies.
+   * @throws IOException, in case the checkpoint cannot be read.
+   */
+  Entity(EntityRegistry registry, byte type, TownCheckpoint.Input in, double hValue, double zValue) throws IOException {
+    this.registry = registry;
+    this.hValue = hValue;
+    this.zValue = zValue;
+
+    this.id = in.getInt();
+    int health = in.getInt();
+    registry.add(this, type, health, in.getInt());
+
+    registry.setCell(this.slot, in.getInt());
+    registry.setAge(this.slot, in.getInt());
+    registry.setCooldown(this.slot, in.getInt());
+    registry.setGender(this.slot, in.getChar());
+    registry.setCanAct(this.slot, in.getBoolean());
   }
   
   //// CONSTRUCTORS ////
   
   /// GETTERS/SETTERS ////
 
+  /** getId(); 
+   * Gets this entity's id. Every entity in a town gets its own id when it's created.
+   * @return an int, with this entity's id.
+   */
+  public int getId() {
+    return this.id;
+  }
+
+  /** setId(id); 
+   * Sets this entity's id.
+   * @param id, an int with the new id of this entity.
+   */
+  public void setId(int id) {
+    this.id = id;
+  }
+
+  /** getSlot(); 
+   * Gets where this entity is in the town's EntityRegistry.
+   * @return an int with the slot, or -1 if it isn't in one.
+   */
+  public int getSlot() {
+    return this.slot;
+  }
+
+  /** setSlot(slot); 
+   * Sets where this entity is in the town's EntityRegistry. Only the registry should call this.
+   * @param slot, an int with the new slot, or -1.
+   */
+  public void setSlot(int slot) {
+    this.slot = slot;
+  }
+
+  /** getRegistry(); 
+   * Gets the registry of the town this entity lives in.
+   * @return the EntityRegistry.
+   */
+  public EntityRegistry getRegistry() {
+    return this.registry;
+  }
+
+  /** isRemoved(); 
+   * Checks to see if this entity has been removed from its town. A removed entity has no values left, so its
+   * getters just return 0 (or an empty equivalent).
+   * @return true if it has been removed, otherwise false.
+   */
+  public boolean isRemoved() {
+    return this.slot < 0;
+  }
+
   /** getHealth(); 
    * Gets this entity's health and returns it.
    * @return an int, with this entity's health.
    */
   public int getHealth() {
-    return this.health;
+    if (isRemoved()) {
+      return 0;
+    }
+    return this.registry.getHealth(this.slot);
   }
   
   /** setHealth(value); 
@@ -43,24 +127,26 @@ abstract class Entity {
    * @param value, an int with the new health of this entity.
    */
   public void setHealth(int value) {
-    this.health = value;
+    this.registry.setHealth(this.slot, value);
   }
   
-  /** getLocation(); 
-   * Gets this entity's location and returns it.
-   * @return an int array, with this entity's location.
+  /** getCell(); 
+   * Gets the cell this entity is on. A cell is a whole position packed into one int (see Town.getCell).
+   * @return an int, with this entity's cell.
    */
-  public int[] getLocation() {
-    return this.location;
+  public int getCell() {
+    if (isRemoved()) {
+      return 0;
+    }
+    return this.registry.getCell(this.slot);
   }
 
-  /** setLocation(newLocation); 
-   * Takes in a new location, and sets this entity's location to that new location.
-   * @param newLocation, an int array with the new coordinates of this entity.
+  /** setCell(newCell); 
+   * Takes in a new cell, and moves this entity's location to that cell.
+   * @param newCell, an int with the new cell of this entity.
    */
-  public void setLocation(int[] newLocation) {
-    this.location[0] = newLocation[0];
-    this.location[1] = newLocation[1];
+  public void setCell(int newCell) {
+    this.registry.setCell(this.slot, newCell);
   }
   
   /** getDecayValue(); 
@@ -68,7 +154,10 @@ abstract class Entity {
    * @return an int, with this entity's decay value.
    */
   public int getDecayValue() {
-    return this.decayValue;
+    if (isRemoved()) {
+      return 0;
+    }
+    return this.registry.getDecay(this.slot);
   }
   
   /** getShouldPerformAction(); 
@@ -76,7 +165,10 @@ abstract class Entity {
    * @return a boolean with this entity's shouldPerformAction value.
    */
   public boolean getShouldPerformAction() {
-    return this.shouldPerformAction;
+    if (isRemoved()) {
+      return false;
+    }
+    return this.registry.getCanAct(this.slot);
   }
   
   /** setShouldPerformAction(value); 
@@ -84,7 +176,7 @@ abstract class Entity {
    * @param value, a boolean which controls whether this entity should perform an action or not.
    */
   public void setShouldPerformAction(boolean value) {
-    this.shouldPerformAction = value;
+    this.registry.setCanAct(this.slot, value);
   }
   
   /** getHValue(); 
@@ -104,11 +196,29 @@ abstract class Entity {
   }
   /// GETTERS/SETTERS ////
   
+  /** writeTo(out); 
+   * Saves this entity's id and everything the registry keeps about it. Every kind of entity adds its own values
+   * after these.
+   * @param out, the TownCheckpoint.Output to write to.
+   * @throws IOException, in case the checkpoint cannot be written.
+   */
+  public void writeTo(TownCheckpoint.Output out) throws IOException {
+    out.putInt(this.id);
+    out.putInt(this.registry.getHealth(this.slot));
+    out.putInt(this.registry.getDecay(this.slot));
+
+    out.putInt(this.registry.getCell(this.slot));
+    out.putInt(this.registry.getAge(this.slot));
+    out.putInt(this.registry.getCooldown(this.slot));
+    out.putChar(this.registry.getGender(this.slot));
+    out.putBoolean(this.registry.getCanAct(this.slot));
+  }
+
   /** decay(); 
    * Reduces this entity's health by its decay value.
    */
   public void decay() {
-    this.health -= this.decayValue;
+    this.registry.setHealth(this.slot, this.registry.getHealth(this.slot) - this.registry.getDecay(this.slot));
   }
   
   /** isDead(); 
@@ -116,7 +226,7 @@ abstract class Entity {
    * @return true if this entity's health is below or equal to 0, false otherwise.
    */
   public boolean isDead() {
-    if (this.health <= 0) {
+    if (this.getHealth() <= 0) {
       return true;
     }
     return false;
@@ -0,0 +1,358 @@
+/** Class: EntityRegistry
+ * @version 2.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: Keeps every entity in the town in one packed array. Every entity remembers its own slot, so adding
+ *               and removing are both constant time. Removing only leaves a hole (a tombstone), so the slots don't
+ *               move around while a turn is looping through them. compact() fills the holes in at the end of the
+ *               turn by moving the last entities into them.
+ *
+ *               The registry also holds everything about the entities that changes during a turn (health, decay,
+ *               position, type, age, reproduction cooldown, gender and whether they can still act), one array per
+ *               value, all indexed by slot. The entities themselves just read and write their own slot, so things
+ *               that happen to every entity at once (like the end of a turn) are plain loops over a few arrays.
+ */
+
+class EntityRegistry {
+  //- The type of a hole
+  static final byte NONE = -1;
+
+  private Entity[] entities;
+  private int size, liveCount;
+
+  //- One value per slot
+  private int[] health, decay, cells, ages, cooldowns;
+  private byte[] types;
+  private char[] genders;
+  private boolean[] canAct;
+
+  //- Every slot that was emptied since the last compact()
+  private int[] holes = new int[16];
+  private int holeCount;
+
+  //// CONSTRUCTORS ////
+  /** EntityRegistry();
+   * Creates an empty registry.
+   */
+  EntityRegistry() {
+    allocate(16);
+  }
+  //// CONSTRUCTORS ////
+
+  /// GETTERS/SETTERS ////
+  /** size();
+   * Gets the amount of slots in use, including any holes. Loop up to this and skip the nulls.
+   * @return an int with the amount of slots.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /** liveCount();
+   * Gets the amount of entities actually in the registry.
+   * @return an int with the amount of entities.
+   */
+  public int liveCount() {
+    return this.liveCount;
+  }
+
+  /** get(slot);
+   * Gets the entity in the given slot.
+   * @param slot, an int from 0 to size() - 1.
+   * @return the Entity in that slot, or null if it was removed.
+   */
+  public Entity get(int slot) {
+    return this.entities[slot];
+  }
+
+  /** getType(slot);
+   * Gets what kind of entity is in the given slot.
+   * @param slot, an int from 0 to size() - 1.
+   * @return a byte with Town.HUMAN, Town.ZOMBIE or Town.PLANT, or NONE if the slot is a hole.
+   */
+  public byte getType(int slot) {
+    return this.types[slot];
+  }
+
+  /** getHealth(slot);
+   * Gets the health of the entity in the given slot.
+   * @param slot, an int with the slot.
+   * @return an int with its health.
+   */
+  public int getHealth(int slot) {
+    return this.health[slot];
+  }
+
+  /** setHealth(slot, value);
+   * Sets the health of the entity in the given slot.
+   * @param slot, an int with the slot.
+   * @param value, an int with its new health.
+   */
+  public void setHealth(int slot, int value) {
+    this.health[slot] = value;
+  }
+
+  /** getDecay(slot);
+   * Gets the decay value of the entity in the given slot.
+   * @param slot, an int with the slot.
+   * @return an int with its decay value.
+   */
+  public int getDecay(int slot) {
+    return this.decay[slot];
+  }
+
+  /** getCell(slot);
+   * Gets the cell the entity in the given slot is on (see Town.getCell).
+   * @param slot, an int with the slot.
+   * @return an int with its cell.
+   */
+  public int getCell(int slot) {
+    return this.cells[slot];
+  }
+
+  /** setCell(slot, cell);
+   * Sets the cell the entity in the given slot is on.
+   * @param slot, an int with the slot.
+   * @param cell, an int with its new cell.
+   */
+  public void setCell(int slot, int cell) {
+    this.cells[slot] = cell;
+  }
+
+  /** getAge(slot);
+   * Gets the age of the entity in the given slot. Only humans get older.
+   * @param slot, an int with the slot.
+   * @return an int with its age.
+   */
+  public int getAge(int slot) {
+    return this.ages[slot];
+  }
+
+  /** setAge(slot, value);
+   * Sets the age of the entity in the given slot.
+   * @param slot, an int with the slot.
+   * @param value, an int with its new age.
+   */
+  public void setAge(int slot, int value) {
+    this.ages[slot] = value;
+  }
+
+  /** getCooldown(slot);
+   * Gets the reproduction cooldown of the entity in the given slot.
+   * @param slot, an int with the slot.
+   * @return an int with its cooldown.
+   */
+  public int getCooldown(int slot) {
+    return this.cooldowns[slot];
+  }
+
+  /** setCooldown(slot, value);
+   * Sets the reproduction cooldown of the entity in the given slot.
+   * @param slot, an int with the slot.
+   * @param value, an int with its new cooldown.
+   */
+  public void setCooldown(int slot, int value) {
+    this.cooldowns[slot] = value;
+  }
+
+  /** getGender(slot);
+   * Gets the gender of the entity in the given slot.
+   * @param slot, an int with the slot.
+   * @return a char with its gender, or 0 if it doesn't have one.
+   */
+  public char getGender(int slot) {
+    return this.genders[slot];
+  }
+
+  /** setGender(slot, value);
+   * Sets the gender of the entity in the given slot.
+   * @param slot, an int with the slot.
+   * @param value, a char with its gender.
+   */
+  public void setGender(int slot, char value) {
+    this.genders[slot] = value;
+  }
+
+  /** getCanAct(slot);
+   * Gets whether the entity in the given slot can still act this turn.
+   * @param slot, an int with the slot.
+   * @return true if it can, otherwise false.
+   */
+  public boolean getCanAct(int slot) {
+    return this.canAct[slot];
+  }
+
+  /** setCanAct(slot, value);
+   * Sets whether the entity in the given slot can still act this turn.
+   * @param slot, an int with the slot.
+   * @param value, a boolean that is true if it can.
+   */
+  public void setCanAct(int slot, boolean value) {
+    this.canAct[slot] = value;
+  }
+  /// GETTERS/SETTERS ////
+
+  /** add(entity, type, health, decayValue);
+   * Adds an entity to the end of the registry. Everything else about it starts out at 0, and it can act.
+   * @param entity, the Entity to add.
+   * @param type, a byte with Town.HUMAN, Town.ZOMBIE or Town.PLANT.
+   * @param health, an int with its health.
+   * @param decayValue, an int with its decay value.
+   */
+  public void add(Entity entity, byte type, int health, int decayValue) {
+    if (size == entities.length) {
+      allocate(entities.length * 2);
+    }
+
+    entities[size] = entity;
+    types[size] = type;
+    this.health[size] = health;
+    decay[size] = decayValue;
+    cells[size] = 0;
+    ages[size] = 0;
+    cooldowns[size] = 0;
+    genders[size] = 0;
+    canAct[size] = true;
+
+    entity.setSlot(size);
+    size++;
+    liveCount++;
+  }
+
+  /** remove(entity);
+   * Removes an entity, leaving a hole in its slot until compact() is called. Does nothing if the entity isn't in
+   * the registry.
+   * @param entity, the Entity to remove.
+   */
+  public void remove(Entity entity) {
+    int slot = entity.getSlot();
+    if (slot < 0 || slot >= size || entities[slot] != entity) {
+      return;
+    }
+
+    if (holeCount == holes.length) {
+      int[] bigger = new int[holes.length * 2];
+      System.arraycopy(holes, 0, bigger, 0, holeCount);
+      holes = bigger;
+    }
+
+    entities[slot] = null;
+    types[slot] = NONE;
+    entity.setSlot(-1);
+    holes[holeCount] = slot;
+    holeCount++;
+    liveCount--;
+  }
+
+  /** decayAll();
+   * Reduces the health of every entity that can still act by its decay value.
+   */
+  public void decayAll() {
+    for (int x = 0; x < size; x++) {
+      if (types[x] != NONE && canAct[x]) {
+        health[x] -= decay[x];
+      }
+    }
+  }
+
+  /** advanceTurn();
+   * Lets every entity act again, and makes every human a turn older and a turn closer to being able to reproduce.
+   * Call this once the dead have been removed.
+   */
+  public void advanceTurn() {
+    for (int x = 0; x < size; x++) {
+      if (types[x] != NONE) {
+        canAct[x] = true;
+      }
+    }
+
+    for (int x = 0; x < size; x++) {
+      if (types[x] == Town.HUMAN) {
+        if (cooldowns[x] != 0) {
+          cooldowns[x]--;
+        }
+        ages[x]++;
+      }
+    }
+  }
+
+  /** compact();
+   * Fills in every hole by moving the last entity into it (a swap remove), so the registry is packed again.
+   */
+  public void compact() {
+    trimEnd();
+
+    for (int x = 0; x < holeCount; x++) {
+      int hole = holes[x];
+
+      if (hole < size) { //- Holes past the end were already trimmed off
+        int last = size - 1;
+        move(last, hole);
+
+        entities[last] = null;
+        types[last] = NONE;
+        size--;
+        trimEnd();
+      }
+    }
+
+    holeCount = 0;
+  }
+
+  /** move(from, to);
+   * Moves the entity in one slot, and all of its values, into another slot.
+   * @param from, an int with the slot it's in.
+   * @param to, an int with the slot it's going to.
+   */
+  private void move(int from, int to) {
+    entities[to] = entities[from];
+    types[to] = types[from];
+    health[to] = health[from];
+    decay[to] = decay[from];
+    cells[to] = cells[from];
+    ages[to] = ages[from];
+    cooldowns[to] = cooldowns[from];
+    genders[to] = genders[from];
+    canAct[to] = canAct[from];
+
+    entities[to].setSlot(to);
+  }
+
+  /** trimEnd();
+   * Drops any holes at the very end of the registry.
+   */
+  private void trimEnd() {
+    while (size > 0 && entities[size - 1] == null) {
+      size--;
+    }
+  }
+
+  /** allocate(capacity);
+   * Makes every array the given size, keeping everything that's already in them.
+   * @param capacity, an int with the new amount of slots.
+   */
+  private void allocate(int capacity) {
+    entities = grow(entities, new Entity[capacity]);
+    types = grow(types, new byte[capacity]);
+    health = grow(health, new int[capacity]);
+    decay = grow(decay, new int[capacity]);
+    cells = grow(cells, new int[capacity]);
+    ages = grow(ages, new int[capacity]);
+    cooldowns = grow(cooldowns, new int[capacity]);
+    genders = grow(genders, new char[capacity]);
+    canAct = grow(canAct, new boolean[capacity]);
+  }
+
+  /** grow(old, bigger);
+   * Copies every used slot of an array into a bigger one.
+   * @param old, the array to copy, or null if there isn't one yet.
+   * @param bigger, the new array.
+   * @return the new array.
+   */
+  private <T> T grow(T old, T bigger) {
+    if (old != null) {
+      System.arraycopy(old, 0, bigger, 0, size);
+    }
+    return bigger;
+  }
+}
@@ -0,0 +1,238 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/** Class: EventJournal
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: An append-only log of everything that changes in a town while it runs (see Town.setJournal). Together
+ *               with the seed and settings of the run (or a checkpoint to start from), it's enough to replay the run
+ *               or look through it later without running the simulation again.
+ *
+ *               The town only ever writes events into a ring buffer in memory, which is cheap. A background thread
+ *               takes them out of the ring and writes them to the file through a FileChannel, so the town never
+ *               waits on the disk (unless the ring fills up, in which case it waits instead of losing events).
+ *               Only one thread may record events at a time, which is always the thread running the turn.
+ *
+ *               The file starts with a header (magic, version, seed, grid height, grid width, starting turn), and
+ *               every event after that is 5 ints: the type followed by 4 values. The values for every type are:
+ *               TURN_END (turn, humans, zombies, plants) - always the last event of a turn
+ *               MOVE (id, from cell, to cell, 0)
+ *               PLANT_SPAWN (id, cell, health, 0)
+ *               CONSUME (human id, plant id, cell, 0)
+ *               TRAMPLE (zombie id, plant id, cell, 0)
+ *               BIRTH (child id, first parent id, second parent id, cell)
+ *               INFECTION (zombie id, human id, new zombie id, cell)
+ *               ZOMBIE_MEAL (zombie id, human id, cell, 0)
+ *               DEATH (id, cell, type, 0)
+ *               MOUSE_SPAWN (id, cell, health, 0)
+ *               CLIMATE (grow speed, weather, season, 0)
+ */
+
+class EventJournal {
+  //- Every type of event
+  public static final int TURN_END = 0;
+  public static final int MOVE = 1;
+  public static final int PLANT_SPAWN = 2;
+  public static final int CONSUME = 3;
+  public static final int TRAMPLE = 4;
+  public static final int BIRTH = 5;
+  public static final int INFECTION = 6;
+  public static final int ZOMBIE_MEAL = 7;
+  public static final int DEATH = 8;
+  public static final int MOUSE_SPAWN = 9;
+  public static final int CLIMATE = 10;
+
+  private static final int MAGIC = 0x45564A4C; //- "EVJL"
+  private static final int VERSION = 1;
+  private static final int EVENT_INTS = 5;
+  private static final int BUFFER_SIZE = 1 << 20;
+  private static final long IDLE_NANOS = 1000000;
+
+  //- The ring, which holds a power of 2 amount of events
+  private final int[] ring;
+  private final int capacity, mask;
+
+  //- How many events have been recorded (only touched by the recording thread), how many of those the writer is
+  //- allowed to see, and how many it has written
+  private long recorded;
+  private final AtomicLong published = new AtomicLong();
+  private final AtomicLong drained = new AtomicLong();
+  private long knownDrained; //- The last value of drained the recording thread saw, so it doesn't have to keep reading it
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+  private final IntBuffer events = buffer.asIntBuffer(); //- The same memory as buffer, so whole runs of events can be copied in at once
+  private final Thread writer;
+  private volatile boolean closing = false;
+  private volatile IOException failure;
+
+  //// CONSTRUCTORS ////
+  /** EventJournal(file, town, ringEvents);
+   * Creates a new journal for a town, replacing the file if it's already there, and starts the thread that writes
+   * it. Give it to the town with Town.setJournal().
+   * @param file, a Path with where to write the journal.
+   * @param town, the Town the journal is for (used for the header).
+   * @param ringEvents, an int with how many events the ring can hold, rounded up to a power of 2.
+   * @throws IOException, in case the file cannot be created.
+   */
+  EventJournal(Path file, Town town, int ringEvents) throws IOException {
+    this.capacity = Integer.highestOneBit(Math.max(2, ringEvents - 1)) << 1;
+    this.mask = this.capacity - 1;
+    this.ring = new int[this.capacity * EVENT_INTS];
+
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                    StandardOpenOption.TRUNCATE_EXISTING);
+
+    Entity[][] city = town.getCity();
+    ByteBuffer header = ByteBuffer.allocate(28);
+    header.putInt(MAGIC);
+    header.putInt(VERSION);
+    header.putLong(town.getSeed());
+    header.putInt(city.length);
+    header.putInt(city[0].length);
+    header.putInt(town.getTurnsSurvived());
+    header.flip();
+    while (header.hasRemaining()) {
+      this.channel.write(header);
+    }
+
+    this.writer = new Thread(this::drain, "event-journal");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+  //// CONSTRUCTORS ////
+
+  /// GETTERS/SETTERS ////
+  /** getEventCount();
+   * Gets the amount of events recorded so far.
+   * @return a long with the amount of events.
+   */
+  public long getEventCount() {
+    return this.recorded;
+  }
+  /// GETTERS/SETTERS ////
+
+  /** record(type, a, b, c, d);
+   * Adds an event to the end of the journal. Only the thread running the turn should call this.
+   * @param type, an int with the type of event (MOVE, BIRTH, etc).
+   * @param a, an int with the first value of the event.
+   * @param b, an int with the second value of the event.
+   * @param c, an int with the third value of the event.
+   * @param d, an int with the fourth value of the event.
+   */
+  public void record(int type, int a, int b, int c, int d) {
+    if (recorded - knownDrained >= capacity) {
+      waitForRoom();
+    }
+
+    int at = (int) (recorded & mask) * EVENT_INTS;
+    ring[at] = type;
+    ring[at + 1] = a;
+    ring[at + 2] = b;
+    ring[at + 3] = c;
+    ring[at + 4] = d;
+
+    recorded++;
+    published.lazySet(recorded); //- Everything above is visible to the writer before it sees the new count
+  }
+
+  /** close();
+   * Waits for every event to be written, then closes the file. Nothing can be recorded afterwards.
+   * @throws IOException, in case the journal couldn't be written.
+   */
+  public void close() throws IOException {
+    closing = true;
+    LockSupport.unpark(writer);
+
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    channel.close();
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /** waitForRoom();
+   * Waits until the writer has made room in the ring for another event.
+   */
+  private void waitForRoom() {
+    while (true) {
+      knownDrained = drained.get();
+      if (recorded - knownDrained < capacity) {
+        return;
+      }
+      if (failure != null) {
+        throw new UncheckedIOException(failure);
+      }
+      LockSupport.unpark(writer);
+      Thread.onSpinWait();
+    }
+  }
+
+  /** drain();
+   * What the writer thread runs. Keeps copying published events out of the ring and into the file until the
+   * journal is closed and everything has been written.
+   */
+  private void drain() {
+    long written = 0;
+
+    try {
+      while (true) {
+        long available = published.get();
+
+        if (available == written) {
+          if (closing && published.get() == written) {
+            break;
+          }
+          //- Nothing new, so write out what's been collected and wait a little
+          flush();
+          LockSupport.parkNanos(IDLE_NANOS);
+          continue;
+        }
+
+        //- Copy the new events in runs that don't wrap around the end of the ring or overflow the buffer
+        while (written < available) {
+          if (events.remaining() < EVENT_INTS) {
+            flush();
+          }
+          int at = (int) (written & mask);
+          int amount = (int) Math.min(Math.min(available - written, capacity - at), events.remaining() / EVENT_INTS);
+
+          events.put(ring, at * EVENT_INTS, amount * EVENT_INTS);
+          written += amount;
+        }
+        drained.lazySet(written);
+      }
+
+      flush();
+    } catch (IOException e) {
+      failure = e;
+    }
+  }
+
+  /** flush();
+   * Writes everything collected in the buffer to the file.
+   * @throws IOException, in case the file cannot be written.
+   */
+  private void flush() throws IOException {
+    buffer.limit(events.position() * 4);
+    buffer.position(0);
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+    events.clear();
+  }
+}
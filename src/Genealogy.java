@@ -0,0 +1,349 @@
+import java.io.IOException;
+
+/** Class: Genealogy
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: Keeps track of who every living human's parents and children are. Every human gets a record when
+ *               it's born (or spawned), and the record is given back when it dies so the next baby can reuse it.
+ *               Every record has a generation that goes up whenever it's given back, so a link to a dead parent is
+ *               recognised just by checking the generation, without going through anyone's children.
+ *
+ *               Every child has two link slots, one for each parent. The slots for a parent's children are chained
+ *               together in a doubly linked list (newest child first), so births and deaths are both constant time.
+ *               Children that die are taken off their parents' lists right away, so the lists only ever hold
+ *               children that are still in the town.
+ */
+
+class Genealogy {
+  static final int NONE = -1;
+
+  //- One value per record
+  private Human[] owners; //- The human using the record, or null if it's free
+  private int[] ids, generations, firstChild, aliveChildren, visited;
+
+  //- Two values per record (one for each parent). Link slot 2 * record + k is the record's place in its kth parent's
+  //- list of children.
+  private int[] parents, parentGenerations, nextSibling, previousSibling;
+
+  private int size; //- Records that have ever been used
+  private int[] freeRecords;
+  private int freeCount;
+  private int visitStamp;
+
+  //// CONSTRUCTORS ////
+  /** Genealogy();
+   * Creates an empty genealogy.
+   */
+  Genealogy() {
+    allocate(16);
+    freeRecords = new int[16];
+  }
+
+  /** Genealogy(in);
+   * Loads a genealogy that was saved with writeTo(). The records start out with no owners, and every human gets
+   * put back into its record with restoreOwner() once it has been loaded.
+   * @param in, the TownCheckpoint.Input to read from.
+   * @throws IOException, in case the checkpoint cannot be read.
+   */
+  Genealogy(TownCheckpoint.Input in) throws IOException {
+    size = in.getInt();
+    allocate(Math.max(16, size));
+
+    in.getInts(ids, size);
+    in.getInts(generations, size);
+    in.getInts(firstChild, size);
+    in.getInts(aliveChildren, size);
+
+    in.getInts(parents, size * 2);
+    in.getInts(parentGenerations, size * 2);
+    in.getInts(nextSibling, size * 2);
+    in.getInts(previousSibling, size * 2);
+
+    freeCount = in.getInt();
+    freeRecords = new int[Math.max(16, freeCount)];
+    in.getInts(freeRecords, freeCount);
+  }
+  //// CONSTRUCTORS ////
+
+  /// GETTERS/SETTERS ////
+  /** isCurrent(record, generation);
+   * Checks to see if a record is still being used by the human it was given to.
+   * @param record, an int with the record.
+   * @param generation, an int with the generation the record had when it was given out.
+   * @return true if the human is still alive, otherwise false.
+   */
+  public boolean isCurrent(int record, int generation) {
+    return record != NONE && owners[record] != null && generations[record] == generation;
+  }
+
+  /** getGeneration(record);
+   * Gets the current generation of a record.
+   * @param record, an int with the record.
+   * @return an int with its generation.
+   */
+  public int getGeneration(int record) {
+    return generations[record];
+  }
+
+  /** getId(record);
+   * Gets the entity id of the human using a record.
+   * @param record, an int with the record.
+   * @return an int with the human's id, or NONE if the record is free.
+   */
+  public int getId(int record) {
+    return ids[record];
+  }
+
+  /** getAliveChildCount(record);
+   * Gets the amount of children of a human that are still in the town.
+   * @param record, an int with the human's record.
+   * @return an int with the amount of children.
+   */
+  public int getAliveChildCount(int record) {
+    return aliveChildren[record];
+  }
+
+  /** getAliveParentCount(record);
+   * Gets the amount of parents of a human that are still in the town.
+   * @param record, an int with the human's record.
+   * @return an int from 0 to 2.
+   */
+  public int getAliveParentCount(int record) {
+    int amount = 0;
+    for (int k = 0; k < 2; k++) {
+      if (isCurrent(parents[2 * record + k], parentGenerations[2 * record + k])) {
+        amount++;
+      }
+    }
+    return amount;
+  }
+  /// GETTERS/SETTERS ////
+
+  /** addFounder(person);
+   * Gives a record to a human that has no parents (one that was spawned).
+   * @param person, the Human to add.
+   */
+  public void addFounder(Human person) {
+    int record = claimRecord(person);
+
+    for (int k = 0; k < 2; k++) {
+      parents[2 * record + k] = NONE;
+    }
+  }
+
+  /** addChild(child, firstParent, secondParent);
+   * Gives a record to a newborn, and adds it to the front of both of its parents' lists of children.
+   * @param child, the Human that was just born.
+   * @param firstParent, the Human that reproduced.
+   * @param secondParent, the Human it reproduced with.
+   */
+  public void addChild(Human child, Human firstParent, Human secondParent) {
+    int record = claimRecord(child);
+    Human[] both = {firstParent, secondParent};
+
+    for (int k = 0; k < 2; k++) {
+      int link = 2 * record + k;
+      int parent = both[k].getLineage();
+
+      parents[link] = parent;
+      parentGenerations[link] = generations[parent];
+
+      //- Push the child onto the front of the parent's list
+      previousSibling[link] = NONE;
+      nextSibling[link] = firstChild[parent];
+      if (firstChild[parent] != NONE) {
+        previousSibling[firstChild[parent]] = link;
+      }
+      firstChild[parent] = link;
+      aliveChildren[parent]++;
+    }
+  }
+
+  /** remove(person);
+   * Takes a dead human out of its parents' lists of children, and frees its record. Its own children aren't
+   * touched, since their link to it goes stale as soon as the generation goes up.
+   * @param person, the Human that died.
+   */
+  public void remove(Human person) {
+    int record = person.getLineage();
+    if (!(isCurrent(record, person.getLineageGeneration()))) {
+      return;
+    }
+
+    for (int k = 0; k < 2; k++) {
+      int link = 2 * record + k;
+      int parent = parents[link];
+
+      if (isCurrent(parent, parentGenerations[link])) {
+        if (previousSibling[link] == NONE) {
+          firstChild[parent] = nextSibling[link];
+        } else {
+          nextSibling[previousSibling[link]] = nextSibling[link];
+        }
+        if (nextSibling[link] != NONE) {
+          previousSibling[nextSibling[link]] = previousSibling[link];
+        }
+        aliveChildren[parent]--;
+      }
+    }
+
+    owners[record] = null;
+    ids[record] = NONE;
+    generations[record]++;
+
+    if (freeCount == freeRecords.length) {
+      int[] bigger = new int[freeRecords.length * 2];
+      System.arraycopy(freeRecords, 0, bigger, 0, freeCount);
+      freeRecords = bigger;
+    }
+    freeRecords[freeCount] = record;
+    freeCount++;
+  }
+
+  /** findNewestLivingChild(record);
+   * Finds the youngest child of a human that still has health left.
+   * @param record, an int with the human's record.
+   * @return the Human, or null if there isn't one.
+   */
+  public Human findNewestLivingChild(int record) {
+    for (int link = firstChild[record]; link != NONE; link = nextSibling[link]) {
+      Human child = owners[link / 2];
+      if (child.getHealth() > 0) {
+        return child;
+      }
+    }
+    return null;
+  }
+
+  /** countDescendants(record);
+   * Counts every living descendant of a human (children, grandchildren and so on) that can be reached through
+   * living family. Someone descended from it twice (eg. through two of its children) is only counted once.
+   * @param record, an int with the human's record.
+   * @return an int with the amount of descendants.
+   */
+  public int countDescendants(int record) {
+    visitStamp++;
+    int[] stack = new int[16];
+    int top = 0, amount = 0;
+
+    stack[top++] = record;
+    visited[record] = visitStamp;
+
+    while (top > 0) {
+      int current = stack[--top];
+
+      for (int link = firstChild[current]; link != NONE; link = nextSibling[link]) {
+        int child = link / 2;
+
+        if (visited[child] != visitStamp) {
+          visited[child] = visitStamp;
+          amount++;
+
+          if (top == stack.length) {
+            int[] bigger = new int[stack.length * 2];
+            System.arraycopy(stack, 0, bigger, 0, top);
+            stack = bigger;
+          }
+          stack[top++] = child;
+        }
+      }
+    }
+
+    return amount;
+  }
+
+  /** restoreOwner(person);
+   * Puts a loaded human back into the record it had when the genealogy was saved.
+   * @param person, the Human that was loaded.
+   */
+  public void restoreOwner(Human person) {
+    int record = person.getLineage();
+    if (record != NONE) {
+      owners[record] = person;
+      person.setLineage(this, record, person.getLineageGeneration());
+    }
+  }
+
+  /** writeTo(out);
+   * Saves every record and link, and the list of free records. The owners aren't saved, since every human saves
+   * its own record.
+   * @param out, the TownCheckpoint.Output to write to.
+   * @throws IOException, in case the checkpoint cannot be written.
+   */
+  public void writeTo(TownCheckpoint.Output out) throws IOException {
+    out.putInt(size);
+
+    out.putInts(ids, size);
+    out.putInts(generations, size);
+    out.putInts(firstChild, size);
+    out.putInts(aliveChildren, size);
+
+    out.putInts(parents, size * 2);
+    out.putInts(parentGenerations, size * 2);
+    out.putInts(nextSibling, size * 2);
+    out.putInts(previousSibling, size * 2);
+
+    out.putInt(freeCount);
+    out.putInts(freeRecords, freeCount);
+  }
+
+  /** claimRecord(person);
+   * Gives a human a free record (or a brand new one), with no children.
+   * @param person, the Human that needs a record.
+   * @return an int with the record.
+   */
+  private int claimRecord(Human person) {
+    int record;
+    if (freeCount > 0) {
+      freeCount--;
+      record = freeRecords[freeCount];
+    } else {
+      if (size == owners.length) {
+        allocate(owners.length * 2);
+      }
+      record = size;
+      size++;
+    }
+
+    owners[record] = person;
+    ids[record] = person.getId();
+    firstChild[record] = NONE;
+    aliveChildren[record] = 0;
+    person.setLineage(this, record, generations[record]);
+
+    return record;
+  }
+
+  /** allocate(capacity);
+   * Makes every array big enough for the given amount of records, keeping everything that's already in them.
+   * @param capacity, an int with the new amount of records.
+   */
+  private void allocate(int capacity) {
+    owners = grow(owners, new Human[capacity], size);
+    ids = grow(ids, new int[capacity], size);
+    generations = grow(generations, new int[capacity], size);
+    firstChild = grow(firstChild, new int[capacity], size);
+    aliveChildren = grow(aliveChildren, new int[capacity], size);
+    visited = grow(visited, new int[capacity], size);
+
+    parents = grow(parents, new int[capacity * 2], size * 2);
+    parentGenerations = grow(parentGenerations, new int[capacity * 2], size * 2);
+    nextSibling = grow(nextSibling, new int[capacity * 2], size * 2);
+    previousSibling = grow(previousSibling, new int[capacity * 2], size * 2);
+  }
+
+  /** grow(old, bigger, used);
+   * Copies the used part of an array into a bigger one.
+   * @param old, the array to copy, or null if there isn't one yet.
+   * @param bigger, the new array.
+   * @param used, an int with how much of the old array is used.
+   * @return the new array.
+   */
+  private <T> T grow(T old, T bigger, int used) {
+    if (old != null) {
+      System.arraycopy(old, 0, bigger, 0, used);
+    }
+    return bigger;
+  }
+}
@@ -0,0 +1,204 @@
+import java.util.Arrays;
+
+/** Class: GridPyramid
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: A mipmap of what's on the town's grid, so a zoomed out display can draw a whole tile of squares
+ *               as one pixel without looking at every square in it. Level 0 has what's on every square (HUMAN,
+ *               ZOMBIE, PLANT or EMPTY), and every level after that has how many humans, zombies and plants are
+ *               in every tile of 2 x 2 tiles of the level below (so a tile of level k is 2^k squares wide).
+ *
+ *               It's kept up to date one square at a time from the squares that changed (see ChangedCells), which
+ *               only touches one tile per level, so it never has to be built again unless everything changed. The
+ *               counts of the first few levels aren't kept, since their tiles are small enough to just count the
+ *               squares, and keeping them would take most of the time of every update (their tiles are so many that
+ *               almost every update misses the cache).
+ */
+
+class GridPyramid {
+  //- What can be on a square
+  static final byte EMPTY = 0;
+  static final byte HUMAN = 1;
+  static final byte ZOMBIE = 2;
+  static final byte PLANT = 3;
+  private static final int FIRST_KEPT_LEVEL = 3; //- The first level with its counts kept, with tiles of 8 x 8 squares
+
+  private final int height, width, levels;
+  private final byte[] squares; //- Level 0
+  private final int[][] counts; //- [level][tile * 4 + HUMAN, ZOMBIE or PLANT], for every kept level
+  private final int[] tileCols;
+
+  //// CONSTRUCTORS ////
+  /** GridPyramid(height, width);
+   * Creates the pyramid for a grid of the given size, with every square empty. It has enough levels for the
+   * last one to be a single tile.
+   * @param height, an int with the height of the grid.
+   * @param width, an int with the width of the grid.
+   */
+  GridPyramid(int height, int width) {
+    this.height = height;
+    this.width = width;
+
+    int amount = 1;
+    while ((Math.max(height, width) - 1) >> (amount - 1) > 0) {
+      amount++;
+    }
+    this.levels = amount;
+
+    this.squares = new byte[height * width];
+    this.counts = new int[levels][];
+    this.tileCols = new int[levels];
+    this.tileCols[0] = width;
+
+    for (int level = 1; level < levels; level++) {
+      tileCols[level] = ((width - 1) >> level) + 1;
+    }
+    for (int level = FIRST_KEPT_LEVEL; level < levels; level++) {
+      counts[level] = new int[getTileRows(level) * tileCols[level] * (PLANT + 1)]; //- The counts of a tile are together
+    }
+  }
+  //// CONSTRUCTORS ////
+
+  /// GETTERS/SETTERS ////
+  /** getLevels();
+   * Gets how many levels there are, including level 0.
+   * @return an int with the amount of levels.
+   */
+  public int getLevels() {
+    return this.levels;
+  }
+
+  /** getTileRows(level);
+   * Gets how many rows of tiles a level has.
+   * @param level, an int with the level.
+   * @return an int with the amount of rows.
+   */
+  public int getTileRows(int level) {
+    return ((height - 1) >> level) + 1;
+  }
+
+  /** getTileCols(level);
+   * Gets how many columns of tiles a level has.
+   * @param level, an int with the level.
+   * @return an int with the amount of columns.
+   */
+  public int getTileCols(int level) {
+    return this.tileCols[level];
+  }
+
+  /** getCount(level, type, tile);
+   * Gets how many of something are in a tile.
+   * @param level, an int with the level.
+   * @param type, a byte with what to count (HUMAN, ZOMBIE or PLANT).
+   * @param tile, an int with the tile (row * getTileCols(level) + col).
+   * @return an int with the amount.
+   */
+  public int getCount(int level, byte type, int tile) {
+    if (level >= FIRST_KEPT_LEVEL) {
+      return this.counts[level][tile * (PLANT + 1) + type];
+    }
+
+    //- Count the squares in the tile
+    int firstRow = (tile / tileCols[level]) << level;
+    int firstCol = (tile % tileCols[level]) << level;
+    int lastRow = Math.min(height, firstRow + (1 << level));
+    int lastCol = Math.min(width, firstCol + (1 << level));
+
+    int amount = 0;
+    for (int row = firstRow; row < lastRow; row++) {
+      for (int col = firstCol; col < lastCol; col++) {
+        if (squares[row * width + col] == type) {
+          amount++;
+        }
+      }
+    }
+    return amount;
+  }
+
+  /** getArea(level, row, col);
+   * Gets how many squares of the grid are in a tile, which is less for tiles on the bottom and right edges.
+   * @param level, an int with the level.
+   * @param row, an int with the row of the tile.
+   * @param col, an int with the column of the tile.
+   * @return an int with the amount of squares.
+   */
+  public int getArea(int level, int row, int col) {
+    int rows = Math.min(1 << level, height - (row << level));
+    int cols = Math.min(1 << level, width - (col << level));
+    return rows * cols;
+  }
+  /// GETTERS/SETTERS ////
+
+  /** set(cell, entity);
+   * Updates a square that changed, and every tile it's in.
+   * @param cell, an int with the cell of the square.
+   * @param entity, the Entity that's on it now, or null if it's empty.
+   */
+  public void set(int cell, Entity entity) {
+    byte type = typeOf(entity);
+    byte oldType = squares[cell];
+    if (type == oldType) {
+      return;
+    }
+    squares[cell] = type;
+
+    int row = cell / width;
+    int col = cell % width;
+    for (int level = FIRST_KEPT_LEVEL; level < levels; level++) {
+      int tile = ((row >> level) * tileCols[level] + (col >> level)) * (PLANT + 1);
+      if (oldType != EMPTY) {
+        counts[level][tile + oldType]--;
+      }
+      if (type != EMPTY) {
+        counts[level][tile + type]++;
+      }
+    }
+  }
+
+  /** rebuild(city);
+   * Builds the whole pyramid again from the city, one level at a time.
+   * @param city, the map of the city.
+   */
+  public void rebuild(Entity[][] city) {
+    for (int row = 0; row < height; row++) {
+      for (int col = 0; col < width; col++) {
+        squares[row * width + col] = typeOf(city[row][col]);
+      }
+    }
+
+    for (int level = FIRST_KEPT_LEVEL; level < levels; level++) {
+      int cols = tileCols[level];
+      int[] tiles = counts[level];
+      Arrays.fill(tiles, 0);
+
+      //- Every tile is the sum of the (up to) 4 tiles below it, which are counted from the squares for the first one
+      int belowRows = getTileRows(level - 1);
+      int belowCols = tileCols[level - 1];
+      for (int row = 0; row < belowRows; row++) {
+        for (int col = 0; col < belowCols; col++) {
+          int tile = ((row >> 1) * cols + (col >> 1)) * (PLANT + 1);
+          for (byte type = HUMAN; type <= PLANT; type++) {
+            tiles[tile + type] += getCount(level - 1, type, row * belowCols + col);
+          }
+        }
+      }
+    }
+  }
+
+  /** typeOf(entity);
+   * Gets what kind of thing an entity is, as far as the pyramid cares.
+   * @param entity, the Entity, or null for an empty square.
+   * @return a byte with HUMAN, ZOMBIE, PLANT or EMPTY.
+   */
+  static byte typeOf(Entity entity) {
+    if (entity instanceof Human) {
+      return HUMAN;
+    } else if (entity instanceof Zombie) {
+      return ZOMBIE;
+    } else if (entity instanceof Plant) {
+      return PLANT;
+    }
+    return EMPTY;
+  }
+}
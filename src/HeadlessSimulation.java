@@ -0,0 +1,111 @@
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+
+/** Class: HeadlessSimulation
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: Runs Cheerville without the display or any questions, as fast as it can go. All the values come
+ *               from the command line or a properties file (see SimulationConfig), and the results are printed at
+ *               the end.
+ *
+ *               Example: java HeadlessSimulation humans=200 plants=500 zombies=5 gridHeight=100 gridWidth=100 maxTurns=5000
+ *
+ *               With checkpoint=file the town is saved to that file at the end (and every checkpointEvery turns),
+ *               and resume=file carries on from a saved town instead of making a new one (see TownCheckpoint).
+ *               With journal=file every change to the town is logged to that file (see EventJournal).
+ */
+
+class HeadlessSimulation {
+  public static void main(String[] args) throws Exception {
+    SimulationConfig config = SimulationConfig.fromArgs(args);
+
+    Simulation.nameGenerator = new NameGenerator();
+
+    long setupStart = System.nanoTime();
+    Town cheerville;
+    if (config.resumeFile != null) {
+      cheerville = TownCheckpoint.load(Paths.get(config.resumeFile));
+    } else {
+      cheerville = new Town(config, config.seed);
+    }
+    if (config.threads > 0) {
+      ForkJoinPool pool = new ForkJoinPool(config.threads);
+      cheerville.setTurnPool(pool);
+      cheerville.setRebuildPool(pool);
+    }
+    long setupTime = System.nanoTime() - setupStart;
+    cheerville.getMetrics().register("headless"); //- So the turn timings can be watched in JConsole while it runs
+
+    EventJournal journal = null;
+    if (config.journalFile != null) {
+      journal = new EventJournal(Paths.get(config.journalFile), cheerville, 1 << 16);
+      cheerville.setJournal(journal);
+    }
+
+    Path checkpoint = (config.checkpointFile != null) ? Paths.get(config.checkpointFile) : null;
+    int checkpoints = 0;
+    long checkpointTime = 0;
+
+    //- Run until the humans are gone, or until we hit the turn cap
+    int startTurn = cheerville.getTurnsSurvived();
+    long runStart = System.nanoTime();
+    while (cheerville.checkForHumans() && (config.maxTurns == 0 || cheerville.getTurnsSurvived() < config.maxTurns)) {
+      cheerville.runCycle();
+
+      if (config.checkpointEvery > 0 && cheerville.getTurnsSurvived() % config.checkpointEvery == 0) {
+        long checkpointStart = System.nanoTime();
+        TownCheckpoint.save(cheerville, checkpoint);
+        checkpointTime += System.nanoTime() - checkpointStart;
+        checkpoints++;
+      }
+    }
+    long runTime = System.nanoTime() - runStart;
+
+    if (checkpoint != null) {
+      long checkpointStart = System.nanoTime();
+      TownCheckpoint.save(cheerville, checkpoint);
+      checkpointTime += System.nanoTime() - checkpointStart;
+      checkpoints++;
+    }
+
+    if (journal != null) {
+      journal.close();
+    }
+
+    int turns = cheerville.getTurnsSurvived();
+    int turnsRun = turns - startTurn;
+    int[] totalCount = cheerville.getCounts();
+    int[] totalGenderCount = cheerville.getGendersCounts();
+    double seconds = runTime / 1e9;
+
+    if (cheerville.checkForHumans()) {
+      System.out.println("Stopped at the turn cap. Humans have survived for " + turns + " turns!");
+    } else {
+      System.out.println("THE WORLD HAS ENDED! Humans have survived for " + turns + " turns!");
+    }
+    System.out.println("Seed: " + cheerville.getSeed());
+    System.out.printf("Setup: %.3f s%n", setupTime / 1e9);
+    System.out.printf("Run: %.3f s (%.1f turns per second)%n", seconds, (seconds > 0) ? turnsRun / seconds : 0.0);
+    TownMetrics metrics = cheerville.getMetrics();
+    String[] phases = metrics.getPhaseNames();
+    double[] means = metrics.getPhaseMeanMillis();
+    double[] p99s = metrics.getPhaseP99Millis();
+    System.out.print("Phases (mean / p99 ms over the last " + Math.min(metrics.getTurns(), metrics.getWindowTurns()) + " turns):");
+    for (int x = 0; x < phases.length; x++) {
+      System.out.printf(" %s %.3f / %.3f%s", phases[x], means[x], p99s[x], (x < phases.length - 1) ? "," : "");
+    }
+    System.out.println();
+
+    if (journal != null) {
+      System.out.println("Journal: " + journal.getEventCount() + " events logged to " + config.journalFile);
+    }
+    if (checkpoints > 0) {
+      System.out.printf("Checkpoints: %d saved to %s (%.1f ms each)%n", checkpoints, checkpoint, checkpointTime / 1e6 / checkpoints);
+    }
+    System.out.println("Humans: " + totalCount[0] + " (" + totalGenderCount[0] + " male, " + totalGenderCount[1] + " female)");
+    System.out.println("Zombies: " + totalCount[1]);
+    System.out.println("Plants: " + totalCount[2]);
+  }
+}
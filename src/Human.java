@@ -1,4 +1,4 @@
-import java.util.ArrayList;
+import java.io.IOException;
 
 /** Class: Human
  * @version 2.1
@@ -9,94 +9,96 @@ import java.util.ArrayList;
 
 class Human extends Animal implements AbleToEat, HasName {
   private static int REBELLION_FACTOR = 18; //- If they're rebellious, they switch last names
-  private int reproductionCooldown, age;
-  private char gender, canMateWith;
-  private String firstName, lastName;
-  private String[] parentNames = new String[2];
-  private ArrayList<Human> aliveChildren, aliveParents;
+  private int firstName, lastName; //- Indexes into the NameGenerator's lists, so no Strings are made until they're shown
+  private int[] parentNames; //- The first and last name indexes of both parents, or null if it was spawned
+
+  //- Where this human's family is kept (see Genealogy), or NONE if it hasn't been added to one
+  private Genealogy genealogy;
+  private int lineage = Genealogy.NONE, lineageGeneration;
 
   private final int MAX_HP;
   
   //// CONSTRUCTORS ////
 
-  /** Human(health, hunger, gender, maxHp, lastName, parents);
+  /** Human(registry, health, hunger, gender, maxHp, lastName, firstParent, secondParent, random);
    * This creates a new human and is used if this human was spawned through reproduction. Takes the values and calls
    * super with health and hunger, while assigning everything else to its own class variable. Also assigns
-   * parents names, its first name and what gender it can mate with, and initializes the children ArrayList.
+   * parents names and its first name. The town adds it to its parents' families.
+   * @param registry, the EntityRegistry of the town this human lives in.
    * @param health, an int with the human's health.
    * @param hunger, an int with the human's decay value.
    * @param gender, a char with the human's gender.
    * @param maxHp, an int with the human's max possible hp.
-   * @param lastName, a String with the human's last name.
-   * @param parents, an ArrayList of Humans with this human's parents.
+   * @param lastName, an int with the index of the human's last name.
+   * @param firstParent, a Human with the parent that reproduced.
+   * @param secondParent, a Human with the parent it reproduced with.
+   * @param random, the RandomService used to pick this human's name.
    */
-  Human(int health, int hunger, char gender, int maxHp, String lastName, ArrayList<Human> parents) {
+  Human(EntityRegistry registry, int health, int hunger, char gender, int maxHp, int lastName, Human firstParent, Human secondParent, RandomService random) {
     //- If this Human was spawned through reproduction.
-    super(health, hunger, 1.0, 3.0);
-    
-    this.gender = gender;
-    
-    if (this.gender == 'F') {
-      this.canMateWith = 'M';
-    } else {
-      this.canMateWith = 'F';
-    }
+    super(registry, (byte) Town.HUMAN, health, hunger, 1.0, 3.0);
     
-    this.age = 0;
-    this.reproductionCooldown = 0;
+    registry.setGender(this.getSlot(), gender);
     this.MAX_HP = maxHp;
     
-    this.firstName = Simulation.nameGenerator.generateFirstName(this.gender);
+    this.firstName = Simulation.nameGenerator.pickFirstName(gender, random);
     
     //- Determines whether the child will change their last name or not
-    int rebelChance = Simulation.randInt(0, Human.REBELLION_FACTOR + 1);
+    int rebelChance = random.randInt(0, Human.REBELLION_FACTOR + 1);
     if (rebelChance == Human.REBELLION_FACTOR) {
-      this.lastName = Simulation.nameGenerator.generateLastName();
+      this.lastName = Simulation.nameGenerator.pickLastName(random);
     } else {
       this.lastName = lastName;
     }
 
-    this.aliveParents = parents;
-    this.aliveChildren = new ArrayList<Human>();
-
-    this.parentNames[0] = parents.get(0).getFirstName() + " " + parents.get(0).getLastName();
-    this.parentNames[1] = parents.get(1).getFirstName() + " " + parents.get(1).getLastName();
+    this.parentNames = new int[] {firstParent.firstName, firstParent.lastName,
+                                  secondParent.firstName, secondParent.lastName};
   }
   
-  /** Human(health, hunger, gender, age, maxHp, lastName);
+  /** Human(registry, health, hunger, gender, age, maxHp, lastName, random);
    * This creates a new human and is used if this human was spawned from the start. Takes the values and calls
    * super with health and hunger, while assigning everything else to its own class variable. Also assigns
-   * parents names, its own name and what gender it can mate with, and initializes the children and parent
-   * ArrayList.
+   * its own name.
+   * @param registry, the EntityRegistry of the town this human lives in.
    * @param health, an int with the human's health.
    * @param hunger, an int with the human's decay value.
    * @param gender, a char with the human's gender.
    * @param maxHp, an int with the human's max possible hp.
-   * @param lastName, a String with the human's last name.
+   * @param lastName, an int with the index of the human's last name.
+   * @param random, the RandomService used to pick this human's name.
    */
-  Human(int health, int hunger, char gender, int age, int maxHp, String lastName) {
+  Human(EntityRegistry registry, int health, int hunger, char gender, int age, int maxHp, int lastName, RandomService random) {
     //- If the human was spawned from the spawn method
-    super(health, hunger, 1.0, 3.0);
-    
-    this.gender = gender;
-    
-    if (this.gender == 'F') {
-      this.canMateWith = 'M';
-    } else {
-      this.canMateWith = 'F';
-    }
+    super(registry, (byte) Town.HUMAN, health, hunger, 1.0, 3.0);
     
-    this.age = age;
-    this.reproductionCooldown = 0;
+    registry.setGender(this.getSlot(), gender);
+    registry.setAge(this.getSlot(), age);
     this.MAX_HP = maxHp;
-    this.firstName = Simulation.nameGenerator.generateFirstName(this.gender);
-    this.lastName = Simulation.nameGenerator.generateLastName();
+    this.firstName = Simulation.nameGenerator.pickFirstName(gender, random);
+    this.lastName = Simulation.nameGenerator.pickLastName(random);
+  }
 
-    this.aliveParents = new ArrayList<Human>(2);
-    this.aliveChildren = new ArrayList<Human>();
-    
-    this.parentNames[0] = "The great abyss";
-    this.parentNames[1] = "A cup of java";
+  /** Human(registry, in);
+   * Loads a human that was saved with writeTo(), with the same names, parents and record in the genealogy. The
+   * town puts it back into its genealogy afterwards (see Genealogy.restoreOwner).
+   * @param registry, the EntityRegistry of the town this human lives in.
+   * @param in, the TownCheckpoint.Input to read from.
+   * @throws IOException, in case the checkpoint cannot be read.
+   */
+  Human(EntityRegistry registry, TownCheckpoint.Input in) throws IOException {
+    super(registry, (byte) Town.HUMAN, in, 1.0, 3.0);
+
+    this.MAX_HP = in.getInt();
+    this.firstName = in.getInt();
+    this.lastName = in.getInt();
+
+    if (in.getBoolean()) {
+      this.parentNames = new int[4];
+      in.getInts(this.parentNames, 4);
+    }
+
+    this.lineage = in.getInt();
+    this.lineageGeneration = in.getInt();
   }
   //// CONSTRUCTORS ////
   
@@ -106,7 +108,10 @@ class Human extends Animal implements AbleToEat, HasName {
    * @return an int, with this human's reproduction cooldown
    */
   public int getReproductionCooldown() {
-    return this.reproductionCooldown;
+    if (this.isRemoved()) {
+      return 0;
+    }
+    return this.getRegistry().getCooldown(this.getSlot());
   }
   
   /** setReproductionCooldown(newCooldown); 
@@ -114,7 +119,7 @@ class Human extends Animal implements AbleToEat, HasName {
    * @param newCooldown, an int with a new reproduction cooldown
    */
   public void setReproductionCooldown(int newCooldown) {
-    this.reproductionCooldown = newCooldown;
+    this.getRegistry().setCooldown(this.getSlot(), newCooldown);
   }
   
   /** decreaseReproductionCooldown(number);
@@ -122,7 +127,7 @@ class Human extends Animal implements AbleToEat, HasName {
    * @param number, an int with how much this human's reproduction cooldown should decrease.
    */
   public void decreaseReproductionCooldown(int number) {
-    this.reproductionCooldown -= number;
+    this.getRegistry().setCooldown(this.getSlot(), this.getReproductionCooldown() - number);
   }
   
   /** getGender(); 
@@ -130,7 +135,10 @@ class Human extends Animal implements AbleToEat, HasName {
    * @return a char, with this human's gender.
    */
   public char getGender() {
-    return this.gender;
+    if (this.isRemoved()) {
+      return 0;
+    }
+    return this.getRegistry().getGender(this.getSlot());
   }
   
   /** getCanMateWith(); 
@@ -138,7 +146,10 @@ class Human extends Animal implements AbleToEat, HasName {
    * @return a char, with which gender this human can mate with.
    */
   public char getCanMateWith() {
-    return this.canMateWith;
+    if (this.getGender() == 'F') {
+      return 'M';
+    }
+    return 'F';
   } 
   
   /** getAge(); 
@@ -146,7 +157,10 @@ class Human extends Animal implements AbleToEat, HasName {
    * @return an int, with this human's age.
    */
   public int getAge() {
-    return age;
+    if (this.isRemoved()) {
+      return 0;
+    }
+    return this.getRegistry().getAge(this.getSlot());
   }
   
   /** incrementAge(amount); 
@@ -154,7 +168,7 @@ class Human extends Animal implements AbleToEat, HasName {
    * @param amount, an int with how much this human's age should increase.
    */
   public void incrementAge(int amount) {
-    this.age += amount;
+    this.getRegistry().setAge(this.getSlot(), this.getAge() + amount);
   }
 
   /** getFirstName(); 
@@ -162,7 +176,7 @@ class Human extends Animal implements AbleToEat, HasName {
    * @return a String, with this human's first name.
    */
   public String getFirstName() {
-    return this.firstName;
+    return Simulation.nameGenerator.getFirstName(this.firstName);
   }
 
   /** getLastName(); 
@@ -170,6 +184,14 @@ class Human extends Animal implements AbleToEat, HasName {
    * @return a String, with this human's last name.
    */
   public String getLastName() {
+    return Simulation.nameGenerator.getLastName(this.lastName);
+  }
+
+  /** getLastNameIndex(); 
+   * Gets the index of this human's last name, which is what gets passed down to its kids.
+   * @return an int, with the index of this human's last name.
+   */
+  public int getLastNameIndex() {
     return this.lastName;
   }
 
@@ -179,7 +201,44 @@ class Human extends Animal implements AbleToEat, HasName {
    * @return a String, with this human's name.
    */
   public String getName() {
-    return this.firstName + " " + this.lastName;
+    return getFirstName() + " " + getLastName();
+  }
+
+  /** setLineage(genealogy, lineage, lineageGeneration); 
+   * Sets where this human's family is kept. Only the Genealogy should call this.
+   * @param genealogy, the Genealogy of the town this human lives in.
+   * @param lineage, an int with this human's record in it.
+   * @param lineageGeneration, an int with the generation of that record.
+   */
+  public void setLineage(Genealogy genealogy, int lineage, int lineageGeneration) {
+    this.genealogy = genealogy;
+    this.lineage = lineage;
+    this.lineageGeneration = lineageGeneration;
+  }
+
+  /** getLineage(); 
+   * Gets this human's record in its town's Genealogy.
+   * @return an int with the record, or Genealogy.NONE if it doesn't have one.
+   */
+  public int getLineage() {
+    return this.lineage;
+  }
+
+  /** getLineageGeneration(); 
+   * Gets the generation of this human's record, which tells its record apart from whoever uses it after this human
+   * dies.
+   * @return an int with the generation.
+   */
+  public int getLineageGeneration() {
+    return this.lineageGeneration;
+  }
+
+  /** hasFamily(); 
+   * Checks to see if this human is still in its town's Genealogy (it gets taken out when it dies).
+   * @return true if it is, otherwise false.
+   */
+  private boolean hasFamily() {
+    return (this.genealogy != null) && this.genealogy.isCurrent(this.lineage, this.lineageGeneration);
   }
 
   /** hasAliveParents(); 
@@ -187,34 +246,21 @@ class Human extends Animal implements AbleToEat, HasName {
    * @return true if this human does, false otherwise.
    */
   public boolean hasAliveParents() {
-    if (this.aliveParents.size() < 0) {
-      return true;
-    }
-    return false;
-  }
-
-  /** getParents(); 
-   * Gets this human's parents.
-   * @return an ArrayList of Humans, with this human's parents.
-   */
-  public ArrayList<Human> getParents() {
-    return this.aliveParents;
+    return hasFamily() && (this.genealogy.getAliveParentCount(this.lineage) > 0);
   }
 
   /** getParentNames(); 
-   * Gets this human's parents' names.
+   * Gets this human's parents' names. The Strings are only made when this is called.
    * @return an String array, with this human's parents' names.
    */
   public String[] getParentNames() {
-    return this.parentNames;
-  }
+    if (this.parentNames == null) {
+      return new String[] {"The great abyss", "A cup of java"};
+    }
 
-  /** removeParents(deadParent); 
-   * Deletes the provided parent from the ArrayList of parents.
-   * @param deadParent, a Human that is the human of this entity.
-   */
-  public void removeParent(Human deadParent) {
-    this.aliveParents.remove(deadParent);
+    NameGenerator names = Simulation.nameGenerator;
+    return new String[] {names.getFirstName(this.parentNames[0]) + " " + names.getLastName(this.parentNames[1]),
+                         names.getFirstName(this.parentNames[2]) + " " + names.getLastName(this.parentNames[3])};
   }
 
   /** hasAliveKids(); 
@@ -222,43 +268,33 @@ class Human extends Animal implements AbleToEat, HasName {
    * @return true if this human does, otherwise false.
    */
   public boolean hasAliveKids() {
-    if (this.aliveChildren.size() > 0) {
+    if (this.getAmountOfAliveKids() > 0) {
       return true;
     }
 
     return false;
   }
 
-  /** getKids(); 
-   * Gets an ArrayList containing this human's children.
-   * @return an ArrayList of Humans, which contains this human's children.
-   */
-  public ArrayList<Human> getKids() {
-    return this.aliveChildren;
-  }
-
-  /** addKid(child); 
-   * Adds a child to this human's children ArrayList.
-   * @param child, a Human that is the child of this human.
-   */
-  public void addKid(Human child) {
-    this.aliveChildren.add(child);
-  }
-
-  /** removeKid(deadChild); 
-   * Removes a child from this human's children ArrayList.
-   * @param deadChild, a Human that is to be removed.
-   */
-  public void removeKid(Human deadChild) {
-    this.aliveChildren.remove(deadChild);
-  }
-
   /** getAmountOfAliveKids(); 
    * Get the total amount of alive children that this human has.
    * @return an int, with the amount of alive children this human has.
    */
   public int getAmountOfAliveKids() {
-    return this.aliveChildren.size();
+    if (!(hasFamily())) {
+      return 0;
+    }
+    return this.genealogy.getAliveChildCount(this.lineage);
+  }
+
+  /** getAmountOfDescendants(); 
+   * Get the total amount of alive children, grandchildren and so on that this human has.
+   * @return an int, with the amount of alive descendants this human has.
+   */
+  public int getAmountOfDescendants() {
+    if (!(hasFamily())) {
+      return 0;
+    }
+    return this.genealogy.countDescendants(this.lineage);
   }
   
   /// GETTERS/SETTERS ////
@@ -267,18 +303,16 @@ class Human extends Animal implements AbleToEat, HasName {
   /** findPossibleMoves(surroundingEntities); 
    * Takes in a list of the surrounding 8 tiles, and decides whether it can move there or not based on
    * location and if there is something there already.
-   * @return an ArrayList of Integers, containing the possible direction in which it can move.
+   * @param surroundingEntities, an Entity array containing the 8 surrounding spots.
+   * @return an int, with bit x set if it can move in direction x.
    */
-  public ArrayList<Integer> findPossibleMoves(Entity[] surroundingEntities) {
-    ArrayList<Integer> positions = new ArrayList<Integer>();
-    int[] pos = this.getLocation();
+  public int findPossibleMoves(Entity[] surroundingEntities) {
+    int positions = 0;
 
     for (int x = 0; x < surroundingEntities.length; x++) {
       if (surroundingEntities[x] == null) { 
-        int[] direction = {pos[0] + directions[x][0], pos[1] + directions[x][1]};
-
-        if (((direction[0] >= 0) && (direction[0] < Town.GRID_H)) && ((direction[1] >= 0) && (direction[1] < Town.GRID_W))) {
-          positions.add(x);
+        if (this.canStep(x)) {
+          positions |= 1 << x;
         }
       } else { 
         if (surroundingEntities[x] instanceof Human) {
@@ -286,12 +320,12 @@ class Human extends Animal implements AbleToEat, HasName {
           if (this.getReproductionCooldown() == 0 && mate.getReproductionCooldown() == 0) {
             if (this.getAge() >= Town.MIN_REPRODUCTION_AGE && mate.getAge() >= Town.MIN_REPRODUCTION_AGE) {
               if (this.getCanMateWith() == mate.getGender()) {
-                positions.add(x);
+                positions |= 1 << x;
               }
             }
           }
         } else if (surroundingEntities[x] instanceof Plant) {
-          positions.add(x);
+          positions |= 1 << x;
         }
       }
     }
@@ -299,97 +333,69 @@ class Human extends Animal implements AbleToEat, HasName {
     return positions;
   }
 
-  /** revalidateValues(possibleMoves, currentValues); 
-   * Takes in possible locations and the values of all 8 surrounding locations, and returns only the values
-   * of the squares that can be moved to.
-   * @param possibleMoves, an ArrayList of Integers that contains the possible moves out of all 8 directions.
-   * @param currentValues, a double array that contains all 8 surrounding values.
-   * @return a double array, containing all the values of the squares that can be moved to.
-   */
-  private double[] revalidateValues(ArrayList<Integer> possibleMoves, double[] currentValues) {
-    double[] validValues = new double[possibleMoves.size()];
-
-    for (int x = 0; x < possibleMoves.size(); x++) {
-      validValues[x] = currentValues[possibleMoves.get(x)];
-    }
-
-    return validValues;
-  }
-
   @Override
-  /** decideMovement(surroundingEntities, surroundingValues); 
+  /** decideMovement(surroundingEntities, surroundingValues, random); 
    * Takes in the surrounding 8 entities and the surrounding 8 values and decides where to go
    * based on where it can actually go and the values of that spot.
    * @param surroundingEntities, an Entity array containing the 8 surrounding spots.
-   * @param surroundingValues, a double array containing the 8 surrounding values.
-   * @return an int array contianing the new positiong that this being wishes to go to.
+   * @param surroundingValues, an int array containing the 8 surrounding values, in hundredths.
+   * @param random, the RandomService used to break ties between equally good spots.
+   * @return an int with the direction value this being wishes to go in, or STAY.
    */
-  public int[] decideMovement(Entity[] surroundingEntities, double[] surroundingValues) {
-    ArrayList<Integer> possibleMoves = findPossibleMoves(surroundingEntities);
-    if (possibleMoves.size() > 0) {
-      double[] values = revalidateValues(possibleMoves, surroundingValues);
-
-      double max = values[0];
-      //- Get the max priority
-      for (int x = 0; x < values.length; x++) {
-        if (values[x] > max) {
-          max = values[x];
-        }
-      }
-        
-      ArrayList<Integer> betterLocations = new ArrayList<Integer>();
+  public int decideMovement(Entity[] surroundingEntities, int[] surroundingValues, RandomService random) {
+    return chooseMove(findPossibleMoves(surroundingEntities), surroundingValues, random);
+  }
 
-      for (int x = 0; x < values.length; x++) {
-        if (values[x] == max) {
-        betterLocations.add(possibleMoves.get(x));
-        }
-      }
+  @Override
+  /** writeTo(out); 
+   * Saves everything about this human, including its names, its parents' names and its record in the genealogy.
+   * @param out, the TownCheckpoint.Output to write to.
+   * @throws IOException, in case the checkpoint cannot be written.
+   */
+  public void writeTo(TownCheckpoint.Output out) throws IOException {
+    super.writeTo(out);
+
+    out.putInt(this.MAX_HP);
+    out.putInt(this.firstName);
+    out.putInt(this.lastName);
 
-      int choice = Simulation.randInt(0, betterLocations.size());
-      int[] pos = this.getLocation();
-      int[] newPos = {pos[0] + directions[betterLocations.get(choice)][0], 
-                      pos[1] + directions[betterLocations.get(choice)][1]};
-        
-      return newPos;
+    out.putBoolean(this.parentNames != null);
+    if (this.parentNames != null) {
+      out.putInts(this.parentNames, 4);
     }
 
-    return this.getLocation();
+    out.putInt(this.lineage);
+    out.putInt(this.lineageGeneration);
   }
 
-  /** reproduce(mate); 
+  /** reproduce(mate, random); 
    * Takes in a human mate and creates a new child with that mate. Also adjusts values of the mate and 
-   * current human, as well as the child.
+   * current human, as well as the child. The town adds the child to both parents' families.
    * @param mate, a Human that this human is procreating with.
+   * @param random, the RandomService used to pick the child's gender and name.
    * @return a Human, which is the child of this human and this human's mate.
    */
-  public Human reproduce(Human mate) {
+  public Human reproduce(Human mate, RandomService random) {
     mate.setShouldPerformAction(false);
     mate.setReproductionCooldown(Town.PROCREATING_COOLDOWN);
     this.setReproductionCooldown(Town.PROCREATING_COOLDOWN);
     
-    String lastName;
+    int lastName;
 
-    if (this.gender == 'M') {
+    if (this.getGender() == 'M') {
       lastName = this.lastName;
     } else {
-      lastName = mate.getLastName();
+      lastName = mate.getLastNameIndex();
     }
 
     char[] genders = {'M', 'F'};
-    int gender = Simulation.randInt(0, genders.length);
-    
-    ArrayList<Human> parents = new ArrayList<Human>();
-    parents.add(this);
-    parents.add(mate);
+    int gender = random.randInt(0, genders.length);
 
-    Human child = new Human(((int)((this.getHealth() + mate.getHealth()) / 2)), this.getDecayValue(), 
-                              genders[gender], this.MAX_HP, lastName, parents);
+    Human child = new Human(this.getRegistry(), ((int)((this.getHealth() + mate.getHealth()) / 2)), this.getDecayValue(), 
+                              genders[gender], this.MAX_HP, lastName, this, mate, random);
  
     child.setShouldPerformAction(false);
 
-    this.addKid(child);
-    mate.addKid(child);
-
     return child;
   }
   
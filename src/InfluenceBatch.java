@@ -0,0 +1,131 @@
+import java.util.ArrayList;
+
+/** Class: InfluenceBatch
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: Collects every change to the value maps during a turn and applies them all at once at the end. If
+ *               an entity moves in and out of the same square (or dies where it just moved), the changes cancel out
+ *               and that square is never stamped at all.
+ */
+
+class InfluenceBatch {
+  private final int height, width;
+
+  //- Every combination of value map, value type and kernel gets its own channel
+  private ArrayList<Channel> channels = new ArrayList<Channel>();
+
+  //// CONSTRUCTORS ////
+  /** InfluenceBatch(height, width);
+   * Creates an empty batch for a grid of the given size.
+   * @param height, an int with the height of the grid.
+   * @param width, an int with the width of the grid.
+   */
+  InfluenceBatch(int height, int width) {
+    this.height = height;
+    this.width = width;
+  }
+  //// CONSTRUCTORS ////
+
+  /** record(kernel, valueMap, valueType, row, col, sign);
+   * Records that a kernel should be added (or removed, if sign is -1) at [row, col] once the batch is applied.
+   * @param kernel, the InfluenceKernel of the entity's value.
+   * @param valueMap, the selected map of values (either valuesOfHumans, valuesOfZombies, or valuesOfPlants).
+   * @param valueType, either HUMAN or ZOMBIE, depending on which value we're using (HValue or ZValue).
+   * @param row, an int with the row of the entity.
+   * @param col, an int with the column of the entity.
+   * @param sign, an int that is 1 to add the kernel and -1 to remove it.
+   */
+  public void record(InfluenceKernel kernel, InfluenceField valueMap, int valueType, int row, int col, int sign) {
+    Channel channel = findChannel(kernel, valueMap, valueType);
+    int cell = row * this.width + col;
+
+    if (!(channel.queued[cell])) {
+      channel.queued[cell] = true;
+      channel.touched[channel.touchedCount] = cell;
+      channel.touchedCount++;
+    }
+
+    channel.netSources[cell] += sign;
+  }
+
+  /** apply(valueInfluencers);
+   * Stamps the net change of every square that was touched onto its value map, then empties the batch.
+   * @param valueInfluencers, the counts keeping track of how many values affect every square.
+   * @return an int with the amount of squares of the value maps that were changed.
+   */
+  public int apply(InfluenceCounts valueInfluencers) {
+    int changed = 0;
+
+    for (int x = 0; x < channels.size(); x++) {
+      Channel channel = channels.get(x);
+
+      for (int y = 0; y < channel.touchedCount; y++) {
+        int cell = channel.touched[y];
+        int net = channel.netSources[cell];
+
+        if (net != 0) { //- Anything that cancelled out doesn't need to be stamped
+          changed += channel.kernel.stamp(channel.valueMap, valueInfluencers, channel.valueType, cell / width, cell % width, net);
+        }
+
+        channel.netSources[cell] = 0;
+        channel.queued[cell] = false;
+      }
+
+      channel.touchedCount = 0;
+    }
+
+    return changed;
+  }
+
+  /** findChannel(kernel, valueMap, valueType);
+   * Finds the channel for this combination, or makes a new one if it hasn't been used yet. There's only ever a
+   * handful of channels, so a simple search is fine.
+   * @param kernel, the InfluenceKernel of the entity's value.
+   * @param valueMap, the selected map of values.
+   * @param valueType, either HUMAN or ZOMBIE.
+   * @return the Channel for this combination.
+   */
+  private Channel findChannel(InfluenceKernel kernel, InfluenceField valueMap, int valueType) {
+    for (int x = 0; x < channels.size(); x++) {
+      Channel channel = channels.get(x);
+      if (channel.kernel == kernel && channel.valueMap == valueMap && channel.valueType == valueType) {
+        return channel;
+      }
+    }
+
+    Channel channel = new Channel(kernel, valueMap, valueType, this.height * this.width);
+    channels.add(channel);
+
+    return channel;
+  }
+
+  //Inner Class
+  private static class Channel {
+    private final InfluenceKernel kernel;
+    private final InfluenceField valueMap;
+    private final int valueType;
+
+    //- The net amount of sources added to every square, and the list of squares that have been touched
+    private int[] netSources, touched;
+    private boolean[] queued;
+    private int touchedCount;
+
+    /** Channel(kernel, valueMap, valueType, cells);
+     * Creates an empty channel for the given combination.
+     * @param kernel, the InfluenceKernel of this channel.
+     * @param valueMap, the value map this channel stamps onto.
+     * @param valueType, either HUMAN or ZOMBIE.
+     * @param cells, an int with the total amount of squares in the grid.
+     */
+    Channel(InfluenceKernel kernel, InfluenceField valueMap, int valueType, int cells) {
+      this.kernel = kernel;
+      this.valueMap = valueMap;
+      this.valueType = valueType;
+
+      this.netSources = new int[cells];
+      this.touched = new int[cells];
+      this.queued = new boolean[cells];
+    }
+  }
+}
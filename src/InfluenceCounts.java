@@ -0,0 +1,89 @@
+import java.util.Arrays;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/** Class: InfluenceCounts
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: Keeps track of how many values affect every square of the town, stored the same flat way as an
+ *               InfluenceField.
+ */
+
+class InfluenceCounts {
+  private final int cells;
+
+  //- Only one of these is ever used, depending on whether the counts are stored off the heap or not
+  private final int[] counts;
+  private final IntBuffer offHeapCounts;
+
+  //// CONSTRUCTORS ////
+  /** InfluenceCounts(height, width, layers, offHeap);
+   * Creates a new set of counts of the given size, all starting at 0.
+   * @param height, an int with the height of the grid.
+   * @param width, an int with the width of the grid.
+   * @param layers, an int with the amount of value types being counted.
+   * @param offHeap, a boolean that is true if the counts should be stored outside of the java heap.
+   */
+  InfluenceCounts(int height, int width, int layers, boolean offHeap) {
+    this.cells = height * width;
+
+    long size = (long)this.cells * layers;
+
+    if (offHeap) {
+      if (size * Integer.BYTES > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Grid is too big to store off heap: " + height + "x" + width);
+      }
+      this.counts = null;
+      this.offHeapCounts = ByteBuffer.allocateDirect((int)(size * Integer.BYTES)).order(ByteOrder.nativeOrder()).asIntBuffer();
+    } else {
+      this.counts = new int[(int)size];
+      this.offHeapCounts = null;
+    }
+  }
+  //// CONSTRUCTORS ////
+
+  /// GETTERS/SETTERS ////
+  /** get(valueType, cell);
+   * Gets how many values of the given type affect a square.
+   * @param valueType, either HUMAN or ZOMBIE.
+   * @param cell, an int with the index of the square.
+   * @return an int with the amount of values affecting that square.
+   */
+  public int get(int valueType, int cell) {
+    if (counts != null) {
+      return counts[valueType * cells + cell];
+    }
+    return offHeapCounts.get(valueType * cells + cell);
+  }
+
+  /** add(valueType, cell, amount);
+   * Changes how many values of the given type affect a square.
+   * @param valueType, either HUMAN or ZOMBIE.
+   * @param cell, an int with the index of the square.
+   * @param amount, an int with how much to change the count by.
+   */
+  public void add(int valueType, int cell, int amount) {
+    if (counts != null) {
+      counts[valueType * cells + cell] += amount;
+    } else {
+      int index = valueType * cells + cell;
+      offHeapCounts.put(index, offHeapCounts.get(index) + amount);
+    }
+  }
+  /// GETTERS/SETTERS ////
+
+  /** clear();
+   * Sets every count back to 0.
+   */
+  public void clear() {
+    if (counts != null) {
+      Arrays.fill(counts, 0);
+    } else {
+      for (int x = 0; x < offHeapCounts.capacity(); x++) {
+        offHeapCounts.put(x, 0);
+      }
+    }
+  }
+}
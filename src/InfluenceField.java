@@ -0,0 +1,132 @@
+import java.util.Arrays;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/** Class: InfluenceField
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: One of the town's value maps, stored as a single flat array instead of a 3d array. Each value type
+ *               (Human and Zombie) gets its own layer, and each layer is stored row by row, so the squares around
+ *               any square are right next to each other in memory.
+ */
+
+class InfluenceField {
+  private final int height, width, cells;
+
+  //- Only one of these is ever used, depending on whether the field is stored off the heap or not
+  private final double[] values;
+  private final DoubleBuffer offHeapValues;
+
+  //// CONSTRUCTORS ////
+  /** InfluenceField(height, width, layers, offHeap);
+   * Creates a new field of the given size with every value at 0.
+   * @param height, an int with the height of the grid.
+   * @param width, an int with the width of the grid.
+   * @param layers, an int with the amount of value types stored in this field.
+   * @param offHeap, a boolean that is true if the values should be stored outside of the java heap.
+   */
+  InfluenceField(int height, int width, int layers, boolean offHeap) {
+    this.height = height;
+    this.width = width;
+    this.cells = height * width;
+
+    long size = (long)this.cells * layers;
+
+    if (offHeap) {
+      if (size * Double.BYTES > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Grid is too big to store off heap: " + height + "x" + width);
+      }
+      this.values = null;
+      this.offHeapValues = ByteBuffer.allocateDirect((int)(size * Double.BYTES)).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+    } else {
+      this.values = new double[(int)size];
+      this.offHeapValues = null;
+    }
+  }
+  //// CONSTRUCTORS ////
+
+  /// GETTERS/SETTERS ////
+  /** getHeight();
+   * Gets the height of the grid this field covers.
+   * @return an int with the height.
+   */
+  public int getHeight() {
+    return this.height;
+  }
+
+  /** getWidth();
+   * Gets the width of the grid this field covers.
+   * @return an int with the width.
+   */
+  public int getWidth() {
+    return this.width;
+  }
+
+  /** index(row, col);
+   * Turns a position on the grid into the index of that square in this field.
+   * @param row, an int with the row of the square.
+   * @param col, an int with the column of the square.
+   * @return an int with the index of the square.
+   */
+  public int index(int row, int col) {
+    return row * this.width + col;
+  }
+
+  /** get(valueType, cell);
+   * Gets the value of a square.
+   * @param valueType, either HUMAN or ZOMBIE, depending on which value we want.
+   * @param cell, an int with the index of the square.
+   * @return a double with the value of that square.
+   */
+  public double get(int valueType, int cell) {
+    if (values != null) {
+      return values[valueType * cells + cell];
+    }
+    return offHeapValues.get(valueType * cells + cell);
+  }
+
+  /** set(valueType, cell, value);
+   * Sets the value of a square.
+   * @param valueType, either HUMAN or ZOMBIE, depending on which value we're setting.
+   * @param cell, an int with the index of the square.
+   * @param value, a double with the new value.
+   */
+  public void set(int valueType, int cell, double value) {
+    if (values != null) {
+      values[valueType * cells + cell] = value;
+    } else {
+      offHeapValues.put(valueType * cells + cell, value);
+    }
+  }
+
+  /** add(valueType, cell, value);
+   * Adds onto the value of a square.
+   * @param valueType, either HUMAN or ZOMBIE, depending on which value we're changing.
+   * @param cell, an int with the index of the square.
+   * @param value, a double with how much to add.
+   */
+  public void add(int valueType, int cell, double value) {
+    if (values != null) {
+      values[valueType * cells + cell] += value;
+    } else {
+      int index = valueType * cells + cell;
+      offHeapValues.put(index, offHeapValues.get(index) + value);
+    }
+  }
+  /// GETTERS/SETTERS ////
+
+  /** clear();
+   * Sets every value in this field back to 0.
+   */
+  public void clear() {
+    if (values != null) {
+      Arrays.fill(values, 0);
+    } else {
+      for (int x = 0; x < offHeapValues.capacity(); x++) {
+        offHeapValues.put(x, 0);
+      }
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/** Class: InfluenceKernel
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: A precomputed stamp of the values that a single entity spreads around itself. Replaces the BFS that
+ *               used to run every time an entity was added to or removed from a value map.
+ */
+
+class InfluenceKernel {
+  private final double value;
+  private final int radius;
+
+  //- ringValues[d] is the value given to every square that is d squares away (in any of the 8 directions)
+  private final double[] ringValues;
+
+  //// CONSTRUCTORS ////
+  /** InfluenceKernel(value, maxRadius);
+   * Builds the kernel for the given starting value. The values are worked out the same way the old BFS did it:
+   * every step away from the start moves the value 1 closer to 0, and the spreading stops once the next value
+   * would hit 0. Since the BFS moved in all 8 directions, the amount of steps to any square is just the larger of
+   * the row and column distance, so every square in a ring around the start gets the same value.
+   * @param value, a double with the starting value of the kernel.
+   * @param maxRadius, an int with the furthest the kernel could ever reach (the size of the grid).
+   */
+  InfluenceKernel(double value, int maxRadius) {
+    this.value = value;
+
+    double[] values = new double[maxRadius + 1];
+    double currentValue = value;
+    int distance = 0;
+    values[0] = currentValue;
+
+    while (distance < maxRadius) {
+      //- Change the modifier based on the current value
+      int modifier;
+      if (currentValue > 0) {
+        modifier = -1;
+      } else if (currentValue < 0) {
+        modifier = 1;
+      } else {
+        modifier = 0;
+      }
+
+      if (currentValue + modifier == 0) {
+        break;
+      }
+
+      currentValue += modifier;
+      distance++;
+      values[distance] = currentValue;
+    }
+
+    this.radius = distance;
+    this.ringValues = new double[distance + 1];
+    System.arraycopy(values, 0, this.ringValues, 0, distance + 1);
+  }
+  //// CONSTRUCTORS ////
+
+  /// GETTERS/SETTERS ////
+  /** getValue();
+   * Gets the starting value this kernel was built from.
+   * @return a double with the starting value.
+   */
+  public double getValue() {
+    return this.value;
+  }
+
+  /** getRadius();
+   * Gets how far this kernel spreads from its center.
+   * @return an int with the radius of this kernel.
+   */
+  public int getRadius() {
+    return this.radius;
+  }
+
+  /** getRingValue(distance);
+   * Gets the value given to every square that is the given distance away from the center.
+   * @param distance, an int from 0 to the radius of this kernel.
+   * @return a double with the value at that distance.
+   */
+  public double getRingValue(int distance) {
+    return this.ringValues[distance];
+  }
+  /// GETTERS/SETTERS ////
+
+  /** stamp(valueMap, valueInfluencers, valueType, row, col, sign);
+   * Adds (or removes, if sign is negative) this kernel to the value map, centered on [row, col]. The kernel is clipped
+   * to the edges of the map, so only squares that actually exist are touched.
+   * @param valueMap, the selected map of values (either valuesOfHumans, valuesOfZombies, or valuesOfPlants).
+   * @param valueInfluencers, the counts keeping track of how many values affect every square.
+   * @param valueType, either HUMAN or ZOMBIE, depending on which value we're using (HValue or ZValue).
+   * @param row, an int with the row of the center.
+   * @param col, an int with the column of the center.
+   * @param sign, an int with how many times to add the kernel (1 to add it once, -1 to remove it once).
+   * @return an int with the amount of squares that were changed.
+   */
+  public int stamp(InfluenceField valueMap, InfluenceCounts valueInfluencers, int valueType, int row, int col, int sign) {
+    int startRow = Math.max(0, row - this.radius);
+    int endRow = Math.min(valueMap.getHeight() - 1, row + this.radius);
+    int startCol = Math.max(0, col - this.radius);
+    int endCol = Math.min(valueMap.getWidth() - 1, col + this.radius);
+
+    for (int i = startRow; i <= endRow; i++) {
+      int rowDistance = Math.abs(i - row);
+      int rowStart = valueMap.index(i, 0);
+
+      for (int j = startCol; j <= endCol; j++) {
+        int distance = Math.max(rowDistance, Math.abs(j - col));
+
+        valueMap.add(valueType, rowStart + j, sign * this.ringValues[distance]);
+        valueInfluencers.add(valueType, rowStart + j, sign);
+      }
+    }
+
+    return (endRow - startRow + 1) * (endCol - startCol + 1);
+  }
+}
@@ -0,0 +1,242 @@
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/** Class: InfluenceRebuilder
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: Rebuilds the value maps from scratch in one pass, instead of stamping every entity one at a time. Used
+ *               when the town is reset, and whenever the value maps need to be recalculated completely.
+ */
+
+class InfluenceRebuilder {
+  //- Bands smaller than this aren't worth splitting up any further
+  private static final int MIN_BAND_ROWS = 32;
+
+  private final int height, width;
+  private final ForkJoinPool pool;
+
+  //- Every combination of value map, value type and kernel gets its own grid of sources
+  private ArrayList<Sources> sources = new ArrayList<Sources>();
+
+  //// CONSTRUCTORS ////
+  /** InfluenceRebuilder(height, width, pool);
+   * Creates a new rebuilder for a grid of the given size.
+   * @param height, an int with the height of the grid.
+   * @param width, an int with the width of the grid.
+   * @param pool, the ForkJoinPool that the row bands are run on.
+   */
+  InfluenceRebuilder(int height, int width, ForkJoinPool pool) {
+    this.height = height;
+    this.width = width;
+    this.pool = pool;
+  }
+  //// CONSTRUCTORS ////
+
+  /** addSource(kernel, valueMap, valueType, row, col);
+   * Adds an entity's value to the grid of sources that will be spread when rebuild() is called.
+   * @param kernel, the InfluenceKernel of the entity's value.
+   * @param valueMap, the selected map of values (either valuesOfHumans, valuesOfZombies, or valuesOfPlants).
+   * @param valueType, either HUMAN or ZOMBIE, depending on which value we're using (HValue or ZValue).
+   * @param row, an int with the row of the entity.
+   * @param col, an int with the column of the entity.
+   */
+  public void addSource(InfluenceKernel kernel, InfluenceField valueMap, int valueType, int row, int col) {
+    findSources(kernel, valueMap, valueType).counts[row * this.width + col]++;
+  }
+
+  /** rebuild(valueInfluencers);
+   * Spreads every source that was added onto its value map, and then forgets about all of them.
+   *
+   * A kernel gives every square d steps away the same value, so it can be split up into squares of every size
+   * from 0 to its radius, each with a weight of how much the value drops at that distance. The amount of sources
+   * in any square of the grid can be read straight out of a summed area table, so every square of the value map
+   * only needs one lookup per ring of the kernel, no matter how many entities there are.
+   *
+   * The value maps have to be cleared (or freshly made) before this is called, since the results are added on.
+   * @param valueInfluencers, the counts keeping track of how many values affect every square.
+   */
+  public void rebuild(InfluenceCounts valueInfluencers) {
+    for (int x = 0; x < sources.size(); x++) {
+      Sources channel = sources.get(x);
+      int[] table = new int[(this.height + 1) * (this.width + 1)];
+
+      pool.invoke(new BandTask(channel, table, valueInfluencers, BandTask.ROW_SUMS, 0, this.height));
+      pool.invoke(new BandTask(channel, table, valueInfluencers, BandTask.COLUMN_SUMS, 0, this.width));
+      pool.invoke(new BandTask(channel, table, valueInfluencers, BandTask.SPREAD, 0, this.height));
+    }
+
+    sources.clear();
+  }
+
+  /** findSources(kernel, valueMap, valueType);
+   * Finds the grid of sources for this combination, or makes a new one if it hasn't been used yet.
+   * @param kernel, the InfluenceKernel of the entity's value.
+   * @param valueMap, the selected map of values.
+   * @param valueType, either HUMAN or ZOMBIE.
+   * @return the Sources for this combination.
+   */
+  private Sources findSources(InfluenceKernel kernel, InfluenceField valueMap, int valueType) {
+    for (int x = 0; x < sources.size(); x++) {
+      Sources channel = sources.get(x);
+      if (channel.kernel == kernel && channel.valueMap == valueMap && channel.valueType == valueType) {
+        return channel;
+      }
+    }
+
+    Sources channel = new Sources(kernel, valueMap, valueType, this.height * this.width);
+    sources.add(channel);
+
+    return channel;
+  }
+
+  //Inner Class
+  private static class Sources {
+    private final InfluenceKernel kernel;
+    private final InfluenceField valueMap;
+    private final int valueType;
+    private final int[] counts;
+
+    /** Sources(kernel, valueMap, valueType, cells);
+     * Creates an empty grid of sources for the given combination.
+     * @param kernel, the InfluenceKernel of these sources.
+     * @param valueMap, the value map these sources are spread onto.
+     * @param valueType, either HUMAN or ZOMBIE.
+     * @param cells, an int with the total amount of squares in the grid.
+     */
+    Sources(InfluenceKernel kernel, InfluenceField valueMap, int valueType, int cells) {
+      this.kernel = kernel;
+      this.valueMap = valueMap;
+      this.valueType = valueType;
+      this.counts = new int[cells];
+    }
+  }
+
+  //Inner Class
+  private class BandTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private static final int ROW_SUMS = 0;
+    private static final int COLUMN_SUMS = 1;
+    private static final int SPREAD = 2;
+
+    private final Sources channel;
+    private final int[] table;
+    private final InfluenceCounts valueInfluencers;
+    private final int step, start, end;
+
+    /** BandTask(channel, table, valueInfluencers, step, start, end);
+     * Creates a task that runs one step of the rebuild over the rows (or columns) from start to end.
+     * @param channel, the Sources being spread.
+     * @param table, an int array that holds the summed area table of the sources.
+     * @param valueInfluencers, the counts keeping track of how many values affect every square.
+     * @param step, an int that is either ROW_SUMS, COLUMN_SUMS or SPREAD.
+     * @param start, an int with the first row (or column) of the band.
+     * @param end, an int with the row (or column) after the last one in the band.
+     */
+    BandTask(Sources channel, int[] table, InfluenceCounts valueInfluencers, int step, int start, int end) {
+      this.channel = channel;
+      this.table = table;
+      this.valueInfluencers = valueInfluencers;
+      this.step = step;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    /** compute();
+     * Splits the band in half until it's small enough, then runs the step on it.
+     */
+    protected void compute() {
+      if (end - start <= MIN_BAND_ROWS) {
+        if (step == ROW_SUMS) {
+          sumRows();
+        } else if (step == COLUMN_SUMS) {
+          sumColumns();
+        } else {
+          spread();
+        }
+      } else {
+        int middle = (start + end) / 2;
+        invokeAll(new BandTask(channel, table, valueInfluencers, step, start, middle),
+                  new BandTask(channel, table, valueInfluencers, step, middle, end));
+      }
+    }
+
+    /** sumRows();
+     * Fills in the table with a running total of sources along every row in the band.
+     */
+    private void sumRows() {
+      int tableWidth = width + 1;
+
+      for (int r = start; r < end; r++) {
+        int total = 0;
+        for (int c = 0; c < width; c++) {
+          total += channel.counts[r * width + c];
+          table[(r + 1) * tableWidth + (c + 1)] = total;
+        }
+      }
+    }
+
+    /** sumColumns();
+     * Adds the running totals down every column in the band, turning the table into a summed area table.
+     */
+    private void sumColumns() {
+      int tableWidth = width + 1;
+
+      for (int r = 2; r <= height; r++) {
+        for (int c = start + 1; c <= end; c++) {
+          table[r * tableWidth + c] += table[(r - 1) * tableWidth + c];
+        }
+      }
+    }
+
+    /** spread();
+     * Works out the value of every square in the band by adding up the weighted squares of sources around it.
+     */
+    private void spread() {
+      InfluenceKernel kernel = channel.kernel;
+      int radius = kernel.getRadius();
+      int tableWidth = width + 1;
+
+      //- How much the kernel's value drops at every distance (the last ring drops all the way to 0)
+      double[] weights = new double[radius + 1];
+      for (int k = 0; k <= radius; k++) {
+        double next;
+        if (k == radius) {
+          next = 0;
+        } else {
+          next = kernel.getRingValue(k + 1);
+        }
+        weights[k] = kernel.getRingValue(k) - next;
+      }
+
+      for (int r = start; r < end; r++) {
+        int rowStart = channel.valueMap.index(r, 0);
+
+        for (int c = 0; c < width; c++) {
+          double value = 0;
+          int total = 0;
+
+          for (int k = 0; k <= radius; k++) {
+            int top = Math.max(0, r - k);
+            int bottom = Math.min(height, r + k + 1);
+            int left = Math.max(0, c - k);
+            int right = Math.min(width, c + k + 1);
+
+            total = table[bottom * tableWidth + right] - table[top * tableWidth + right]
+                    - table[bottom * tableWidth + left] + table[top * tableWidth + left];
+            value += weights[k] * total;
+          }
+
+          //- The biggest square covers every source that can reach this square
+          if (total > 0) {
+            channel.valueMap.add(channel.valueType, rowStart + c, value);
+            valueInfluencers.add(channel.valueType, rowStart + c, total);
+          }
+        }
+      }
+    }
+  }
+}
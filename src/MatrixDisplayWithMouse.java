@@ -3,36 +3,74 @@ import javax.swing.JPanel;
 import java.awt.GridLayout;
 import java.awt.Toolkit;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.awt.event.MouseListener;
+import java.awt.event.MouseMotionListener;
+import java.awt.event.MouseWheelListener;
 import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
 import java.awt.Image;
 
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.lang.Math;
 
 /** Class: MatrixDisplayWithMouse
- * @version 1.5
+ * @version 1.6
  * @date 11/21/2019
  * @author Mangat + Joseph Wang
  * @description: A program that controls the GUI of Cheerville.
+ *
+ *               The simulation thread and the EDT never share anything in the town. Between turns, the simulation
+ *               thread copies everything the display needs into a Frame and publishes it (see publish), and the EDT
+ *               only ever paints the newest published Frame. Frames are handed over through a TripleBuffer, so
+ *               neither thread ever waits for the other. Clicks on the grid go back the other way through a
+ *               lock-free queue (see getMouseClickLocations).
+
+ *               The grid is shown through a Viewport that can be dragged around and zoomed with the mouse wheel, so
+ *               towns too big to fit on the screen can still be shown. Zoomed out past one pixel per square, every
+ *               pixel is a whole tile of squares, coloured from a GridPyramid instead of every square in it, so drawing
+ *               the grid only ever costs as much as the pixels shown, however big the town is.
  */
 
 class MatrixDisplayWithMouse extends JFrame {
   private int maxX, maxY, GridToScreenRatio, smallPadding, bigPadding, gridSize; //- These have to do with the size and scales
-  private int maleHumanCount, femaleHumanCount, humanCount, plantCount, zombieCount, turns;
+  private int gridHeight, gridWidth; //- The size of the city, in squares
+  private int viewWidth, viewHeight, gridLength; //- The size of the part of the screen the grid is shown in
+  private int followButtonX, followButtonY, followButtonWidth, followButtonHeight;
+  private final int MAX_ZOOM = 64; //- The most pixels a square can be zoomed in to
+  private final int VIEW_CHANGES = 1 << 16; //- The most changed squares a frame lists before it redraws everything
   private int buttonStartX, buttonStartY, buttonWidth, buttonLength;
-  private final int GRAPH_SIZE = 225; //- Maximum size of the graph we have
+  private final int GRAPH_SIZE = 225; //- How many columns the graph has
+  private final int GRAPH_HEIGHT = 300; //- How tall the graph is, in pixels
   private final int MIN_RAINDROPS;
   private int totalRaindrops;
+  private RandomService raindrops = new RandomService(System.nanoTime()); //- Only for looks, so it has its own seed
 
-  private String currentWeather, currentSeason;
-  private boolean stopSimulation = true;
-  private Entity selectedEntity;
-  private Entity[][] matrix; //- For the city
+  private volatile boolean stopSimulation = true; //- Changed by the EDT, read by the simulation thread
 
-  private ArrayList<int[]> mouseClicks, graph;
+  //- Every frame, and the buffer that hands them from the simulation thread to the EDT
+  private final Frame[] frames;
+  private final TripleBuffer<Frame> frameBuffer;
+
+  //- Clicks on the grid, from the EDT to the simulation thread
+  private final ConcurrentLinkedQueue<int[]> mouseClicks = new ConcurrentLinkedQueue<int[]>();
+
+  //- The part of the grid that's shown, changed by the EDT and drawn by the simulation thread, and the one that
+  //- fits the whole grid (the furthest it can be zoomed out)
+  private volatile Viewport viewport;
+  private final Viewport fitView;
+  private Frame shownFrame; //- The frame the EDT painted last, only touched by the EDT
+  //- Tiles of squares for when it's zoomed out, only touched by the simulation thread (null if the grid always fits)
+  private final GridPyramid pyramid;
+
+  //- The counts of every turn for the graph, only touched by the simulation thread
+  private PopulationHistory history = new PopulationHistory(4);
+  private int[] graphCounts = new int[4];
 
   //- Preset the colours for each entity
   private  Color maleColor = new Color(0, 151, 255);
@@ -42,39 +80,71 @@ class MatrixDisplayWithMouse extends JFrame {
   private Color plantColor = Color.GREEN;
   private Color zombieColor = Color.RED;
   private Color[] colors = {maleColor, femaleColor, plantColor, zombieColor};
-  
-  /** MatrixDisplayWithMouse(title, matrix); 
-   * Sets up a matrix display with mouse listener attatched.
+
+  //- Preset the colours for the weather (behind empty squares) and the season (the grid lines)
+  private Color rainyColor = Color.GRAY;
+  private Color cloudyColor = Color.LIGHT_GRAY;
+  private Color clearColor = Color.WHITE;
+  private Color springColor = new Color(12, 132, 0);
+  private Color summerColor = new Color(125, 125, 0);
+  private Color fallColor = new Color(150, 50, 0);
+  private Color winterColor = new Color(0, 80, 150);
+
+  /** MatrixDisplayWithMouse(title, gridHeight, gridWidth);
+   * Sets up a matrix display with mouse listener attatched. Nothing is shown until the first publish().
    * @param title, a String with the title of the program.
-   * @param matrix, the map of the city to be displayed
+   * @param gridHeight, an int with the height of the city to be displayed.
+   * @param gridWidth, an int with the width of the city to be displayed.
    */
-  MatrixDisplayWithMouse(String title, Entity[][] matrix) {
+  MatrixDisplayWithMouse(String title, int gridHeight, int gridWidth) {
     super(title);
-    
-    this.matrix = matrix;
+
+    this.gridHeight = gridHeight;
+    this.gridWidth = gridWidth;
 
     //- Set up size restraints
     maxX = 1024;
     maxY = 768;
-    GridToScreenRatio = (maxX / 2) / (matrix.length+1);  //ratio to fit in screen as square map
+    GridToScreenRatio = (maxX / 2) / (Math.max(gridHeight, gridWidth)+1);  //ratio to fit in screen as square map
     smallPadding = 25;
     bigPadding = 100;
 
-    this.graph = new ArrayList<int[]>(); //- Initialize the graph
-    this.gridSize = 2;
+    //- Big towns don't fit even at one pixel per square, so they start zoomed out to the level of tiles that fits
+    if (GridToScreenRatio >= 1) {
+      this.viewWidth = gridWidth * GridToScreenRatio + 1;
+      this.viewHeight = gridHeight * GridToScreenRatio + 1;
+      this.pyramid = null;
+      this.fitView = new Viewport(0, GridToScreenRatio, 0, 0, false);
+    } else {
+      this.viewWidth = maxX / 2 + 1;
+      this.viewHeight = maxX / 2 + 1;
+      this.pyramid = new GridPyramid(gridHeight, gridWidth);
+
+      int fitLevel = 1;
+      while ((Math.max(gridHeight, gridWidth) - 1) >> fitLevel >= maxX / 2) {
+        fitLevel++;
+      }
+      this.fitView = new Viewport(fitLevel, 1, 0, 0, false);
+    }
+    this.gridLength = Math.max(viewWidth, viewHeight) - 1;
+    this.viewport = fitView;
+
+    this.gridSize = 2; //- How wide every column of the graph is
 
-    this.turns = 0;
     this.totalRaindrops = 50;
     this.MIN_RAINDROPS = 40;
 
+    this.frames = new Frame[] {new Frame(), new Frame(), new Frame()};
+    this.frameBuffer = new TripleBuffer<Frame>(frames[0], frames[1], frames[2]);
+
     //- JFrame stuff
     this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
     this.setSize(maxX, maxY);
     this.setResizable(false);
-    
+
     this.getContentPane().add(new MatrixPanel());
     this.setLayout(new GridLayout(1, 2));
-    
+
     this.setVisible(true);
 
     //- Set up starting button sizes
@@ -83,160 +153,142 @@ class MatrixDisplayWithMouse extends JFrame {
     buttonWidth = smallPadding;
     buttonLength = smallPadding * 6;
 
-    mouseClicks = new ArrayList<int[]>();
+    //- The follow button is in the top right of the selected entity box
+    followButtonWidth = smallPadding * 3;
+    followButtonHeight = smallPadding - 5;
+    followButtonX = gridLength - smallPadding * 4 - 5;
+    followButtonY = gridLength + smallPadding + 5;
   }
-  
-  /** refresh(); 
-   * Refreshs the display.
+
+  /** publish(town);
+   * Copies everything the display needs out of the town into a new frame, hands it to the EDT and refreshs the
+   * display. If the simulation isn't stopped, the counts are also added to the graph. Only call this from the
+   * thread running the town, between turns.
+   * @param town, the Town being displayed.
    */
-  public void refresh() { 
+  public void publish(Town town) {
+    if (!(this.stopSimulation)) {
+      updateGraph(town.getCounts(), town.getGendersCounts());
+    }
+
+    //- Every frame has to redraw what changed, including the ones the EDT has right now
+    ChangedCells changedCells = town.trackChangedCells();
+    if (pyramid != null) {
+      updatePyramid(changedCells, town.getCity());
+    }
+    for (int x = 0; x < frames.length; x++) {
+      frames[x].grid.addChanges(changedCells);
+    }
+    changedCells.clear();
+
+    frameBuffer.getBack().capture(town);
+    frameBuffer.publish();
     this.repaint();
   }
 
-  //Inner Class 
+  /** updatePyramid(changedCells, city);
+   * Updates the tiles of every square that changed in the town, or builds them all again if everything changed.
+   * @param changedCells, the ChangedCells the town keeps.
+   * @param city, the map of the city.
+   */
+  private void updatePyramid(ChangedCells changedCells, Entity[][] city) {
+    if (changedCells.isEverything()) {
+      pyramid.rebuild(city);
+      return;
+    }
+
+    for (int x = 0; x < changedCells.size(); x++) {
+      int cell = changedCells.get(x);
+      pyramid.set(cell, city[cell / gridWidth][cell % gridWidth]);
+    }
+  }
+
+  //Inner Class
   class MatrixPanel extends JPanel {
-    
-    MatrixPanel() { 
-      addMouseListener(new MatrixPanelMouseListener());
+
+    MatrixPanel() {
+      MatrixPanelMouseListener listener = new MatrixPanelMouseListener();
+      addMouseListener(listener);
+      addMouseMotionListener(listener);
+      addMouseWheelListener(listener);
+      setDoubleBuffered(true);
     }
-    
-    /** paintComponent(g); 
-     * Paints the actual components onto the GUI.
+
+    /** paintComponent(g);
+     * Paints the newest frame onto the GUI. The grid itself is already drawn in the frame, so it only has to be
+     * copied over.
      * @param g, a Graphics object that is used for drawing.
      */
-    public void paintComponent(Graphics g) {        
-      super.repaint();
-      
-      setDoubleBuffered(true); 
-      
-      for (int i = 0; i < matrix.length; i++)  { 
-        for (int j = 0; j < matrix[0].length; j++)  { 
-          if (matrix[i][j] == null) {
-            if (currentWeather.equals("Rainy")) {       //- Change the background colour based on the weather
-              g.setColor(Color.GRAY);
-            } else if (currentWeather.equals("Cloudy")) {
-              g.setColor(Color.LIGHT_GRAY);
-            } else {
-              g.setColor(Color.WHITE);
-            }
-          } else if (matrix[i][j] instanceof Human) {   //- This block matches character-colour pairs
-            Human person = (Human)matrix[i][j];
-            int personHealth = person.getHealth();
-            if (personHealth > 100) {
-              personHealth = 100;
-            }
-            
-            if (person.getGender() == 'F') {
-              if (person.getAge() < 16) {
-                g.setColor(femaleChildColor);
-              } else {
-                g.setColor(femaleColor);
-              }
-            } else if (person.getGender() == 'M') {
-              if (person.getAge() < 16) {
-                g.setColor(maleChildColor);
-              } else {
-                g.setColor(maleColor);
-              }
-            }
-          } else if (matrix[i][j] instanceof Zombie) {
-            g.setColor(zombieColor);
+    public void paintComponent(Graphics g) {
+      super.paintComponent(g);
 
-          } else if (matrix[i][j] instanceof Plant) {  
-            g.setColor(plantColor);
-          } else {
-            g.setColor(Color.BLACK);
-          }
-          
-          g.fillRect(j*GridToScreenRatio, i*GridToScreenRatio, GridToScreenRatio, GridToScreenRatio);
-          //- Change the grid colour based on the season
-          Color seasonColor;
-          if (currentSeason.equals("Spring")) {
-            seasonColor = new Color(12, 132, 0);
-          } else if (currentSeason.equals("Summer")) {
-            seasonColor = new Color(125, 125, 0);
-          } else if (currentSeason.equals("Fall")) {
-            seasonColor = new Color(150, 50, 0);
-          } else if (currentSeason.equals("Winter")) {
-            seasonColor = new Color(0, 80, 150);
-          } else {
-            seasonColor = Color.BLACK;
-          }
+      Frame frame = frameBuffer.getLatest();
+      if (!frame.ready) { //- Nothing to show until the first frame is published
+        return;
+      }
+      shownFrame = frame;
 
-          g.setColor(seasonColor);
+      frame.grid.draw(g);
+      drawSelectedIndicator(g, frame);
 
-          g.drawRect(j*GridToScreenRatio, i*GridToScreenRatio, GridToScreenRatio, GridToScreenRatio); //- Draw the border
-
-          if (matrix[i][j] == selectedEntity && selectedEntity != null) { //- Draw the selected indicator onto the grid
-            g.setColor(Color.YELLOW);
-            g.drawRect(j*GridToScreenRatio + 1, i*GridToScreenRatio + 1, GridToScreenRatio - 2, GridToScreenRatio - 2);
-            g.drawRect(j*GridToScreenRatio + 3, i*GridToScreenRatio + 3, GridToScreenRatio - 6, GridToScreenRatio - 6);
-          }
-        }
-      }
+      g.setColor(seasonColor(frame.currentSeason));
 
       //- Draw some text based information
 
-      g.drawString(currentSeason, matrix.length * GridToScreenRatio + smallPadding, smallPadding);
+      g.drawString(frame.currentSeason, gridLength + smallPadding, smallPadding);
 
       g.setColor(Color.BLACK);
-      g.drawString("Total Humans: " + Integer.toString(humanCount), matrix.length * GridToScreenRatio + smallPadding, maxY - smallPadding * 2);
-      g.drawString("Total Plants: " + Integer.toString(plantCount), matrix.length * GridToScreenRatio + (bigPadding * 2), maxY - smallPadding * 2);
-      g.drawString("Total Zombies: " + Integer.toString(zombieCount), matrix.length * GridToScreenRatio + (bigPadding * 3), maxY - smallPadding * 2);
-      g.drawString("Total Turns: " + Integer.toString(turns), matrix.length * GridToScreenRatio + smallPadding, maxY - smallPadding * 3);
+      g.drawString("Total Humans: " + Integer.toString(frame.humanCount), gridLength + smallPadding, maxY - smallPadding * 2);
+      g.drawString("Total Plants: " + Integer.toString(frame.plantCount), gridLength + (bigPadding * 2), maxY - smallPadding * 2);
+      g.drawString("Total Zombies: " + Integer.toString(frame.zombieCount), gridLength + (bigPadding * 3), maxY - smallPadding * 2);
+      g.drawString("Total Turns: " + Integer.toString(frame.turns), gridLength + smallPadding, maxY - smallPadding * 3);
 
-      g.drawString(currentWeather, matrix.length * GridToScreenRatio + (bigPadding * 2), smallPadding);
+      g.drawString(frame.currentWeather, gridLength + (bigPadding * 2), smallPadding);
 
       //- Draw other GUI things
-      drawGraph(g);
-      drawSelectedEntity(g);
+      drawGraph(g, frame);
+      drawSelectedEntity(g, frame);
       drawStopButton(g);
 
-      if (currentWeather.equals("Rainy")) {
+      if (frame.currentWeather.equals("Rainy")) {
+        raindrops.at(frame.turns, RandomService.NO_ENTITY, RandomService.RAINDROPS);
         drawRaindrops(g);
-        totalRaindrops = MIN_RAINDROPS + Simulation.randInt(-10, 30);
+        totalRaindrops = MIN_RAINDROPS + raindrops.randInt(-10, 30);
       }
     }
 
-    /** drawGraph(g);
-     * Draws a graph onto the GUI, based on the counts of each entity. This graph increases in size as the grid increases.
-     * This graph will go out of bounds if gridsize is greater than [25, 25]
+    /** drawGraph(g, frame);
+     * Draws a graph of the counts of each entity over the whole run onto the GUI. Every column covers a few turns,
+     * and every series gets one bar in it, from its lowest to its highest count over those turns. The graph is
+     * scaled so the highest count fits.
      * @param g, a Graphics object used for drawing.
+     * @param frame, the Frame being drawn.
      */
-    private void drawGraph(Graphics g) {
-      int xIndex = matrix.length * GridToScreenRatio + smallPadding - gridSize;
-      int yIndex = smallPadding * 2;
-      int currentGraphSize = graph.size();
+    private void drawGraph(Graphics g, Frame frame) {
+      int graphStartX = gridLength + smallPadding;
+      int graphEndY = smallPadding * 2 + GRAPH_HEIGHT;
 
-      if (graph.size() > GRAPH_SIZE) { //- This is to ensure we don't go out of bounds during the drawing
-        graph.remove(0);
-      }
-      
-      for (int x = 0; x < currentGraphSize; x++) {
-        xIndex += gridSize;                                   //- For every data set, just add 1 to x
-        yIndex = smallPadding * 2;                            //- Reset y
-        for (int y = 0; y < graph.get(x).length; y++) {
-          for (int z = 0; z < graph.get(x)[y]; z++) {
-            g.setColor(colors[y]);                            //- Get the respective colour for that data point
-            g.fillRect(xIndex, yIndex, gridSize, gridSize);
-
-            yIndex += 1;                                      //- Add one to y for next data point
-          }
+      for (int y = 0; y < frame.graphLow.length; y++) {
+        g.setColor(colors[y]);                                //- Get the respective colour for that data set
+        for (int x = 0; x < frame.graphColumns; x++) {
+          int top = graphEndY - (int) ((long) frame.graphHigh[y][x] * GRAPH_HEIGHT / frame.graphTop);
+          int bottom = graphEndY - (int) ((long) frame.graphLow[y][x] * GRAPH_HEIGHT / frame.graphTop);
+
+          g.fillRect(graphStartX + x * gridSize, top - 1, gridSize, bottom - top + 2);
         }
       }
-      
-      if (graph.size() > 0) {
+
+      if (frame.graphColumns > 0) {
         //- Get the percents and total and display them to the right of the graph
-        int lastPoint = graph.size() - 1;
-        int[] lastDataSet = graph.get(lastPoint);
-        int rightBorder = (matrix.length * GridToScreenRatio + smallPadding) + (gridSize * GRAPH_SIZE) + 2;
+        int[] lastDataSet = {frame.maleHumanCount, frame.femaleHumanCount, frame.plantCount, frame.zombieCount};
+        int rightBorder = graphStartX + (gridSize * GRAPH_SIZE) + 2;
         int buffer = smallPadding * 2;
         
-        double total = humanCount + plantCount + zombieCount;
-        int malePercent = (int)(Math.round((maleHumanCount / total) * 100));
-        int femalePercent = (int)(Math.round((femaleHumanCount / total) * 100));
-        int plantPercent = (int)(Math.round((plantCount / total) * 100));
-        int zombiePercent = (int)(Math.round((zombieCount / total) * 100));
+        double total = frame.humanCount + frame.plantCount + frame.zombieCount;
+        int malePercent = (int)(Math.round((frame.maleHumanCount / total) * 100));
+        int femalePercent = (int)(Math.round((frame.femaleHumanCount / total) * 100));
+        int plantPercent = (int)(Math.round((frame.plantCount / total) * 100));
+        int zombiePercent = (int)(Math.round((frame.zombieCount / total) * 100));
         
         int[] percents = {malePercent, femalePercent, plantPercent, zombiePercent};
         
@@ -245,18 +297,45 @@ class MatrixDisplayWithMouse extends JFrame {
           if (lastDataSet[x] > 0) { //- if there's no count, there's no point in displaying it
             g.setColor(colors[x]);
             
-            g.drawString(Integer.toString(lastDataSet[x]) + " ("+ percents[x] + "%)", rightBorder, buffer + lastDataSet[x]);
-            buffer += lastDataSet[x];
+            buffer += smallPadding / 2 + 3;
+            g.drawString(Integer.toString(lastDataSet[x]) + " ("+ percents[x] + "%)", rightBorder, buffer);
           }
         }
       }
 
       g.setColor(Color.BLACK);
       
-      g.drawRect(matrix.length * GridToScreenRatio + smallPadding, smallPadding * 2, gridSize * GRAPH_SIZE, matrix.length * matrix[0].length);
+      g.drawRect(graphStartX, smallPadding * 2, gridSize * GRAPH_SIZE, GRAPH_HEIGHT);
     }
 
-    /** drawStopButton(g); 
+    /** drawSelectedIndicator(g, frame);
+     * Draws the selected indicator onto the grid, if the selected entity is still on it and it's in view. When
+     * it's zoomed out past one pixel per square, it's just a box around the tile the entity is in.
+     * @param g, a Graphics object used for drawing.
+     * @param frame, the Frame being drawn.
+     */
+    private void drawSelectedIndicator(Graphics g, Frame frame) {
+      if (frame.selectedCell < 0) {
+        return;
+      }
+
+      Viewport view = frame.view;
+      int i = ((frame.selectedCell / gridWidth - view.originRow) >> view.level) * view.pixels;
+      int j = ((frame.selectedCell % gridWidth - view.originCol) >> view.level) * view.pixels;
+      if ((i < 0) || (i >= viewHeight) || (j < 0) || (j >= viewWidth)) {
+        return;
+      }
+
+      g.setColor(Color.YELLOW);
+      if (view.pixels > 6) {
+        g.drawRect(j + 1, i + 1, view.pixels - 2, view.pixels - 2);
+        g.drawRect(j + 3, i + 3, view.pixels - 6, view.pixels - 6);
+      } else {
+        g.drawRect(j - 3, i - 3, view.pixels + 5, view.pixels + 5);
+      }
+    }
+
+    /** drawStopButton(g);
      * Draws an image of a button, which switches based on this.stopSimulation.
      * @param g, a Graphics object used for drawing.
      */
@@ -271,13 +350,12 @@ class MatrixDisplayWithMouse extends JFrame {
       g.drawImage(button, buttonStartX, buttonStartY, this);
     }
 
-    /** drawSelectedEntity(g); 
-     * If there is a selected entity, find out all its information depending on what it is and draw it onto the GUI.
+    /** drawSelectedEntity(g, frame);
+     * If there is a selected entity, draw all the information the frame has about it onto the GUI.
      * @param g, a Graphics object used for drawing.
+     * @param frame, the Frame being drawn.
      */
-    private void drawSelectedEntity(Graphics g) {
-      int gridLength = matrix.length * GridToScreenRatio;
-
+    private void drawSelectedEntity(Graphics g, Frame frame) {
       //- Get the starting locations of the box
       int boxWidth = gridLength - (smallPadding * 2);
       int boxStartX = smallPadding;
@@ -289,57 +367,36 @@ class MatrixDisplayWithMouse extends JFrame {
 
       g.setColor(Color.WHITE);
 
-      if (selectedEntity == null) { //- Don't display anything important if there's nothing to display
+      if (frame.selectedType == Frame.NO_SELECTION) { //- Don't display anything important if there's nothing to display
         g.drawString("No entity selected.", boxStartX + smallPadding, boxStartY + smallPadding);
       } else {
         g.drawString("Entity selected.", boxStartX + smallPadding, boxStartY + smallPadding);
 
-        String entityType, pos, name;
-        int[] currentPos;
+        //- The button to keep the entity in the middle of the grid
+        g.drawRect(followButtonX, followButtonY, followButtonWidth, followButtonHeight);
+        g.drawString(frame.view.follow ? "Follow: On" : "Follow: Off", followButtonX + 5, followButtonY + followButtonHeight - 5);
 
-        if (selectedEntity instanceof Plant) {
-          //- Get information that will be used and displayed
-          Plant selectedPlant = (Plant)selectedEntity;
+        String entityType;
 
-          name = selectedPlant.getName();
-          currentPos = selectedPlant.getLocation();
-          pos = "[" + currentPos[1] + "," + currentPos[0] + "]";
+        if (frame.selectedType == Town.PLANT) {
           entityType = "Plant";
 
           g.setColor(plantColor);
 
-        } else if (selectedEntity instanceof Zombie) {
-          //- Get information that will be used and displayed
-          Zombie selectedZombie = (Zombie)selectedEntity;
-          String kills = Integer.toString(selectedZombie.getKills());
-          String status = selectedZombie.getCreatedBy();
-
-          currentPos = selectedZombie.getLocation();
-          pos = "[" + currentPos[1] + "," + currentPos[0] + "]";
-          name = selectedZombie.getName();
+        } else if (frame.selectedType == Town.ZOMBIE) {
           entityType = "Zombie";
 
           g.setColor(zombieColor);
-          
+
           //- Specific things only Zombies have
-          g.drawString("Kills: " + kills, boxEndX - smallPadding * 3, boxStartY + smallPadding * 5);
-          g.drawString(status, boxEndX - smallPadding * 3, boxStartY + smallPadding * 6);
-          
-        } else {
-          //- Get information that will be used and displayed
-          Human selectedHuman = (Human)selectedEntity;
-          String age = Integer.toString(selectedHuman.getAge());
-          String aliveKids = Integer.toString(selectedHuman.getAmountOfAliveKids());
-          String parentNames = Arrays.toString(selectedHuman.getParentNames());
-          
-          name = selectedHuman.getName();
-          currentPos = selectedHuman.getLocation();
-          pos = "[" + currentPos[1] + "," + currentPos[0] + "]";
+          g.drawString("Kills: " + frame.selectedKills, boxEndX - smallPadding * 3, boxStartY + smallPadding * 5);
+          g.drawString(frame.selectedCreatedBy, boxEndX - smallPadding * 3, boxStartY + smallPadding * 6);
 
+        } else {
           entityType = "Human - ";
-          if (selectedHuman.getGender() == 'M') {
+          if (frame.selectedGender == 'M') {
             entityType = entityType + "Male - "; //- Change the entity type based on what it is
-            if (selectedHuman.getAge() < Town.MIN_REPRODUCTION_AGE) {
+            if (frame.selectedChild) {
               entityType = entityType + "Child";
               g.setColor(maleChildColor);
 
@@ -347,12 +404,12 @@ class MatrixDisplayWithMouse extends JFrame {
               entityType = entityType + "Adult"; //- Change the entity type based on what it is
               g.setColor(maleColor);
 
-              g.drawString("Alive Children: " + aliveKids, boxEndX - smallPadding * 5, boxStartY + smallPadding * 5);
+              g.drawString("Alive Children: " + frame.selectedAliveKids, boxEndX - smallPadding * 5, boxStartY + smallPadding * 5);
             }
 
           } else {
             entityType = entityType + "Female - "; //- Change the entity type based on what it is
-            if (selectedHuman.getAge() < Town.MIN_REPRODUCTION_AGE) {
+            if (frame.selectedChild) {
               entityType = entityType + "Child";
               g.setColor(femaleChildColor);
 
@@ -360,46 +417,493 @@ class MatrixDisplayWithMouse extends JFrame {
               entityType = entityType + "Adult"; //- Change the entity type based on what it is
               g.setColor(femaleColor);
 
-              g.drawString("Alive Children: " + aliveKids, boxEndX - smallPadding * 5, boxStartY + smallPadding * 5);
+              g.drawString("Alive Children: " + frame.selectedAliveKids, boxEndX - smallPadding * 5, boxStartY + smallPadding * 5);
             }
           }
 
           //- Specific things that only humans have
-          g.drawString(name, boxStartX + smallPadding, boxStartY + smallPadding * 2);
-          g.drawString("Age: " + age, boxEndX - smallPadding * 3, boxStartY + smallPadding * 3);
-          g.drawString("Parents: " + parentNames, boxStartX + smallPadding, boxStartY + smallPadding * 6);
+          g.drawString(frame.selectedName, boxStartX + smallPadding, boxStartY + smallPadding * 2);
+          g.drawString("Age: " + frame.selectedAge, boxEndX - smallPadding * 3, boxStartY + smallPadding * 3);
+          g.drawString("Parents: " + frame.selectedParents, boxStartX + smallPadding, boxStartY + smallPadding * 6);
         }
-        
+
         //- Common aspects that they all share
         g.drawString(entityType, boxStartX + smallPadding, boxStartY + smallPadding * 5);
-        g.drawString(name, boxStartX + smallPadding, boxStartY + smallPadding * 2);
+        g.drawString(frame.selectedName, boxStartX + smallPadding, boxStartY + smallPadding * 2);
 
-        g.drawString("HP: " + selectedEntity.getHealth(), boxEndX - smallPadding * 3, boxStartY + smallPadding * 2);
-        g.drawString("Pos: " + pos, boxEndX - smallPadding * 3, boxStartY + smallPadding * 4);
+        g.drawString("HP: " + frame.selectedHealth, boxEndX - smallPadding * 3, boxStartY + smallPadding * 2);
+        g.drawString("Pos: " + frame.selectedPos, boxEndX - smallPadding * 3, boxStartY + smallPadding * 4);
 
         g.fillRect(boxStartX + smallPadding, boxStartY + smallPadding * 3, 19, 19);
       }
     }
 
-    /** drawRaindrops(g); 
+    /** drawRaindrops(g);
      * Takes g and draws a random assortment of "raindrops" onto the grid when it's raining.
      * @param g, a Graphics object used for drawing.
      */
     private void drawRaindrops(Graphics g) {
       for (int x = 0; x < totalRaindrops; x++) {
-        Color rain = new Color(0, 0, 150 + Simulation.randInt(0, 55)); 
+        Color rain = new Color(0, 0, 150 + raindrops.randInt(0, 55));
         g.setColor(rain);
-        
-        int raindropWidth = Simulation.randInt(3, 8);
-        g.fillOval(Simulation.randInt(10, matrix[0].length * GridToScreenRatio - 10), Simulation.randInt(10, matrix.length * GridToScreenRatio  - 10), raindropWidth, raindropWidth);
+
+        int raindropWidth = raindrops.randInt(3, 8);
+        g.fillOval(raindrops.randInt(10, viewWidth - 10), raindrops.randInt(10, viewHeight - 10), raindropWidth, raindropWidth);
+      }
+    }
+  }
+
+  //Inner Class
+  //- Everything the panel needs to draw the town at one point in time. The simulation thread fills one in (see
+  //- capture) and publishes it, and from then on only the EDT reads it until it gets handed back to be filled in again.
+  class Frame {
+    static final int NO_SELECTION = -1;
+
+    private final GridImage grid = new GridImage();
+    private boolean ready = false; //- Whether this frame has ever been filled in
+    private Viewport view; //- The part of the grid that's drawn in this frame
+
+    private int turns, maleHumanCount, femaleHumanCount, humanCount, zombieCount, plantCount;
+    private String currentWeather, currentSeason;
+
+    //- The graph squeezed into its columns (see PopulationHistory.decimate), and the highest count on it
+    private final int[][] graphLow = new int[4][GRAPH_SIZE];
+    private final int[][] graphHigh = new int[4][GRAPH_SIZE];
+    private int graphColumns, graphTop;
+
+    //- The selected entity, where selectedType is Town.HUMAN, Town.ZOMBIE, Town.PLANT or NO_SELECTION
+    private int selectedType = NO_SELECTION, selectedCell = -1, selectedHealth;
+    private String selectedName, selectedPos;
+    private char selectedGender;
+    private boolean selectedChild;
+    private String selectedAge, selectedAliveKids, selectedParents; //- Only for humans
+    private String selectedKills, selectedCreatedBy; //- Only for zombies
+
+    /** capture(town);
+     * Copies everything the panel needs out of the town, and draws what changed on the grid. If the selected
+     * entity is being followed, the grid is drawn around it.
+     * @param town, the Town being displayed.
+     */
+    public void capture(Town town) {
+      int[] totalCount = town.getCounts();
+      int[] totalGenderCount = town.getGendersCounts();
+
+      this.maleHumanCount = totalGenderCount[0];
+      this.femaleHumanCount = totalGenderCount[1];
+      this.humanCount = totalCount[0];
+      this.zombieCount = totalCount[1];
+      this.plantCount = totalCount[2];
+      this.turns = town.getTurnsSurvived();
+      this.currentWeather = town.getWeather();
+      this.currentSeason = town.getSeason();
+
+      captureSelected(town.getSelectedEntity(), town.getCity());
+
+      this.view = viewport;
+      if (view.follow && (selectedCell >= 0)) {
+        this.view = view.centredOn(selectedCell / gridWidth, selectedCell % gridWidth);
+      }
+      grid.update(town.getCity(), view, currentWeather, currentSeason);
+
+      this.graphColumns = history.decimate(GRAPH_SIZE, graphLow, graphHigh);
+      this.graphTop = 1;
+      for (int y = 0; y < graphHigh.length; y++) {
+        for (int x = 0; x < graphColumns; x++) {
+          this.graphTop = Math.max(this.graphTop, graphHigh[y][x]);
+        }
+      }
+
+      this.ready = true;
+    }
+
+    /** captureSelected(selectedEntity, city);
+     * Copies all the information about the selected entity, depending on what it is.
+     * @param selectedEntity, the Entity that's selected, or null if there isn't one.
+     * @param city, the map of the city, to check if the entity is still on it.
+     */
+    private void captureSelected(Entity selectedEntity, Entity[][] city) {
+      if (selectedEntity == null) {
+        this.selectedType = NO_SELECTION;
+        this.selectedCell = -1;
+        return;
+      }
+
+      int currentPos = selectedEntity.getCell();
+      this.selectedCell = (city[currentPos / gridWidth][currentPos % gridWidth] == selectedEntity) ? currentPos : -1;
+      this.selectedPos = "[" + (currentPos % gridWidth) + "," + (currentPos / gridWidth) + "]";
+      this.selectedHealth = selectedEntity.getHealth();
+
+      if (selectedEntity instanceof Plant) {
+        this.selectedType = Town.PLANT;
+        this.selectedName = ((Plant)selectedEntity).getName();
+
+      } else if (selectedEntity instanceof Zombie) {
+        Zombie selectedZombie = (Zombie)selectedEntity;
+
+        this.selectedType = Town.ZOMBIE;
+        this.selectedName = selectedZombie.getName();
+        this.selectedKills = Integer.toString(selectedZombie.getKills());
+        this.selectedCreatedBy = selectedZombie.getCreatedBy();
+
+      } else {
+        Human selectedHuman = (Human)selectedEntity;
+
+        this.selectedType = Town.HUMAN;
+        this.selectedName = selectedHuman.getName();
+        this.selectedGender = selectedHuman.getGender();
+        this.selectedChild = selectedHuman.getAge() < Town.MIN_REPRODUCTION_AGE;
+        this.selectedAge = Integer.toString(selectedHuman.getAge());
+        this.selectedAliveKids = Integer.toString(selectedHuman.getAmountOfAliveKids());
+        this.selectedParents = Arrays.toString(selectedHuman.getParentNames());
+      }
+    }
+  }
+
+  //Inner Class
+  //- The part of the grid in view, drawn into an image that's kept between frames, so a frame only draws the
+  //- squares that changed (see ChangedCells) and then copies the image over. Everything in view is only drawn again
+  //- when the view moves or zooms or the weather or season changes, since that changes every pixel, and that only
+  //- costs as much as the pixels in view. Every frame has its own, and the list of changes is only ever touched by
+  //- the simulation thread.
+  class GridImage {
+    private final BufferedImage image;
+    private final Graphics2D graphics;
+    private final int[] pixels; //- The pixels of the image, for drawing one pixel at a time
+    private final ChangedCells changedCells = new ChangedCells(gridHeight, gridWidth, Math.min(gridHeight * gridWidth / 4, VIEW_CHANGES));
+    private Viewport drawnView; //- The view, weather and season the image was drawn with
+    private String drawnWeather, drawnSeason;
+
+    /** GridImage();
+     * Creates the image for the part of the screen the grid is shown in.
+     */
+    GridImage() {
+      this.image = new BufferedImage(viewWidth, viewHeight, BufferedImage.TYPE_INT_RGB);
+      this.graphics = image.createGraphics();
+      this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+
+    /** addChanges(changes);
+     * Adds squares that changed in the town to the ones this image still has to draw.
+     * @param changes, the ChangedCells the town keeps.
+     */
+    public void addChanges(ChangedCells changes) {
+      if (changes.isEverything()) {
+        changedCells.markAll();
+        return;
+      }
+
+      for (int x = 0; x < changes.size(); x++) {
+        changedCells.mark(changes.get(x));
+      }
+    }
+
+    /** update(matrix, view, currentWeather, currentSeason);
+     * Draws every square in view that changed since this image was last updated (or the tile it's in, if it's
+     * zoomed out), or everything in view if the view, weather or season changed. Only call this between turns,
+     * after the pyramid is up to date.
+     * @param matrix, the map of the city.
+     * @param view, the Viewport to draw.
+     * @param currentWeather, a String with the current weather.
+     * @param currentSeason, a String with the current season.
+     */
+    public void update(Entity[][] matrix, Viewport view, String currentWeather, String currentSeason) {
+      int rows = Math.min((viewHeight + view.pixels - 1) / view.pixels, ((gridHeight - 1 - view.originRow) >> view.level) + 1);
+      int cols = Math.min((viewWidth + view.pixels - 1) / view.pixels, ((gridWidth - 1 - view.originCol) >> view.level) + 1);
+
+      if (changedCells.isEverything() || !view.sameAs(drawnView) ||
+          !currentWeather.equals(drawnWeather) || !currentSeason.equals(drawnSeason)) {
+        drawnView = view;
+        drawnWeather = currentWeather;
+        drawnSeason = currentSeason;
+
+        graphics.setColor(Color.DARK_GRAY); //- Past the edges of the grid, if it's smaller than the view
+        graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+        graphics.setColor(seasonColor(currentSeason)); //- The grid lines are whatever's left between the squares
+        graphics.fillRect(0, 0, cols * view.pixels + 1, rows * view.pixels + 1);
+        for (int i = 0; i < rows; i++) {
+          for (int j = 0; j < cols; j++) {
+            drawTile(i, j, matrix);
+          }
+        }
+      } else {
+        for (int x = 0; x < changedCells.size(); x++) {
+          int cell = changedCells.get(x);
+          int i = (cell / gridWidth - view.originRow) >> view.level;
+          int j = (cell % gridWidth - view.originCol) >> view.level;
+
+          if ((i >= 0) && (i < rows) && (j >= 0) && (j < cols)) { //- Squares out of view are drawn when they come into it
+            drawTile(i, j, matrix);
+          }
+        }
+      }
+
+      changedCells.clear();
+    }
+
+    /** draw(g);
+     * Copies the grid onto the panel.
+     * @param g, a Graphics object used for drawing.
+     */
+    public void draw(Graphics g) {
+      g.drawImage(image, 0, 0, null);
+    }
+
+    /** drawTile(i, j, matrix);
+     * Draws one square of the grid, inside its grid lines, or one tile of squares if it's zoomed out. If the
+     * squares are too small for grid lines, the whole square is filled instead, and if they're only one pixel it's
+     * set straight in the image.
+     * @param i, an int with the row of the square or tile, counted from the top of the view.
+     * @param j, an int with the column of the square or tile, counted from the left of the view.
+     * @param matrix, the map of the city.
+     */
+    private void drawTile(int i, int j, Entity[][] matrix) {
+      int row = (drawnView.originRow >> drawnView.level) + i;
+      int col = (drawnView.originCol >> drawnView.level) + j;
+      int size = drawnView.pixels;
+
+      if (drawnView.level > 0) {
+        pixels[i * viewWidth + j] = tileColor(drawnView.level, row * pyramid.getTileCols(drawnView.level) + col, row, col, drawnWeather);
+        return;
+      }
+
+      Color color = squareColor(matrix[row][col], drawnWeather);
+      if (size > 2) {
+        graphics.setColor(color);
+        graphics.fillRect(j*size + 1, i*size + 1, size - 1, size - 1);
+      } else if (size == 2) {
+        graphics.setColor(color);
+        graphics.fillRect(j*size, i*size, size, size);
+      } else {
+        pixels[i * viewWidth + j] = color.getRGB() & 0xFFFFFF;
+      }
+    }
+  }
+
+  //Inner Class
+  //- Which part of the grid is shown, and how zoomed in it is. At level 0 every square is drawn pixels wide, and
+  //- past that every pixel is a tile of the pyramid, 2^level squares wide. It's never changed once it's made, so
+  //- the EDT can hand a new one to the simulation thread just by setting viewport.
+  class Viewport {
+    private final int level, pixels;
+    private final int originRow, originCol; //- The square in the top left corner of the view
+    private final boolean follow; //- Whether the view stays around the selected entity
+
+    /** Viewport(level, pixels, originRow, originCol, follow);
+     * Creates a view, moved back onto the grid if it's past the edges, and lined up with the tiles of its level.
+     * @param level, an int with the level of the pyramid to draw (0 for every square).
+     * @param pixels, an int with how many pixels wide a square (or tile) is.
+     * @param originRow, an int with the row of the square in the top left corner.
+     * @param originCol, an int with the column of the square in the top left corner.
+     * @param follow, a boolean with whether the view stays around the selected entity.
+     */
+    Viewport(int level, int pixels, int originRow, int originCol, boolean follow) {
+      this.level = level;
+      this.pixels = pixels;
+      this.follow = follow;
+
+      int lastRow = Math.max(0, gridHeight - (((viewHeight - 1) / pixels) << level));
+      int lastCol = Math.max(0, gridWidth - (((viewWidth - 1) / pixels) << level));
+      this.originRow = Math.max(0, Math.min(originRow, lastRow)) & -(1 << level);
+      this.originCol = Math.max(0, Math.min(originCol, lastCol)) & -(1 << level);
+    }
+
+    /** rowAt(y);
+     * Gets the row of the square at a point in the view (the top left square, if it's a tile).
+     * @param y, an int with the y of the point.
+     * @return an int with the row.
+     */
+    public int rowAt(int y) {
+      return originRow + ((y / pixels) << level);
+    }
+
+    /** colAt(x);
+     * Gets the column of the square at a point in the view (the top left square, if it's a tile).
+     * @param x, an int with the x of the point.
+     * @return an int with the column.
+     */
+    public int colAt(int x) {
+      return originCol + ((x / pixels) << level);
+    }
+
+    /** sameAs(other);
+     * Checks if another view shows exactly the same part of the grid.
+     * @param other, the other Viewport, or null.
+     * @return true if they look the same, otherwise false.
+     */
+    public boolean sameAs(Viewport other) {
+      return (other != null) && (other.level == level) && (other.pixels == pixels) &&
+             (other.originRow == originRow) && (other.originCol == originCol);
+    }
+
+    /** zoomedIn(y, x);
+     * Makes the view one step more zoomed in, keeping the square under a point where it is. Squares get twice as
+     * wide each step, up to MAX_ZOOM pixels, and tiles go down one level.
+     * @param y, an int with the y of the point.
+     * @param x, an int with the x of the point.
+     * @return the new Viewport.
+     */
+    public Viewport zoomedIn(int y, int x) {
+      if (level > 0) {
+        return zoomedTo(level - 1, 1, y, x);
+      }
+      return zoomedTo(0, Math.min(MAX_ZOOM, pixels * 2), y, x);
+    }
+
+    /** zoomedOut(y, x);
+     * Makes the view one step more zoomed out, keeping the square under a point where it is, but never further
+     * than fitView.
+     * @param y, an int with the y of the point.
+     * @param x, an int with the x of the point.
+     * @return the new Viewport.
+     */
+    public Viewport zoomedOut(int y, int x) {
+      if ((level == 0) && (fitView.level > 0) && (pixels > 1)) {
+        return zoomedTo(0, pixels / 2, y, x);
+      } else if ((level == 0) && (fitView.level == 0)) {
+        return zoomedTo(0, Math.max(fitView.pixels, pixels / 2), y, x);
+      }
+      return zoomedTo(Math.min(fitView.level, level + 1), 1, y, x);
+    }
+
+    /** zoomedTo(newLevel, newPixels, y, x);
+     * Makes a view with a different zoom, keeping the square under a point where it is.
+     * @param newLevel, an int with the new level.
+     * @param newPixels, an int with the new amount of pixels.
+     * @param y, an int with the y of the point.
+     * @param x, an int with the x of the point.
+     * @return the new Viewport.
+     */
+    private Viewport zoomedTo(int newLevel, int newPixels, int y, int x) {
+      return new Viewport(newLevel, newPixels, rowAt(y) - ((y / newPixels) << newLevel), colAt(x) - ((x / newPixels) << newLevel), follow);
+    }
+
+    /** movedBy(dy, dx);
+     * Makes the view moved by some pixels, which stops it from following the selected entity.
+     * @param dy, an int with how many pixels to move it down.
+     * @param dx, an int with how many pixels to move it right.
+     * @return the new Viewport.
+     */
+    public Viewport movedBy(int dy, int dx) {
+      return new Viewport(level, pixels, originRow - ((dy / pixels) << level), originCol - ((dx / pixels) << level), false);
+    }
+
+    /** centredOn(row, col);
+     * Makes the view moved so a square is in the middle of it.
+     * @param row, an int with the row of the square.
+     * @param col, an int with the column of the square.
+     * @return the new Viewport.
+     */
+    public Viewport centredOn(int row, int col) {
+      return new Viewport(level, pixels, row - ((viewHeight / pixels / 2) << level), col - ((viewWidth / pixels / 2) << level), follow);
+    }
+
+    /** following(follow);
+     * Makes the view the same, but following the selected entity or not.
+     * @param follow, a boolean with whether to follow it.
+     * @return the new Viewport.
+     */
+    public Viewport following(boolean follow) {
+      return new Viewport(level, pixels, originRow, originCol, follow);
+    }
+  }
+
+  /** squareColor(entity, currentWeather);
+   * Gets the colour a square of the grid is drawn in.
+   * @param entity, the Entity on the square, or null if it's empty.
+   * @param currentWeather, a String with the current weather.
+   * @return the Color of the square.
+   */
+  private Color squareColor(Entity entity, String currentWeather) {
+    if (entity == null) {
+      if (currentWeather.equals("Rainy")) {       //- Change the background colour based on the weather
+        return rainyColor;
+      } else if (currentWeather.equals("Cloudy")) {
+        return cloudyColor;
       }
+      return clearColor;
+    } else if (entity instanceof Human) {         //- This block matches character-colour pairs
+      Human person = (Human)entity;
+      boolean child = person.getAge() < Town.MIN_REPRODUCTION_AGE;
+
+      if (person.getGender() == 'F') {
+        return child ? femaleChildColor : femaleColor;
+      } else if (person.getGender() == 'M') {
+        return child ? maleChildColor : maleColor;
+      }
+    } else if (entity instanceof Zombie) {
+      return zombieColor;
+    } else if (entity instanceof Plant) {
+      return plantColor;
+    }
+    return Color.BLACK;
+  }
+
+  /** seasonColor(currentSeason);
+   * Gets the colour of the grid lines, which changes based on the season.
+   * @param currentSeason, a String with the current season.
+   * @return the Color of the season.
+   */
+  private Color seasonColor(String currentSeason) {
+    if (currentSeason.equals("Spring")) {
+      return springColor;
+    } else if (currentSeason.equals("Summer")) {
+      return summerColor;
+    } else if (currentSeason.equals("Fall")) {
+      return fallColor;
+    } else if (currentSeason.equals("Winter")) {
+      return winterColor;
     }
+    return Color.BLACK;
   }
-  
-  //Mouse Listener 
-  class MatrixPanelMouseListener implements MouseListener{ 
+
+  /** tileColor(level, tile, row, col, currentWeather);
+   * Gets the colour a tile of squares is drawn in when it's zoomed out. It's the colour of whatever there's the
+   * most of in the tile (zombies first if it's a tie, then humans), faded into the background by how empty the
+   * tile is, so crowded parts of the town stand out.
+   * @param level, an int with the level of the tile in the pyramid.
+   * @param tile, an int with the tile.
+   * @param row, an int with the row of the tile.
+   * @param col, an int with the column of the tile.
+   * @param currentWeather, a String with the current weather.
+   * @return an int with the RGB colour of the tile.
+   */
+  private int tileColor(int level, int tile, int row, int col, String currentWeather) {
+    int humans = pyramid.getCount(level, GridPyramid.HUMAN, tile);
+    int zombies = pyramid.getCount(level, GridPyramid.ZOMBIE, tile);
+    int plants = pyramid.getCount(level, GridPyramid.PLANT, tile);
+    int background = squareColor(null, currentWeather).getRGB();
+
+    int total = humans + zombies + plants;
+    if (total == 0) {
+      return background & 0xFFFFFF;
+    }
+
+    Color most;
+    if ((zombies >= humans) && (zombies >= plants)) {
+      most = zombieColor;
+    } else if (humans >= plants) {
+      most = maleColor;
+    } else {
+      most = plantColor;
+    }
+
+    //- Out of 256, never less than a third so a tile with anything in it can still be seen
+    int amount = 90 + 166 * total / pyramid.getArea(level, row, col);
+    int red = (most.getRed() * amount + ((background >> 16) & 0xFF) * (256 - amount)) >> 8;
+    int green = (most.getGreen() * amount + ((background >> 8) & 0xFF) * (256 - amount)) >> 8;
+    int blue = (most.getBlue() * amount + (background & 0xFF) * (256 - amount)) >> 8;
+    return (red << 16) | (green << 8) | blue;
+  }
+
+  //Mouse Listener
+  //- Dragging the grid moves the view and the mouse wheel zooms it. Views are always moved from the one that's on
+  //- the screen, so following the selected entity doesn't make it jump back.
+  class MatrixPanelMouseListener implements MouseListener, MouseMotionListener, MouseWheelListener {
+    private Viewport dragView; //- The view when the drag started, or null if it didn't start on the grid
+    private int dragStartX, dragStartY;
+
      //Mouse Listner Stuff
-    /** mousePressed(e); 
+    /** mousePressed(e);
      * This handles mouse pressed events, and does actions based on the results.
      * @param e, a MouseEvent object that represents a mouse pressed action.
      */
@@ -408,7 +912,7 @@ class MatrixDisplayWithMouse extends JFrame {
       int pointY = e.getPoint().y;
 
       //- Check if the stop/resume button was clicked
-      if ((pointX >= buttonStartX) && (pointX < buttonStartX + buttonLength) && 
+      if ((pointX >= buttonStartX) && (pointX < buttonStartX + buttonLength) &&
           (pointY >= buttonStartY) && (pointY < buttonStartY + buttonWidth)) {
         if (stopSimulation) {
           stopSimulation = false;
@@ -417,142 +921,161 @@ class MatrixDisplayWithMouse extends JFrame {
         }
       }
 
+      //- Check if the follow button was clicked, which is only there if there's a selected entity
+      if ((shownFrame != null) && (shownFrame.selectedType != Frame.NO_SELECTION) &&
+          (pointX >= followButtonX) && (pointX < followButtonX + followButtonWidth) &&
+          (pointY >= followButtonY) && (pointY < followButtonY + followButtonHeight)) {
+        Viewport view = shownView();
+        viewport = view.following(!view.follow);
+      }
+
+      //- Start dragging if it's on the grid
+      if (onGrid(pointX, pointY)) {
+        dragView = shownView();
+        dragStartX = pointX;
+        dragStartY = pointY;
+      } else {
+        dragView = null;
+      }
+    }
+
+    /** mouseDragged(e);
+     * This handles mouse dragged events, and moves the view along with the mouse.
+     * @param e, a MouseEvent object that represents a mouse dragged action.
+     */
+    public void mouseDragged(MouseEvent e) {
+      if (dragView != null) {
+        viewport = dragView.movedBy(e.getPoint().y - dragStartY, e.getPoint().x - dragStartX);
+      }
+    }
+
+    /** mouseClicked(e);
+     * This handles mouse clicked events. A click on a square of the grid gets handed to the simulation thread,
+     * and a click on a tile (when it's zoomed out) zooms in on it.
+     * @param e, a MouseEvent object that represents a mouse clicked action.
+     */
+    public void mouseClicked(MouseEvent e) {
+      int pointX = e.getPoint().x;
+      int pointY = e.getPoint().y;
+      if (!onGrid(pointX, pointY)) {
+        return;
+      }
+
+      Viewport view = shownView();
+      if (view.level > 0) {
+        viewport = view.zoomedIn(pointY, pointX);
+        return;
+      }
+
       //- Converts the points to proper grid coordinates
-      int xPos = e.getPoint().x / GridToScreenRatio;
-      int yPos = e.getPoint().y / GridToScreenRatio;
-      int[] pos = {yPos, xPos};
-      
-      //- If they are within the grid, then add them to mouseClicks
-      if (((pos[0] >= 0) && (pos[0] < matrix.length)) && ((pos[1] >= 0) && (pos[1] < matrix[0].length))) {
+      int[] pos = {view.rowAt(pointY), view.colAt(pointX)};
+
+      //- If they are within the grid, then hand them to the simulation thread
+      if (((pos[0] >= 0) && (pos[0] < gridHeight)) && ((pos[1] >= 0) && (pos[1] < gridWidth))) {
         mouseClicks.add(pos);
       }
     }
 
-    /** mouseReleased(e); 
+    /** mouseWheelMoved(e);
+     * This handles mouse wheel events, and zooms the view in or out around the mouse.
+     * @param e, a MouseWheelEvent object that represents a mouse wheel action.
+     */
+    public void mouseWheelMoved(MouseWheelEvent e) {
+      int pointX = e.getPoint().x;
+      int pointY = e.getPoint().y;
+      if (!onGrid(pointX, pointY) || (e.getWheelRotation() == 0)) {
+        return;
+      }
+
+      Viewport view = shownView();
+      if (e.getWheelRotation() < 0) {
+        viewport = view.zoomedIn(pointY, pointX);
+      } else {
+        viewport = view.zoomedOut(pointY, pointX);
+      }
+    }
+
+    /** mouseReleased(e);
      * This handles mouse released events.
      * @param e, a MouseEvent object that represents a mouse released action.
      */
     public void mouseReleased(MouseEvent e) {
+      dragView = null;
     }
 
-    /** mouseEntered(e); 
+    /** mouseMoved(e);
+     * This handles mouse moved events.
+     * @param e, a MouseEvent object that represents a mouse moved action.
+     */
+    public void mouseMoved(MouseEvent e) {
+    }
+
+    /** mouseEntered(e);
      * This handles mouse entered events.
      * @param e, a MouseEvent object that represents a mouse entered action.
      */
     public void mouseEntered(MouseEvent e) {
     }
 
-    /** mouseExited(e); 
+    /** mouseExited(e);
      * This handles mouse exited events.
      * @param e, a MouseEvent object that represents a mouse exited action.
      */
     public void mouseExited(MouseEvent e) {
     }
 
-    /** mouseClicked(e); 
-     * This handles mouse clicked events.
-     * @param e, a MouseEvent object that represents a mouse clicked action.
+    /** shownView();
+     * Gets the view that's on the screen. It's the newest one the EDT made, except it's centred on the selected
+     * entity if it's being followed, since only the simulation thread moves it there.
+     * @return the Viewport on the screen.
      */
-    public void mouseClicked(MouseEvent e) {
+    private Viewport shownView() {
+      Viewport view = viewport;
+      if (view.follow && (shownFrame != null) && (shownFrame.selectedCell >= 0)) {
+        view = view.centredOn(shownFrame.selectedCell / gridWidth, shownFrame.selectedCell % gridWidth);
+      }
+      return view;
     }
-  }
 
-  /** getSelectedEntity(); 
-   * Gets the current selected entity.
-   * @return an Entity, which is the current selected entity.
-   */
-  public Entity getSelectedEntity() {
-    return this.selectedEntity;
+    /** onGrid(x, y);
+     * Checks if a point is on the part of the screen the grid is shown in.
+     * @param x, an int with the x of the point.
+     * @param y, an int with the y of the point.
+     * @return true if it's on the grid, otherwise false.
+     */
+    private boolean onGrid(int x, int y) {
+      return (x >= 0) && (x < viewWidth) && (y >= 0) && (y < viewHeight);
+    }
   }
 
-  /** shouldStopSimulation(); 
+  /** shouldStopSimulation();
    * Gets and returns the stopSimulation value to determine if the simulation should be stopped.
    * @return a boolean, which is this.stopSimulation, which changes depending on whether simulation should be stopped or not.
    */
   public boolean shouldStopSimulation() {
     return this.stopSimulation;
   }
-  
-  /** getMouseClickLocations(); 
-   * Gets the current mouse clicks list.
-   * @return an ArrayList of int arrays containing all the mouse click positions.
-   */
-  public ArrayList<int[]> getMouseClickLocations() {
-    return mouseClicks;
-  }
 
-  /** updateCounts(maleHumanCount, femaleHumanCount, humanCount, zombieCount, plantCount); 
-   * Updates all the counts stored with the new numbers passed in.
-   * @param maleHumanCount, an int which contains the new male human total.
-   * @param femaleHumanCount, an int which contains the new female human total.
-   * @param humanCount, an int which contains the new overall human total.
-   * @param zombieCount, an int which contains the new zombie total.
-   * @param plantCount, an int which contains the new plant total.
+  /** getMouseClickLocations();
+   * Gets the queue of clicks on the grid, which the EDT adds to and the simulation thread takes from (see
+   * Town.processMouseActions).
+   * @return a Queue of int arrays containing all the mouse click positions.
    */
-  public void updateCounts(int maleHumanCount, int femaleHumanCount, int humanCount, int zombieCount, int plantCount) {
-    this.maleHumanCount = maleHumanCount;
-    this.femaleHumanCount = femaleHumanCount;
-    this.zombieCount = zombieCount;
-    this.plantCount = plantCount;
-    this.humanCount = humanCount;
-
-  }
-
-  /** updateGraph(); 
-   * If the simulation is not stopped, takes the current count numbers and adds it as a new data set to the graph.
-   * Also removes a dataset if the graph size is greater than the maximum.
-   */
-  public void updateGraph() {
-    if (!(this.stopSimulation)) {
-      int maleHumanNum = this.maleHumanCount;
-      int femaleHumanNum = this.femaleHumanCount;
-      int plantNum = this.plantCount;
-      int zombieNum = this.zombieCount;
-      int[] newData = {maleHumanNum, femaleHumanNum, plantNum, zombieNum}; 
-      
-      this.graph.add(newData);
-
-      if (graph.size() > GRAPH_SIZE) {
-        graph.remove(0);
-      }
-      
-    }
-  }
-
-  /** updateClimate(currentWeather, currentSeason); 
-   * Updates the current weather and season to the ones passed in.
-   * @param currentWeather, a String that contains the new current weather.
-   * @param currentSeason, a String that contains the new current season.
-   */
-  public void updateClimate(String currentWeather, String currentSeason) {
-    this.currentWeather = currentWeather;
-    this.currentSeason = currentSeason;
+  public Queue<int[]> getMouseClickLocations() {
+    return mouseClicks;
   }
 
-  /** updateTurns(turns); 
-   * Updates the total turns passed to the passed in int turns.
-   * @param turns. an int with the new total turns passed.
+  /** updateGraph(totalCount, totalGenderCount);
+   * Takes the current count numbers and adds them to the history the graph is drawn from.
+   * @param totalCount, an int array with the human, zombie and plant totals.
+   * @param totalGenderCount, an int array with the male and female human totals.
    */
-  public void updateTurns(int turns) {
-    this.turns = turns;
-  }
+  private void updateGraph(int[] totalCount, int[] totalGenderCount) {
+    graphCounts[0] = totalGenderCount[0];
+    graphCounts[1] = totalGenderCount[1];
+    graphCounts[2] = totalCount[2];
+    graphCounts[3] = totalCount[1];
 
-  /** updateSelectedEntity(selectedEntity); 
-   * Updates this selectedEntity with a provided entity.
-   * @param selectedEntity, an Entity that is the new selected entity.
-   */
-  public void updateSelectedEntity(Entity selectedEntity) {
-    this.selectedEntity = selectedEntity;
-  }
-
-  /** selectedEntityExists(); 
-   * Checks to see if this.selectedEntity exists.
-   * @return true if this.selectedEntity is not null, otherwise false
-   */
-  public boolean selectedEntityExists() {
-    if (this.selectedEntity == null) {
-      return false;
-    }
-    return true;
+    history.add(graphCounts);
   }
-}
\ No newline at end of file
+}
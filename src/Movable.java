@@ -1,5 +1,3 @@
-import java.util.ArrayList;
-
 /** Interface: Movable
  * @version 1.2
  * @author Joseph Wang
@@ -21,7 +19,14 @@ public interface Movable {
   public final int LEFT = 6;
   public final int UPLEFT = 7;
 
-  public void move(int[] newCoords);
-  public int[] decideMovement(Entity[] surroundingEntities, double[] surroundingValues);
-  public ArrayList<Integer> findPossibleMoves(Entity[] surroundingEntities);
+  //- The direction value for staying put
+  public final int STAY = -1;
+
+  public void move(int newCell);
+
+  //- Returns one of the direction values above (or STAY)
+  public int decideMovement(Entity[] surroundingEntities, int[] surroundingValues, RandomService random);
+
+  //- Returns a mask of the directions it can move in, where bit x is set if it can move in direction x
+  public int findPossibleMoves(Entity[] surroundingEntities);
 }
@@ -7,11 +7,13 @@ import java.io.File;
  * @author Joseph Wang
  * @date 12/2/2019
  * @description: A random name generator! This will read in names from a file and choose a random name from those
- *              names as needed.
+ *              names as needed. Entities only keep the index of their names, and get the String from here when
+ *              it's actually shown.
  */
 
 class NameGenerator {
-    private ArrayList<String> maleFirstNames, femaleFirstNames, lastNames, zombieNames, plantNames;
+    //- These are only ever read after they're loaded, so every town can share one NameGenerator
+    private final ArrayList<String> maleFirstNames, femaleFirstNames, lastNames, zombieNames, plantNames;
 
     //// CONSTRUCTORS ////
     /** NameGenerator(); 
@@ -71,49 +73,85 @@ class NameGenerator {
     }
     //// CONSTRUCTORS ////
 
-    /** generateFirstName(gender); 
-     * Generates a random first name from a list of first names based on the gender.
+    /** pickFirstName(gender, random); 
+     * Picks a random first name from a list of first names based on the gender. Only the index of the name is
+     * kept, and getFirstName() turns it back into a String when something actually needs to show it. Male names
+     * come first, then female names, so the index alone is enough to find the name again.
      * @param gender, a char that determines which list it gets a first name from.
-     * @return a random first name.
+     * @param random, the RandomService to pick the name with.
+     * @return an int with the index of a random first name.
      */
-    public String generateFirstName(char gender) {
-        int choice;
-
+    public int pickFirstName(char gender, RandomService random) {
         if (gender == 'M') {
-            choice = Simulation.randInt(0, this.maleFirstNames.size());
-            return this.maleFirstNames.get(choice);
+            return random.randInt(0, this.maleFirstNames.size());
         } else {
-            choice = Simulation.randInt(0, this.femaleFirstNames.size());
-            return this.femaleFirstNames.get(choice);
+            return this.maleFirstNames.size() + random.randInt(0, this.femaleFirstNames.size());
         }
     }
-    /** generateLastName(); 
-     * Generates a random last name from a list of last names.
-     * @return a random last name.
+
+    /** pickLastName(random); 
+     * Picks a random last name from a list of last names.
+     * @param random, the RandomService to pick the name with.
+     * @return an int with the index of a random last name.
+     */
+    public int pickLastName(RandomService random) {
+        return random.randInt(0, this.lastNames.size());
+    }
+
+    /** pickZombieName(random); 
+     * Picks a random zombie name from a list of zombie names.
+     * @param random, the RandomService to pick the name with.
+     * @return an int with the index of a random zombie name.
      */
-    public String generateLastName() {
-        int choice = Simulation.randInt(0, this.lastNames.size());
+    public int pickZombieName(RandomService random) {
+        return random.randInt(0, this.zombieNames.size());
+    }
 
-        return this.lastNames.get(choice);
+    /** pickPlantName(random); 
+     * Picks a random plant name from a list of plant names.
+     * @param random, the RandomService to pick the name with.
+     * @return an int with the index of a random plant name.
+     */
+    public int pickPlantName(RandomService random) {
+        return random.randInt(0, this.plantNames.size());
     }
 
-    /** generateZombieName(); 
-     * Generates a random zombie name from a list of zombie names.
-     * @return a random zombie name.
+    /** getFirstName(index); 
+     * Gets the first name with the given index.
+     * @param index, an int from pickFirstName().
+     * @return a String with the first name.
      */
-    public String generateZombieName() {
-        int choice = Simulation.randInt(0, this.zombieNames.size());
+    public String getFirstName(int index) {
+        if (index < this.maleFirstNames.size()) {
+            return this.maleFirstNames.get(index);
+        }
+        return this.femaleFirstNames.get(index - this.maleFirstNames.size());
+    }
 
-        return this.zombieNames.get(choice);
+    /** getLastName(index); 
+     * Gets the last name with the given index.
+     * @param index, an int from pickLastName().
+     * @return a String with the last name.
+     */
+    public String getLastName(int index) {
+        return this.lastNames.get(index);
     }
 
-    /** generatePlantName(); 
-     * Generates a random plant name from a list of plant names.
-     * @return a random plant name.
+    /** getZombieName(index); 
+     * Gets the zombie name with the given index.
+     * @param index, an int from pickZombieName().
+     * @return a String with the zombie name.
      */
-    public String generatePlantName() {
-        int choice = Simulation.randInt(0, this.plantNames.size());
+    public String getZombieName(int index) {
+        return this.zombieNames.get(index);
+    }
 
-        return this.plantNames.get(choice);
+    /** getPlantName(index); 
+     * Gets the plant name with the given index.
+     * @param index, an int from pickPlantName().
+     * @return a String with the plant name.
+     */
+    public String getPlantName(int index) {
+        return this.plantNames.get(index);
     }
 }
\ No newline at end of file
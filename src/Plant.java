@@ -1,3 +1,5 @@
+import java.io.IOException;
+
 /** Class: Plant
  * @version 1.1
  * @author Joseph Wang
@@ -6,28 +8,54 @@
  */
 
 class Plant extends Entity implements HasName{
-  private String name;
+  private int name; //- An index into the NameGenerator's list of plant names
 
   //// CONSTRUCTORS ////
-  /** Plant(health, decaySpeed); 
+  /** Plant(registry, health, decaySpeed, random); 
    * Creates a new plant with the given values. Calls super with most of them, and assigns a name to its own
    * class variable.
+   * @param registry, the EntityRegistry of the town this plant grows in.
    * @param health, an int with this plant's health.
    * @param decaySpeed, an int with this plant's decay speed.
+   * @param random, the RandomService used to pick this plant's name.
+   */
+  Plant(EntityRegistry registry, int health, int decaySpeed, RandomService random) {
+    super(registry, (byte) Town.PLANT, health, decaySpeed, 2.0, 0);
+
+    this.name = Simulation.nameGenerator.pickPlantName(random);
+  }
+
+  /** Plant(registry, in); 
+   * Loads a plant that was saved with writeTo(), with the same name.
+   * @param registry, the EntityRegistry of the town this plant grows in.
+   * @param in, the TownCheckpoint.Input to read from.
+   * @throws IOException, in case the checkpoint cannot be read.
    */
-  Plant(int health, int decaySpeed) {
-    super(health, decaySpeed, 2.0, 0);
+  Plant(EntityRegistry registry, TownCheckpoint.Input in) throws IOException {
+    super(registry, (byte) Town.PLANT, in, 2.0, 0);
 
-    this.name = Simulation.nameGenerator.generatePlantName();
+    this.name = in.getInt();
   }
   //// CONSTRUCTORS ////
 
+  @Override
+  /** writeTo(out); 
+   * Saves everything about this plant, including its name.
+   * @param out, the TownCheckpoint.Output to write to.
+   * @throws IOException, in case the checkpoint cannot be written.
+   */
+  public void writeTo(TownCheckpoint.Output out) throws IOException {
+    super.writeTo(out);
+
+    out.putInt(this.name);
+  }
+
   @Override
   /** getName(); 
    * Gets this plant's name.
    * @return a String, with this plant's name.
    */
   public String getName() {
-    return this.name;
+    return Simulation.nameGenerator.getPlantName(this.name);
   }
 }
\ No newline at end of file
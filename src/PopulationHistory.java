@@ -0,0 +1,116 @@
+/** Class: PopulationHistory
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: The population counts of every turn, kept in a fixed amount of memory however long the town runs,
+ *               so the graph can show the whole run. Every series (eg. male humans, plants) is kept at several
+ *               levels: level 0 has the count of every turn, level 1 has the lowest and highest count of every
+ *               4 turns, level 2 of every 16 turns, and so on. Every level is a ring of the last
+ *               CAPACITY blocks, so adding a turn only ever updates one block per level.
+ *
+ *               To draw the graph, decimate() squeezes the whole run into a fixed amount of columns, each with
+ *               the lowest and highest count of every series over the turns in that column. It reads from the
+ *               level that has about one block per column, so it costs the same after 100 turns as after a million.
+ */
+
+class PopulationHistory {
+  private static final int FACTOR_BITS = 2; //- Every block covers 1 << FACTOR_BITS (4) blocks of the level below
+  private static final int LEVELS = 12;
+  private static final int CAPACITY = 2048; //- How many blocks every level keeps, which has to be a power of 2
+  private static final int MASK = CAPACITY - 1;
+
+  private final int series;
+  private final int[][][] lows, highs; //- [level][series][block]
+  private long turns;
+
+  //// CONSTRUCTORS ////
+  /** PopulationHistory(series);
+   * Creates an empty history.
+   * @param series, an int with how many counts there are every turn.
+   */
+  PopulationHistory(int series) {
+    this.series = series;
+    this.lows = new int[LEVELS][series][CAPACITY];
+    this.highs = new int[LEVELS][series][CAPACITY];
+  }
+  //// CONSTRUCTORS ////
+
+  /// GETTERS/SETTERS ////
+  /** getTurns();
+   * Gets the amount of turns added so far.
+   * @return a long with the amount of turns.
+   */
+  public long getTurns() {
+    return this.turns;
+  }
+  /// GETTERS/SETTERS ////
+
+  /** add(counts);
+   * Adds the counts of a new turn.
+   * @param counts, an int array with one count for every series.
+   */
+  public void add(int[] counts) {
+    for (int level = 0; level < LEVELS; level++) {
+      int shift = level * FACTOR_BITS;
+      int block = (int) ((turns >>> shift) & MASK);
+      boolean newBlock = (turns & ((1L << shift) - 1)) == 0; //- The first turn of a block replaces what was there
+
+      for (int x = 0; x < series; x++) {
+        if (newBlock || counts[x] < lows[level][x][block]) {
+          lows[level][x][block] = counts[x];
+        }
+        if (newBlock || counts[x] > highs[level][x][block]) {
+          highs[level][x][block] = counts[x];
+        }
+      }
+    }
+    turns++;
+  }
+
+  /** decimate(columns, low, high);
+   * Squeezes the history into a number of columns, each covering the same power of 2 amount of turns, so the
+   * whole run fits (or as much of the end of it as the levels can hold). Columns always start on a multiple of
+   * their amount of turns, so a column doesn't change once it's full, even as more turns are added.
+   * @param columns, an int with the most columns to fill in (at most CAPACITY / 2).
+   * @param low, an int array for every series, which gets the lowest count of every column.
+   * @param high, an int array for every series, which gets the highest count of every column.
+   * @return an int with the amount of columns filled in, from the oldest to the newest.
+   */
+  public int decimate(int columns, int[][] low, int[][] high) {
+    if (turns == 0) {
+      return 0;
+    }
+
+    //- The fewest turns per column that fit everything, and the highest level that isn't coarser than that
+    int columnBits = 0;
+    while (((long) columns << columnBits) < turns && columnBits < (LEVELS - 1) * FACTOR_BITS) {
+      columnBits++;
+    }
+    int level = Math.min(LEVELS - 1, columnBits / FACTOR_BITS);
+    int levelShift = level * FACTOR_BITS;
+    int blocksPerColumn = 1 << (columnBits - levelShift);
+
+    long lastColumn = (turns - 1) >>> columnBits;
+    long firstColumn = Math.max(0, lastColumn - columns + 1);
+    long lastBlock = (turns - 1) >>> levelShift;
+
+    for (long column = firstColumn; column <= lastColumn; column++) {
+      int at = (int) (column - firstColumn);
+      long fromBlock = column << (columnBits - levelShift);
+      long toBlock = Math.min(lastBlock, fromBlock + blocksPerColumn - 1);
+
+      for (int x = 0; x < series; x++) {
+        int lowest = Integer.MAX_VALUE, highest = Integer.MIN_VALUE;
+        for (long block = fromBlock; block <= toBlock; block++) {
+          int slot = (int) (block & MASK);
+          lowest = Math.min(lowest, lows[level][x][slot]);
+          highest = Math.max(highest, highs[level][x][slot]);
+        }
+        low[x][at] = lowest;
+        high[x][at] = highest;
+      }
+    }
+
+    return (int) (lastColumn - firstColumn + 1);
+  }
+}
@@ -0,0 +1,138 @@
+import java.io.IOException;
+
+/** Class: RandomService
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: Gives out random numbers for the simulation. Instead of one shared generator, every number comes from
+ *               a key made of the run's seed, the turn, the entity it's for and what it's for. The same key always
+ *               gives the same numbers, no matter which thread asks or what order everything runs in, so a run can
+ *               be repeated exactly from its seed.
+ */
+
+class RandomService {
+  //- What the random numbers are being used for. Part of the key, so different decisions never share numbers.
+  public static final int PLACEMENT = 0;
+  public static final int HEALTH = 1;
+  public static final int IDENTITY = 2;
+  public static final int MOVEMENT = 3;
+  public static final int WEATHER = 4;
+  public static final int RAINDROPS = 5;
+  public static final int ESCAPE = 6;
+
+  //- Used as the entity id for things that don't belong to an entity (like the weather)
+  public static final int NO_ENTITY = -1;
+
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+  private final long seed;
+
+  //- The current key and how many numbers have been taken from it
+  private long key;
+  private long counter;
+
+  //// CONSTRUCTORS ////
+  /** RandomService(seed);
+   * Creates a new random number service for a run with the given seed.
+   * @param seed, a long with the seed of the run.
+   */
+  RandomService(long seed) {
+    this.seed = seed;
+    at(0, NO_ENTITY, PLACEMENT);
+  }
+
+  /** RandomService(in);
+   * Loads a random number service that was saved with writeTo(), picking up at the same number it was at.
+   * @param in, the TownCheckpoint.Input to read from.
+   * @throws IOException, in case the checkpoint cannot be read.
+   */
+  RandomService(TownCheckpoint.Input in) throws IOException {
+    this.seed = in.getLong();
+    this.key = in.getLong();
+    this.counter = in.getLong();
+  }
+  //// CONSTRUCTORS ////
+
+  /// GETTERS/SETTERS ////
+  /** getSeed();
+   * Gets the seed of this run.
+   * @return a long with the seed.
+   */
+  public long getSeed() {
+    return this.seed;
+  }
+
+  /** getCounter();
+   * Gets how many numbers have been taken from the current key.
+   * @return a long with the amount of numbers taken.
+   */
+  public long getCounter() {
+    return this.counter;
+  }
+  /// GETTERS/SETTERS ////
+
+  /** at(turn, entityId, purpose);
+   * Moves to the numbers for the given key. Every call with the same key starts the same sequence of numbers over.
+   * @param turn, an int with the current turn.
+   * @param entityId, an int with the id of the entity the numbers are for, or NO_ENTITY.
+   * @param purpose, an int with what the numbers are for (PLACEMENT, HEALTH, etc).
+   * @return this RandomService, so calls can be chained.
+   */
+  public RandomService at(int turn, int entityId, int purpose) {
+    long mixed = mix(this.seed + GOLDEN_GAMMA * (turn + 1));
+    mixed = mix(mixed + GOLDEN_GAMMA * (entityId + 2));
+    this.key = mix(mixed + GOLDEN_GAMMA * (purpose + 1));
+    this.counter = 0;
+
+    return this;
+  }
+
+  /** randInt(min, max);
+   * Gets the next random integer between min and max for the current key.
+   * @param min, the minimum integer (inclusive)
+   * @param max, the maximum integer (exclusive)
+   * @return a random int between min (inclusive) and max (exclusive), or min if there's nothing in between.
+   */
+  public int randInt(int min, int max) {
+    long range = (long) max - min;
+    this.counter++;
+
+    if (range <= 0) {
+      return min;
+    }
+
+    long bits = mix(this.key + GOLDEN_GAMMA * this.counter) >>> 32;
+    return (int) (min + ((bits * range) >>> 32));
+  }
+
+  /** copy();
+   * Makes another service with the same seed. Every thread needs its own, since the current key is stored inside.
+   * @return a new RandomService with the same seed.
+   */
+  public RandomService copy() {
+    return new RandomService(this.seed);
+  }
+
+  /** writeTo(out);
+   * Saves the seed, the current key and how far along it this service is.
+   * @param out, the TownCheckpoint.Output to write to.
+   * @throws IOException, in case the checkpoint cannot be written.
+   */
+  public void writeTo(TownCheckpoint.Output out) throws IOException {
+    out.putLong(this.seed);
+    out.putLong(this.key);
+    out.putLong(this.counter);
+  }
+
+  /** mix(value);
+   * Scrambles the bits of a long (the SplitMix64 finalizer), so keys that are close together give very different
+   * numbers.
+   * @param value, a long to scramble.
+   * @return a long with the scrambled bits.
+   */
+  private static long mix(long value) {
+    value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+    value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+    return value ^ (value >>> 31);
+  }
+}
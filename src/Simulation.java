@@ -1,5 +1,4 @@
 import java.util.Scanner;
-import java.lang.Math;
 
 /** Class: Simulation
  * @version 3.1
@@ -76,14 +75,15 @@ class Simulation {
 
     nameGenerator = new NameGenerator();
     Town cheerville = new Town(startH, startP, growSpd, rotSpd, hungerSpd, decaySpd, hHP, pHP, zHP, gridH, gridW);
+    cheerville.getMetrics().register("display"); //- So the turn timings can be watched in JConsole
     System.out.println("Welcome to Cheerville!");
 
-    MatrixDisplayWithMouse display = new MatrixDisplayWithMouse("Cheerville!", cheerville.getCity());
+    MatrixDisplayWithMouse display = new MatrixDisplayWithMouse("Cheerville!", gridH, gridW);
     
+    //- The display only ever sees copies of the town (see MatrixDisplayWithMouse.publish), so this thread is the
+    //- only one that touches the town
     do {
-      display.updateClimate(cheerville.getWeather(), cheerville.getSeason());
-      display.refresh();  
-      display.updateGraph(); 
+      display.publish(cheerville);
       
       try { 
          Thread.sleep(simSpd); 
@@ -94,34 +94,12 @@ class Simulation {
       }
 
       cheerville.processMouseActions(display.getMouseClickLocations()); //- Add zombies or change selected entity
-      
-      int[] totalCount = cheerville.getCounts();
-      int[] totalGenderCount = cheerville.getGendersCounts();
-      display.updateCounts(totalGenderCount[0], totalGenderCount[1], totalCount[0], totalCount[1], totalCount[2]); 
-      display.updateTurns(cheerville.getTurnsSurvived());
-
-      if (cheerville.selectedEntityExists() || display.selectedEntityExists()){
-        if (display.getSelectedEntity() != cheerville.getSelectedEntity()) {
-          display.updateSelectedEntity(cheerville.getSelectedEntity());
-        }
-      }
 
     } while (cheerville.checkForHumans());
 
-    display.refresh(); //- One last refresh to make sure the screen works
+    display.publish(cheerville); //- One last refresh to make sure the screen works
     System.out.println("THE WORLD HAS ENDED! Humans have survived for " + cheerville.getTurnsSurvived() + " turns!"); 
     
     input.close();
   }
-  
-  /** randInt(min, max); 
-   * This method accepts two ints, min and max, and gets a random integer between them.
-   * @param min - the minimum integer (inclusive)
-   * @param max - the maximum integer (exclusive)
-   * @return a random int between min (inclusive) and max (exclusive)
-   */
-  public static int randInt(int min, int max) {
-    int range = max - min;
-    return (int) (min + (Math.random() * range));
-  }
 }
\ No newline at end of file
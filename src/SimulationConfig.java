@@ -0,0 +1,204 @@
+import java.util.Properties;
+import java.util.Random;
+import java.io.FileReader;
+import java.io.IOException;
+
+/** Class: SimulationConfig
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: All the starting values for a simulation, read from the command line or a properties file instead of
+ *               being asked for one by one. Anything that isn't given uses the recommended value.
+ */
+
+class SimulationConfig {
+  //- The same values that Simulation asks for, with the recommended values as defaults
+  int startH = 20, startP = 50, startZ = 0;
+  int decaySpd = 1, hungerSpd = 1, rotSpd = 1, growSpd = 0;
+  int hHP = 30, pHP = 10, zHP = 6;
+  int maxHumanHP = 60, maxPlantHP = 20, maxZombieHP = 6;
+  int gridH = 25, gridW = 25;
+
+  //- Only used when running without the display
+  int maxTurns = 0;
+  int fieldMode = Town.SEQUENTIAL_FIELDS;
+  int fieldRebuildInterval = 0;
+  boolean offHeapFields = false;
+  int turnMode = Town.SEQUENTIAL_TURNS;
+  int threads = 0; //- 0 uses the common pool (or every core, for an ensemble)
+  int runs = 100; //- Only used by EnsembleRunner
+  long seed = new Random().nextLong(); //- Give the same seed to get the exact same run again
+
+  //- Where to save the town every checkpointEvery turns, and a saved town to carry on from instead of making a new one
+  String checkpointFile = null;
+  int checkpointEvery = 0;
+  String resumeFile = null;
+
+  //- Where to log every change to the town (see EventJournal), or null to not log anything
+  String journalFile = null;
+
+  /** fromArgs(args); 
+   * Makes a config from command line arguments. Every argument is a key=value pair (a leading -- is allowed), and
+   * config=file loads a properties file first, so anything else on the command line overrides it.
+   * @param args, a String array with the command line arguments.
+   * @return a SimulationConfig with the given values.
+   * @throws IOException, in case the properties file cannot be read.
+   */
+  public static SimulationConfig fromArgs(String[] args) throws IOException {
+    Properties properties = new Properties();
+
+    for (int x = 0; x < args.length; x++) {
+      String arg = args[x];
+      if (arg.startsWith("--")) {
+        arg = arg.substring(2);
+      }
+
+      int split = arg.indexOf('=');
+      if (split <= 0) {
+        throw new IllegalArgumentException("Expected key=value but got: " + args[x]);
+      }
+
+      String key = arg.substring(0, split);
+      String value = arg.substring(split + 1);
+
+      if (key.equals("config")) {
+        Properties fromFile = new Properties();
+        FileReader reader = new FileReader(value);
+        fromFile.load(reader);
+        reader.close();
+
+        //- Don't override anything that was already given on the command line
+        for (String name : fromFile.stringPropertyNames()) {
+          if (!(properties.containsKey(name))) {
+            properties.setProperty(name, fromFile.getProperty(name));
+          }
+        }
+      } else {
+        properties.setProperty(key, value);
+      }
+    }
+
+    return fromProperties(properties);
+  }
+
+  /** fromProperties(properties); 
+   * Makes a config from a set of properties, using the recommended value for anything that's missing. Checks the
+   * values the same way Simulation does.
+   * @param properties, a Properties object with the values.
+   * @return a SimulationConfig with the given values.
+   */
+  public static SimulationConfig fromProperties(Properties properties) {
+    SimulationConfig config = new SimulationConfig();
+
+    config.startH = readInt(properties, "humans", config.startH);
+    config.startP = readInt(properties, "plants", config.startP);
+    config.startZ = readInt(properties, "zombies", config.startZ);
+
+    config.decaySpd = readInt(properties, "decaySpeed", config.decaySpd);
+    config.hungerSpd = readInt(properties, "hungerSpeed", config.hungerSpd);
+    config.rotSpd = readInt(properties, "rotSpeed", config.rotSpd);
+    config.growSpd = readInt(properties, "growSpeed", config.growSpd);
+
+    config.hHP = readInt(properties, "humanHP", config.hHP);
+    config.pHP = readInt(properties, "plantHP", config.pHP);
+    config.zHP = readInt(properties, "zombieHP", config.zHP);
+
+    config.maxHumanHP = readInt(properties, "maxHumanHP", config.maxHumanHP);
+    config.maxPlantHP = readInt(properties, "maxPlantHP", config.maxPlantHP);
+    config.maxZombieHP = readInt(properties, "maxZombieHP", config.maxZombieHP);
+
+    config.gridH = readInt(properties, "gridHeight", config.gridH);
+    config.gridW = readInt(properties, "gridWidth", config.gridW);
+
+    config.maxTurns = readInt(properties, "maxTurns", config.maxTurns);
+    config.fieldRebuildInterval = readInt(properties, "fieldRebuildInterval", config.fieldRebuildInterval);
+    config.offHeapFields = Boolean.parseBoolean(properties.getProperty("offHeapFields", "false"));
+
+    String seed = properties.getProperty("seed");
+    if (seed != null) {
+      try {
+        config.seed = Long.parseLong(seed.trim());
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("seed must be a whole number, not " + seed);
+      }
+    }
+
+    String fieldMode = properties.getProperty("fieldMode", "sequential");
+    if (fieldMode.equals("sequential")) {
+      config.fieldMode = Town.SEQUENTIAL_FIELDS;
+    } else if (fieldMode.equals("frozen")) {
+      config.fieldMode = Town.FROZEN_FIELDS;
+    } else {
+      throw new IllegalArgumentException("fieldMode must be sequential or frozen, not " + fieldMode);
+    }
+
+    String turnMode = properties.getProperty("turnMode", "sequential");
+    if (turnMode.equals("sequential")) {
+      config.turnMode = Town.SEQUENTIAL_TURNS;
+    } else if (turnMode.equals("parallel")) {
+      config.turnMode = Town.PARALLEL_TURNS;
+    } else {
+      throw new IllegalArgumentException("turnMode must be sequential or parallel, not " + turnMode);
+    }
+    config.threads = readInt(properties, "threads", config.threads);
+    config.runs = readInt(properties, "runs", config.runs);
+
+    config.checkpointFile = properties.getProperty("checkpoint");
+    config.checkpointEvery = readInt(properties, "checkpointEvery", config.checkpointEvery);
+    config.resumeFile = properties.getProperty("resume");
+    config.journalFile = properties.getProperty("journal");
+
+    config.validate();
+    return config;
+  }
+
+  /** readInt(properties, key, defaultValue); 
+   * Reads an int out of the properties, or gives back the default if it isn't there.
+   * @param properties, a Properties object with the values.
+   * @param key, a String with the name of the value.
+   * @param defaultValue, an int to use if the value is missing.
+   * @return an int with the value.
+   */
+  private static int readInt(Properties properties, String key, int defaultValue) {
+    String value = properties.getProperty(key);
+    if (value == null) {
+      return defaultValue;
+    }
+
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(key + " must be a whole number, not " + value);
+    }
+  }
+
+  /** validate(); 
+   * Makes sure every value is valid, using the same rules as the questions in Simulation.
+   */
+  public void validate() {
+    if (!((startH > 0) && (startP > 0) && (startZ >= 0))) {
+      throw new IllegalArgumentException("There must be at least 1 human and 1 plant to start with.");
+    }
+    if (!((decaySpd > 0) && (hungerSpd > 0) && (rotSpd > 0) && (growSpd >= 0))) {
+      throw new IllegalArgumentException("Decay, hunger and rot speeds must be above 0, and grow speed can't be negative.");
+    }
+    if (!((hHP > 0) && (pHP > 0) && (zHP > 0))) {
+      throw new IllegalArgumentException("Starting health must be above 0.");
+    }
+    if (!((maxHumanHP > 0) && (maxPlantHP > 0) && (maxZombieHP > 0))) {
+      throw new IllegalArgumentException("Max health must be above 0.");
+    }
+    if (((long)gridH * gridW < (long)startH + startP + startZ) || !((gridH > 0) && (gridW > 0))) {
+      throw new IllegalArgumentException("The grid is too small to fit every starting entity.");
+    }
+    if (maxTurns < 0 || fieldRebuildInterval < 0 || threads < 0) {
+      throw new IllegalArgumentException("maxTurns, fieldRebuildInterval and threads can't be negative.");
+    }
+    if (checkpointEvery < 0 || (checkpointEvery > 0 && checkpointFile == null)) {
+      throw new IllegalArgumentException("checkpointEvery can't be negative, and needs a checkpoint file to save to.");
+    }
+    if (runs <= 0) {
+      throw new IllegalArgumentException("There must be at least 1 run.");
+    }
+  }
+}
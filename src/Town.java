@@ -1,7 +1,9 @@
+import java.io.IOException;
 import java.util.ArrayList;
-import java.text.DecimalFormat;
+import java.util.Random;
+import java.util.HashMap;
 import java.util.Queue;
-import java.util.LinkedList;
+import java.util.concurrent.ForkJoinPool;
 
 /** Class: Town
  * @version 4.1
@@ -13,21 +15,60 @@ import java.util.LinkedList;
 class Town {
   public static int[][] directions = {{-1, 0}, {-1, 1}, {0, 1}, {1, 1}, {1, 0}, {1, -1}, {0, -1}, {-1, -1}};
   
-  //- I use both a 2d Entity array and an ArrayList of entities to keep track of everything
+  //- I use both a 2d Entity array and a registry of entities to keep track of everything. Anything to do with
+  //- positions goes through the city, and anything that needs every entity goes through the registry.
   private Entity[][] city;
-  private ArrayList<Entity> allThings;
-
-  //- Each entity has their own array with two options: Human and Zombie. As the entity moves and whatnot,
-  //- their respective array gets updated with the new movement or action (eg. If a human moves, valuesOfHumans
-  //- would change based on the new position, and the human value would be stored in the Human section of
-  //- valuesOfHumans, while the zombie value would be stored in the Zombie section of valuesOfHumans).
-  private double[][][] valuesOfPlants, valuesOfHumans, valuesOfZombies;
-  private int[][][] valueInfluencers;
+  private EntityRegistry allThings;
+
+  //- Who every living human's parents and children are
+  private Genealogy genealogy;
+
+  //- Every empty square in the city, kept up to date by setSquare()
+  private EmptySquares emptySquares;
+
+  //- Filled in with the squares and values around whichever animal is taking its turn, so they aren't remade every time
+  private final Entity[] squareBuffer = new Entity[directions.length];
+  private final int[] valueBuffer = new int[directions.length];
+
+  //- Each entity has their own field with two layers: Human and Zombie. As the entity moves and whatnot,
+  //- their respective field gets updated with the new movement or action (eg. If a human moves, valuesOfHumans
+  //- would change based on the new position, and the human value would be stored in the Human layer of
+  //- valuesOfHumans, while the zombie value would be stored in the Zombie layer of valuesOfHumans).
+  //- The fields are flat arrays (see InfluenceField), and can be stored off the heap for really big grids.
+  private InfluenceField valuesOfPlants, valuesOfHumans, valuesOfZombies;
+  private InfluenceCounts valueInfluencers;
+  private boolean offHeapFields = false;
+
+  //- The precomputed spread of every value, so the value maps can be updated without a BFS
+  private HashMap<Double, InfluenceKernel> kernels = new HashMap<Double, InfluenceKernel>();
+
+  //- How the value maps are updated during a turn. SEQUENTIAL_FIELDS updates them right away, so every entity sees
+  //- what the entities before it did. FROZEN_FIELDS keeps them the same for the whole turn and applies every change
+  //- in one batch at the end of the turn.
+  public static final int SEQUENTIAL_FIELDS = 0;
+  public static final int FROZEN_FIELDS = 1;
+
+  private int fieldUpdateMode = SEQUENTIAL_FIELDS;
+  private InfluenceBatch fieldChanges;
+  private boolean batchingFieldChanges = false;
+
+  //- How every entity takes its turn. SEQUENTIAL_TURNS goes through them one at a time. PARALLEL_TURNS decides
+  //- where every animal wants to go at the same time (see TurnPlanner), then carries out the plans one at a time in
+  //- order of entity id. Parallel turns always freeze the value maps, since every animal has to see the same ones.
+  public static final int SEQUENTIAL_TURNS = 0;
+  public static final int PARALLEL_TURNS = 1;
+
+  private int turnMode = SEQUENTIAL_TURNS;
+  private ForkJoinPool turnPool = ForkJoinPool.commonPool();
+
+  //- How often (in turns) the value maps are rebuilt from scratch, or 0 to never rebuild them
+  private int fieldRebuildInterval = 0;
+  private ForkJoinPool rebuildPool = ForkJoinPool.commonPool();
   
   //- Makes array indexing more readable and easier to understand.
-  private final int HUMAN = 0;
-  private final int ZOMBIE = 1;
-  private final int PLANT = 2;
+  static final int HUMAN = 0;
+  static final int ZOMBIE = 1;
+  static final int PLANT = 2;
 
   private final int MALE = 0;
   private final int FEMALE = 1;
@@ -37,9 +78,10 @@ class Town {
 
   public final int BASE_GROW_SPEED;
 
-  public static int GRID_H, GRID_W;
+  private final int GRID_H, GRID_W;
   
   private int turnCount;
+  private int births;
 
   //- Various counts for every entity or gender in the town
   private int[] count = new int[3];
@@ -56,8 +98,19 @@ class Town {
 
   Climate climate;
 
+  //- Every random decision in the town comes from here, keyed by turn, entity id and purpose
+  private RandomService random;
+  private int nextEntityId;
+
   //- Used for the display
   private Entity selectedEntity;
+  private ChangedCells changedCells; //- Every square that changed since the display last drew, or null if nothing is drawing
+
+  //- Where every change to the town is logged, or null if nothing is being logged (see EventJournal)
+  private EventJournal journal;
+
+  //- How long every part of a turn takes and what happened in it, shown over JMX (see TownMetrics)
+  private final TownMetrics metrics = new TownMetrics();
   
   //// CONSTRUCTORS ////
   /** Town(startH, startP, gSpd, rSpd, hSpd, dSpd, hHP, pHP, zHP, gridH, gridW);
@@ -77,6 +130,47 @@ class Town {
    * @param gridW, an int with the width of the grid.
    */
   Town(int startH, int startP, int gSpd, int rSpd, int hSpd, int dSpd, int hHP, int pHP, int zHP, int gridH, int gridW) {
+    this(startH, startP, gSpd, rSpd, hSpd, dSpd, hHP, pHP, zHP, gridH, gridW, new Random().nextLong());
+  }
+
+  /** Town(startH, startP, gSpd, rSpd, hSpd, dSpd, hHP, pHP, zHP, gridH, gridW, seed);
+   * This creates an entirely new town the same way as above, except every random decision comes from the given seed,
+   * so the same seed always gives the same town and the same run.
+   * @param seed, a long with the seed of this run.
+   */
+  Town(int startH, int startP, int gSpd, int rSpd, int hSpd, int dSpd, int hHP, int pHP, int zHP, int gridH, int gridW, long seed) {
+    this(startH, startP, gSpd, rSpd, hSpd, dSpd, hHP, pHP, zHP, gridH, gridW, seed,
+         Simulation.maxHumanHP, Simulation.maxPlantHP, Simulation.maxZombieHP);
+  }
+
+  /** Town(config, seed);
+   * This creates an entirely new town from a config, without touching anything shared with other towns, so many
+   * towns can run at the same time. Also applies the field and turn modes, and spawns the starting zombies.
+   * @param config, a SimulationConfig with every value of the town.
+   * @param seed, a long with the seed of this run.
+   */
+  Town(SimulationConfig config, long seed) {
+    this(config.startH, config.startP, config.growSpd, config.rotSpd, config.hungerSpd, config.decaySpd,
+         config.hHP, config.pHP, config.zHP, config.gridH, config.gridW, seed,
+         config.maxHumanHP, config.maxPlantHP, config.maxZombieHP);
+
+    setFieldUpdateMode(config.fieldMode);
+    setFieldRebuildInterval(config.fieldRebuildInterval);
+    setOffHeapFields(config.offHeapFields);
+    setTurnMode(config.turnMode);
+    spawnZombies(config.startZ);
+  }
+
+  /** Town(startH, startP, gSpd, rSpd, hSpd, dSpd, hHP, pHP, zHP, gridH, gridW, seed, maxHHP, maxPHP, maxZHP);
+   * The constructor that every other one ends up calling, with the max health of every entity given directly.
+   * @param maxHHP, an int with the max health of humans.
+   * @param maxPHP, an int with the max health of plants.
+   * @param maxZHP, an int with the max health of zombies.
+   */
+  private Town(int startH, int startP, int gSpd, int rSpd, int hSpd, int dSpd, int hHP, int pHP, int zHP, int gridH, int gridW, long seed,
+               int maxHHP, int maxPHP, int maxZHP) {
+    this.random = new RandomService(seed);
+
     this.startingAmounts[HUMAN] = startH;
     this.startingAmounts[PLANT] = startP;
     this.startingAmounts[ZOMBIE] = 0;
@@ -85,9 +179,9 @@ class Town {
     this.startingHP[PLANT] = pHP;
     this.startingHP[ZOMBIE] = zHP;
 
-    this.maxHP[HUMAN] = Simulation.maxHumanHP;
-    this.maxHP[PLANT] = Simulation.maxPlantHP;
-    this.maxHP[ZOMBIE] = Simulation.maxZombieHP;
+    this.maxHP[HUMAN] = maxHHP;
+    this.maxHP[PLANT] = maxPHP;
+    this.maxHP[ZOMBIE] = maxZHP;
 
     this.decaySpeed = dSpd;
     this.hungerSpeed = hSpd;
@@ -103,6 +197,82 @@ class Town {
 
     reset();
   }
+
+  /** Town(in);
+   * Loads a town that was saved with writeTo() (see TownCheckpoint), so it carries on from the exact turn it was
+   * saved at. Every entity goes back into the same slot and square, and the empty squares come back in the same
+   * order, so the rest of the run is the same as if it had never stopped. The value maps aren't saved, so they're
+   * rebuilt from the entities.
+   * @param in, the TownCheckpoint.Input to read from.
+   * @throws IOException, in case the checkpoint cannot be read.
+   */
+  Town(TownCheckpoint.Input in) throws IOException {
+    this.GRID_H = in.getInt();
+    this.GRID_W = in.getInt();
+
+    this.BASE_GROW_SPEED = in.getInt();
+    this.growSpeed = in.getInt();
+    this.decaySpeed = in.getInt();
+    this.hungerSpeed = in.getInt();
+    this.rotSpeed = in.getInt();
+
+    in.getInts(this.startingAmounts, 3);
+    in.getInts(this.startingHP, 3);
+    in.getInts(this.maxHP, 3);
+
+    this.fieldUpdateMode = in.getInt();
+    this.fieldRebuildInterval = in.getInt();
+    this.turnMode = in.getInt();
+    this.offHeapFields = in.getBoolean();
+
+    this.turnCount = in.getInt();
+    this.births = in.getInt();
+    in.getInts(this.count, 3);
+    in.getInts(this.genderCount, 2);
+    this.nextEntityId = in.getInt();
+
+    this.random = new RandomService(in);
+    this.climate = new Climate(in);
+    int selectedId = in.getInt();
+
+    city = new Entity[GRID_H][GRID_W];
+    emptySquares = new EmptySquares(GRID_H, GRID_W, in);
+    allThings = new EntityRegistry();
+    genealogy = new Genealogy(in);
+
+    //- The entities were saved in registry order, so they get the same slots back
+    int amount = in.getInt();
+    for (int x = 0; x < amount; x++) {
+      byte type = in.getByte();
+      Entity entity;
+
+      if (type == HUMAN) {
+        Human person = new Human(allThings, in);
+        genealogy.restoreOwner(person);
+        entity = person;
+      } else if (type == ZOMBIE) {
+        entity = new Zombie(allThings, in);
+      } else if (type == PLANT) {
+        entity = new Plant(allThings, in);
+      } else {
+        throw new IOException("The checkpoint has an entity of unknown type " + type + ".");
+      }
+
+      if (entity instanceof Animal) {
+        ((Animal) entity).setBounds(GRID_H, GRID_W);
+      }
+
+      //- Not through setSquare(), since the empty squares were already loaded in the right order
+      int cell = entity.getCell();
+      city[getRow(cell)][getCol(cell)] = entity;
+
+      if (entity.getId() == selectedId) {
+        this.selectedEntity = entity;
+      }
+    }
+
+    initiateValues();
+  }
   
   //// CONSTRUCTORS ////
   
@@ -123,6 +293,14 @@ class Town {
     return this.turnCount;
   }
 
+  /** getBirths(); 
+   * Gets the total amount of babies born since the town was reset.
+   * @return an int with the amount of births.
+   */
+  public int getBirths() {
+    return this.births;
+  }
+
   /** getCounts(); 
    * Gets the total amount of every entity.
    * @return an int array with a total count for every entity.
@@ -155,6 +333,14 @@ class Town {
     return this.climate.getSeason();
   }
 
+  /** getSeed(); 
+   * Gets the seed that every random decision in this town comes from.
+   * @return a long with the seed.
+   */
+  public long getSeed() {
+    return this.random.getSeed();
+  }
+
   /** getSelectedEntity(); 
    * Gets the current selected entity.
    * @return an Entity that is the current selected one.
@@ -162,10 +348,200 @@ class Town {
   public Entity getSelectedEntity() {
     return this.selectedEntity;
   }
+
+  /** getAllThings(); 
+   * Gets the registry of every entity in the town. Only meant for the benchmarks, which need to pick out entities.
+   * @return an EntityRegistry with everything in the town.
+   */
+  EntityRegistry getAllThings() {
+    return this.allThings;
+  }
+
+  /** getGenealogy();
+   * Gets the families of every human in the town. Only meant for the benchmarks, which make families by hand.
+   * @return the Genealogy of the town.
+   */
+  Genealogy getGenealogy() {
+    return this.genealogy;
+  }
+
+  /** getValueMap(entity); 
+   * Gets the value map that the given entity's values are stored in. Only meant for the benchmarks.
+   * @param entity, an Entity that we want the value map of.
+   * @return the InfluenceField that holds this entity's values.
+   */
+  InfluenceField getValueMap(Entity entity) {
+    if (entity instanceof Human) {
+      return this.valuesOfHumans;
+    } else if (entity instanceof Zombie) {
+      return this.valuesOfZombies;
+    }
+    return this.valuesOfPlants;
+  }
+
+  /** getFieldUpdateMode(); 
+   * Gets how the value maps are updated during a turn.
+   * @return an int, either SEQUENTIAL_FIELDS or FROZEN_FIELDS.
+   */
+  public int getFieldUpdateMode() {
+    return this.fieldUpdateMode;
+  }
+
+  /** setFieldUpdateMode(mode); 
+   * Sets how the value maps are updated during a turn. Takes effect on the next turn.
+   * @param mode, an int that is either SEQUENTIAL_FIELDS or FROZEN_FIELDS.
+   */
+  public void setFieldUpdateMode(int mode) {
+    if (mode != SEQUENTIAL_FIELDS && mode != FROZEN_FIELDS) {
+      throw new IllegalArgumentException("Unknown field update mode: " + mode);
+    }
+
+    this.fieldUpdateMode = mode;
+  }
+
+  /** getTurnMode(); 
+   * Gets how the entities take their turns.
+   * @return an int, either SEQUENTIAL_TURNS or PARALLEL_TURNS.
+   */
+  public int getTurnMode() {
+    return this.turnMode;
+  }
+
+  /** setTurnMode(mode); 
+   * Sets how the entities take their turns. Takes effect on the next turn.
+   * @param mode, an int that is either SEQUENTIAL_TURNS or PARALLEL_TURNS.
+   */
+  public void setTurnMode(int mode) {
+    if (mode != SEQUENTIAL_TURNS && mode != PARALLEL_TURNS) {
+      throw new IllegalArgumentException("Unknown turn mode: " + mode);
+    }
+
+    this.turnMode = mode;
+  }
+
+  /** setTurnPool(pool); 
+   * Sets the ForkJoinPool that parallel turns are planned on.
+   * @param pool, the ForkJoinPool to use.
+   */
+  public void setTurnPool(ForkJoinPool pool) {
+    this.turnPool = pool;
+  }
+
+  /** setFieldRebuildInterval(turns); 
+   * Sets how often the value maps are completely rebuilt, to correct any drift from updating them turn by turn.
+   * @param turns, an int with the amount of turns between rebuilds, or 0 to never rebuild them.
+   */
+  public void setFieldRebuildInterval(int turns) {
+    this.fieldRebuildInterval = turns;
+  }
+
+  /** setOffHeapFields(offHeap); 
+   * Sets whether the value maps are stored outside of the java heap. The value maps are made again and rebuilt
+   * from every entity in the town.
+   * @param offHeap, a boolean that is true if the value maps should be stored off the heap.
+   */
+  public void setOffHeapFields(boolean offHeap) {
+    if (this.offHeapFields != offHeap) {
+      this.offHeapFields = offHeap;
+      initiateValues();
+    }
+  }
+
+  /** getMetrics(); 
+   * Gets the timings and counts of this town's turns.
+   * @return the TownMetrics of this town.
+   */
+  public TownMetrics getMetrics() {
+    return this.metrics;
+  }
+
+  /** getJournal(); 
+   * Gets the journal every change to the town is logged to.
+   * @return the EventJournal, or null if nothing is being logged.
+   */
+  public EventJournal getJournal() {
+    return this.journal;
+  }
+
+  /** setJournal(journal); 
+   * Starts logging every change to the town to a journal (or stops, if it's null). The town doesn't close it.
+   * @param journal, the EventJournal to log to, or null.
+   */
+  public void setJournal(EventJournal journal) {
+    this.journal = journal;
+  }
+
+  /** trackChangedCells(); 
+   * Starts keeping a list of every square that changes, so a display only has to redraw those (see ChangedCells).
+   * The list starts out with everything changed, and whoever draws the town should clear it after drawing.
+   * @return the ChangedCells that the town keeps up to date.
+   */
+  public ChangedCells trackChangedCells() {
+    if (this.changedCells == null) {
+      this.changedCells = new ChangedCells(GRID_H, GRID_W);
+    }
+    return this.changedCells;
+  }
+
+  /** setRebuildPool(pool); 
+   * Sets the ForkJoinPool that rebuilding the value maps runs on.
+   * @param pool, the ForkJoinPool to use.
+   */
+  public void setRebuildPool(ForkJoinPool pool) {
+    this.rebuildPool = pool;
+  }
   
   /// GETTERS/SETTERS ////
   
   ////////////////
+
+  /** writeTo(out); 
+   * Saves everything about the town that can't be worked out again: its settings, counters, random number state,
+   * climate, empty squares, every entity and the genealogy (see TownCheckpoint). Only call this between turns.
+   * @param out, the TownCheckpoint.Output to write to.
+   * @throws IOException, in case the checkpoint cannot be written.
+   */
+  public void writeTo(TownCheckpoint.Output out) throws IOException {
+    out.putInt(GRID_H);
+    out.putInt(GRID_W);
+
+    out.putInt(BASE_GROW_SPEED);
+    out.putInt(growSpeed);
+    out.putInt(decaySpeed);
+    out.putInt(hungerSpeed);
+    out.putInt(rotSpeed);
+
+    out.putInts(startingAmounts, 3);
+    out.putInts(startingHP, 3);
+    out.putInts(maxHP, 3);
+
+    out.putInt(fieldUpdateMode);
+    out.putInt(fieldRebuildInterval);
+    out.putInt(turnMode);
+    out.putBoolean(offHeapFields);
+
+    out.putInt(turnCount);
+    out.putInt(births);
+    out.putInts(count, 3);
+    out.putInts(genderCount, 2);
+    out.putInt(nextEntityId);
+
+    random.writeTo(out);
+    climate.writeTo(out);
+    out.putInt((selectedEntity == null) ? -1 : selectedEntity.getId());
+
+    emptySquares.writeTo(out);
+    genealogy.writeTo(out);
+
+    out.putInt(allThings.liveCount());
+    for (int x = 0; x < allThings.size(); x++) {
+      Entity entity = allThings.get(x);
+      if (entity != null) {
+        out.putByte(allThings.getType(x));
+        entity.writeTo(out);
+      }
+    }
+  }
   
   /** reset(); 
    * Initializes the map, counts, and the list holding all things. It then spawns all the entities based on
@@ -174,25 +550,25 @@ class Town {
    */
   public void reset() {
     turnCount = 0;
+    births = 0;
     
     count[HUMAN] = 0;
     count[PLANT] = 0;
     count[ZOMBIE] = 0;
     
     city = new Entity[GRID_H][GRID_W];
-    allThings = new ArrayList<Entity>();
+    emptySquares = new EmptySquares(GRID_H, GRID_W);
+    allThings = new EntityRegistry();
+    genealogy = new Genealogy();
     genderCount = new int[2];
+    nextEntityId = 0;
     
     //- Start making every single entity
     for (int i = 0; i < startingAmounts.length; i++) {   
       for (int j = 0; j < startingAmounts[i]; j++) {
-        int[] start = new int[2];
-        
-        do {
-          start[0] = Simulation.randInt(0, city.length);
-          start[1] = Simulation.randInt(0, city[0].length);
-          
-        } while (city[start[0]][start[1]] != null);
+        int start = findEmptySquare(nextEntityId);
+        int health = this.startingHP[i] + generateHPVariation(nextEntityId);
+        random.at(turnCount, nextEntityId, RandomService.IDENTITY);
         
         //- Spawn the entity based on what it is
         switch (i) {
@@ -206,24 +582,28 @@ class Town {
               genderCount[FEMALE]++;
             }
 
-            String lastName = Simulation.nameGenerator.generateLastName();
-            city[start[0]][start[1]] = new Human(this.startingHP[HUMAN] + generateHPVariation(), this.hungerSpeed, gender, 18, maxHP[HUMAN], lastName);
+            int lastName = Simulation.nameGenerator.pickLastName(random);
+            setSquare(start, new Human(allThings, health, this.hungerSpeed, gender, 18, maxHP[HUMAN], lastName, random));
             count[HUMAN] += 1;
             break;
             
           case PLANT:
-            city[start[0]][start[1]] = new Plant(this.startingHP[PLANT] + generateHPVariation(), this.rotSpeed);
+            setSquare(start, new Plant(allThings, health, this.rotSpeed, random));
             count[PLANT] += 1;
             break;
 
           case ZOMBIE:
-            city[start[0]][start[1]] = new Zombie(this.startingHP[ZOMBIE] + generateHPVariation(), this.decaySpeed, maxHP[ZOMBIE], "SPAWNED");
+            setSquare(start, new Zombie(allThings, health, this.decaySpeed, maxHP[ZOMBIE], "SPAWNED", random));
             count[ZOMBIE] += 1;
             break;
         }
         
-        city[start[0]][start[1]].setLocation(start);
-        allThings.add(city[start[0]][start[1]]);
+        getSquare(start).setCell(start);
+        register(getSquare(start));
+
+        if (i == HUMAN) {
+          genealogy.addFounder((Human) getSquare(start));
+        }
       }
     }
 
@@ -234,167 +614,141 @@ class Town {
   /** initiateValues(); 
    * This creates the new value maps as explained, creating valuesOfPlants (storing changes to value of plants),
    * valuesOfHumans (storing changes to value of humans) and valuesOfZombies (storing changes to value of zombies).
-   * It then gets all the entities and calculates their values, then stores them in the appropriate map.
+   * It then calculates the values of all the entities with rebuildValues().
    */
   private void initiateValues() {
-    valuesOfPlants = new double[GRID_H][GRID_W][2];
-    valuesOfHumans = new double[GRID_H][GRID_W][2];
-    valuesOfZombies = new double[GRID_H][GRID_W][2];
-    valueInfluencers = new int[GRID_H][GRID_W][2];
+    valuesOfPlants = new InfluenceField(GRID_H, GRID_W, 2, offHeapFields);
+    valuesOfHumans = new InfluenceField(GRID_H, GRID_W, 2, offHeapFields);
+    valuesOfZombies = new InfluenceField(GRID_H, GRID_W, 2, offHeapFields);
+    valueInfluencers = new InfluenceCounts(GRID_H, GRID_W, 2, offHeapFields);
+    fieldChanges = new InfluenceBatch(GRID_H, GRID_W);
+
+    rebuildValues();
+  }
+
+  /** rebuildValues(); 
+   * Throws away everything in the value maps and calculates them again from every entity in the town. Instead of
+   * stamping every entity one at a time, the entities are collected into a grid of sources for each value map, and
+   * every map is worked out in one pass, split into bands of rows that run in parallel.
+   * 
+   * This is used at reset, and can also be run every few turns to correct any drift in the value maps (see
+   * setFieldRebuildInterval).
+   */
+  public void rebuildValues() {
+    valuesOfPlants.clear();
+    valuesOfHumans.clear();
+    valuesOfZombies.clear();
+    valueInfluencers.clear();
 
-    //- Start calculating values for all the entities
+    InfluenceRebuilder rebuilder = new InfluenceRebuilder(GRID_H, GRID_W, rebuildPool);
+
+    //- Start collecting the values for all the entities
     for (int x = 0; x < allThings.size(); x++) {
-      int[] location = allThings.get(x).getLocation();
+      Entity entity = allThings.get(x);
+      if (entity == null) {
+        continue;
+      }
+      int location = entity.getCell();
+      int row = getRow(location);
+      int col = getCol(location);
 
-      if (allThings.get(x) instanceof Human) {
-        assignValues(allThings.get(x).getHValue(), location, HUMAN, valuesOfHumans);
-        assignValues(allThings.get(x).getZValue(), location, ZOMBIE, valuesOfHumans);
+      if (entity instanceof Human) {
+        rebuilder.addSource(getKernel(entity.getHValue()), valuesOfHumans, HUMAN, row, col);
+        rebuilder.addSource(getKernel(entity.getZValue()), valuesOfHumans, ZOMBIE, row, col);
 
-      } else if (allThings.get(x) instanceof Plant) {
-        assignValues(allThings.get(x).getHValue(), location, HUMAN, valuesOfPlants);
+      } else if (entity instanceof Plant) {
+        rebuilder.addSource(getKernel(entity.getHValue()), valuesOfPlants, HUMAN, row, col);
 
-        //- Plants don't necessarily matter to zombies
-        valuesOfPlants[location[0]][location[1]][ZOMBIE] = allThings.get(x).getZValue();
+        //- Plants don't necessarily matter to zombies (the value maps number their squares the same way as cells)
+        valuesOfPlants.set(ZOMBIE, location, entity.getZValue());
 
-      } else if (allThings.get(x) instanceof Zombie) {
-        assignValues(allThings.get(x).getHValue(), location, HUMAN, valuesOfZombies);
+      } else if (entity instanceof Zombie) {
+        rebuilder.addSource(getKernel(entity.getHValue()), valuesOfZombies, HUMAN, row, col);
 
         //- Other zombies don't necessarily matter to zombies
-        valuesOfZombies[location[0]][location[1]][ZOMBIE] = allThings.get(x).getZValue();
+        valuesOfZombies.set(ZOMBIE, location, entity.getZValue());
       }   
     }
+
+    rebuilder.rebuild(valueInfluencers);
   }
-  
+
   /** assignValues(value, location, valueType, valueMap); 
-   * Performs a BFS, starting on the location, and decreasing (or increasing if the starting value is negative) the
-   * value until the value hits 0, adding the values to the tile.
+   * Spreads the value around the location, decreasing (or increasing if the starting value is negative) the
+   * value by 1 for every square away from the location until the value hits 0, adding the values to the tile.
    * 
-   * The BFS pops from both the list of positions and the list of current values. It changes the value, adds a 
-   * modifier, adds the current square to "visited", and if the 8 squares around it are not visited and the current 
-   * value plus modifier does not equal 0, adds the next square's position to the list of positions and the current 
-   * value plus modifier to the list of modifiers.
+   * This used to be a BFS, but since the spread only ever depends on the starting value, the shape is precomputed
+   * once per value as a kernel (see getKernel) and then just stamped onto the map. If the fields are frozen for
+   * the turn, the stamp is only recorded and gets applied at the end of the turn.
    * 
    * @param value, an int which has the starting value.
-   * @param location, an int array which contains the starting position of the BFS.
+   * @param location, an int with the cell the spread starts at.
    * @param valueType, either HUMAN or ZOMBIE, depending on which value we're using (HValue or ZValue).
    * @param valueMap, the selected map of values (either valuesOfHumans, valuesOfZombies, or valuesOfPlants).
    */
-  private void assignValues(double value, int[] location, int valueType, double[][][] valueMap) {
-    Queue<int[]> positions = new LinkedList<>();
-    Queue<Double> values = new LinkedList<>();
-    ArrayList<int[]> visited = new ArrayList<int[]>();
-
-    //- Add the starting values
-    positions.add(location);
-    values.add(value);
-    visited.add(location);
-
-    //- Repeat the BFS while we still have positions to visit
-    while (positions.size() > 0) {
-      int[] position = positions.remove();
-      double currentValue = values.remove();
-
-      valueMap[position[0]][position[1]][valueType] += currentValue;
-      valueInfluencers[position[0]][position[1]][valueType]++;
-
-      //- Change the modifier based on the current value
-      int modifier;
-      if (currentValue > 0) {
-        modifier = -1;
-      } else if (currentValue < 0){
-        modifier = 1;
-      } else {
-        modifier = 0;
-      }
-        
-      if (!(currentValue + modifier == 0)) {
-        for (int x = 0; x < directions.length; x++) { //- We want to change in all 8 directions
-          if ((position[0] + directions[x][0] >= 0) && (position[0] + directions[x][0] < city.length) && 
-              (position[1] + directions[x][1] >= 0) && (position[1] + directions[x][1] < city[0].length)) {
-            int[] newPos = {position[0] + directions[x][0], position[1] + directions[x][1]};  
-            if (!(checkIfIn(visited, newPos))) { //- To make sure we haven't visited this position yet
-              positions.add(newPos);
-              values.add(currentValue + modifier);
-              visited.add(newPos);
-            }
-          }
-        }
-      }
-    }
+  void assignValues(double value, int location, int valueType, InfluenceField valueMap) {
+    stampValues(value, location, valueType, valueMap, 1);
   }
 
   /** resetValues(oldValue, startLocation, valueType, valueMap); 
-   * Performs a BFS, starting on the location, and decreasing (or increasing if the starting value is negative) the
-   * value until the value hits 0, removing the value from the tile. The opposite of assignValues().
-   * 
-   * The BFS pops from both the list of positions and the list of current values. It removes the value, adds a 
-   * modifier, adds the current square to "visited", and if the 8 squares around it are not visited and the current 
-   * value plus modifier does not equal 0, adds the next square's position to the list of positions and the current 
-   * value plus modifier to the list of modifiers.
+   * Removes the value that assignValues() spread around the location, using the same kernel. The opposite of 
+   * assignValues().
    * 
    * @param oldValue, an int which has the starting value.
-   * @param startLocation, an int array which contains the starting position of the BFS.
+   * @param startLocation, an int with the cell the spread starts at.
    * @param valueType, either HUMAN or ZOMBIE, depending on which value we're using (HValue or ZValue).
    * @param valueMap, the selected map of values (either valuesOfHumans, valuesOfZombies, or valuesOfPlants).
    */
-  private void resetValues(double oldValue, int[] startLocation, int valueType, double[][][] valueMap) {
-    Queue<int[]> positions = new LinkedList<>();
-    Queue<Double> values = new LinkedList<>();
-    ArrayList<int[]> visited = new ArrayList<int[]>();
-
-    //- Adding the start location and values
-    positions.add(startLocation);
-    values.add(oldValue);
-    visited.add(startLocation);
-
-    while (positions.size() > 0) {
-      int[] position = positions.remove();
-      double currentValue = values.remove();
-
-      //- Remove the value
-      valueMap[position[0]][position[1]][valueType] -= currentValue;
-      valueInfluencers[position[0]][position[1]][valueType]--;
-
-      int modifier;
-      if (currentValue > 0) {
-        modifier = -1;
-      } else if (currentValue < 0){
-        modifier = 1;
-      } else {
-        modifier = 0;
-      }
+  void resetValues(double oldValue, int startLocation, int valueType, InfluenceField valueMap) {
+    stampValues(oldValue, startLocation, valueType, valueMap, -1);
+  }
 
-      if (!(currentValue + modifier == 0)) {
-        for (int x = 0; x < directions.length; x++) {
-          if ((position[0] + directions[x][0] >= 0) && (position[0] + directions[x][0] < city.length) && 
-              (position[1] + directions[x][1] >= 0) && (position[1] + directions[x][1] < city[0].length)) {
-            int[] newPos = {position[0] + directions[x][0], position[1] + directions[x][1]};  
-            if (!(checkIfIn(visited, newPos))) { //- Make sure we haven't visited the new position yet
-              positions.add(newPos);
-              values.add(currentValue + modifier);
-              visited.add(newPos);
-            }
-          }
-        }
-      }
+  /** stampValues(value, location, valueType, valueMap, sign); 
+   * Adds (or removes) the kernel of a value around the location, or records it for the end of the turn if the 
+   * fields are frozen. Used by assignValues() and resetValues().
+   * @param value, an int which has the starting value.
+   * @param location, an int with the cell the spread starts at.
+   * @param valueType, either HUMAN or ZOMBIE, depending on which value we're using (HValue or ZValue).
+   * @param valueMap, the selected map of values (either valuesOfHumans, valuesOfZombies, or valuesOfPlants).
+   * @param sign, 1 to add the value or -1 to remove it.
+   */
+  private void stampValues(double value, int location, int valueType, InfluenceField valueMap, int sign) {
+    TownEvents.InfluenceUpdate event = new TownEvents.InfluenceUpdate();
+    event.begin();
+
+    int row = getRow(location), col = getCol(location), touched = 0;
+    if (batchingFieldChanges) {
+      fieldChanges.record(getKernel(value), valueMap, valueType, row, col, sign);
+    } else {
+      touched = getKernel(value).stamp(valueMap, valueInfluencers, valueType, row, col, sign);
+      metrics.addCellsTouched(touched);
+    }
+
+    if (event.shouldCommit()) {
+      event.value = value;
+      event.removed = (sign < 0);
+      event.row = row;
+      event.col = col;
+      event.cellsTouched = touched;
+      event.commit();
     }
   }
 
-  /** checkIfIn(list, object); 
-   * Checks and sees if the object specified is in the list.
-   * @param list, an ArrayList of int arrays that we want to check against.
-   * @param object, an int array that we want to check with.
-   * @return true if it is in the list, false otherwise.
+  /** getKernel(value); 
+   * Gets the kernel for the given value, building it the first time that value is seen. There's only a handful
+   * of different values in the town, so this only ever builds a few kernels.
+   * @param value, a double with the starting value of the kernel.
+   * @return an InfluenceKernel that spreads the given value.
    */
-  private boolean checkIfIn(ArrayList<int[]> list, int[] object) {
-    for (int x = 0; x < list.size(); x++) {
-      int[] check = list.get(x);
-      if ((check[0] == object[0]) && (check[1] == object[1])) {
-        return true;
-      }
+  private InfluenceKernel getKernel(double value) {
+    InfluenceKernel kernel = kernels.get(value);
+
+    if (kernel == null) {
+      kernel = new InfluenceKernel(value, Math.max(GRID_H, GRID_W));
+      kernels.put(value, kernel);
     }
 
-    return false;
+    return kernel;
   }
 
   ////////////////
@@ -407,62 +761,153 @@ class Town {
    * to move and perform actions again. It also increments people's age and decrements reproduction cooldowns.
    * 
    * Finally, it changes the grow speed according to climate, and adds more plants.
+   * 
+   * If the fields are frozen for the turn, every change to the value maps is collected during the turn and
+   * applied in one go at the very end.
+   * 
+   * With parallel turns, the first loop is replaced by runParallelActions().
+   * 
+   * Every part of the turn is timed (see TownMetrics), and the whole turn is a flight recorder event if those
+   * are turned on (see TownEvents).
    */
   public void runCycle() {
-    //- We'll be using this ArrayList to keep track of entities that are still alive.
-    ArrayList<Entity> stillExistingEntities = new ArrayList<Entity>();
-    
-    for (int x = allThings.size() - 1; x >= 0; x--) {
-      if (allThings.get(x).getShouldPerformAction()) {
-        decayEntity(x);
+    TownEvents.Turn turnEvent = new TownEvents.Turn();
+    turnEvent.begin();
+    metrics.startTurn();
+    batchingFieldChanges = (fieldUpdateMode == FROZEN_FIELDS || turnMode == PARALLEL_TURNS);
+
+    if (turnMode == PARALLEL_TURNS) {
+      runParallelActions();
+    } else {
+      //- Anything born during the loop goes on the end, and can't do anything until next turn anyways
+      for (int x = allThings.size() - 1; x >= 0; x--) {
+        Entity entity = allThings.get(x);
         
-        if (!(allThings.get(x).isDead())) {
-          processEntity(stillExistingEntities, x);
-        } else {
-          destroy(x);
+        if (entity != null && entity.getShouldPerformAction()) {
+          entity.decay();
+          
+          if (!(entity.isDead())) {
+            processEntity(entity);
+          } else {
+            destroy(entity);
+          }
         }
-        
-      } else {
-        stillExistingEntities.add(allThings.get(x)); //- If they can't do anything, they're still alive so they get added
       }
+      metrics.endPhase(TownMetrics.ACTIONS);
     }
-    allThings = stillExistingEntities; //- Assign all things to the entities that still exist after that loop
     
-    //- If we miss anything, this loop will catch it. It also does post-loop processing, like incrementing age or decreasing
-    //- reproductive cooldowns.
+    //- If we miss anything, this loop will catch it
     for (int x = allThings.size() - 1; x >= 0; x--) { 
-      if ((allThings.get(x).isDead())) {
-        destroy(x);
-      } else {
-        allThings.get(x).setShouldPerformAction(true);
-        
-        if ((allThings.get(x) instanceof Human)) {
-          Human person = (Human) allThings.get(x);
-          if (person.getReproductionCooldown() != 0) {
-            person.decreaseReproductionCooldown(1);
-          }
-          
-          person.incrementAge(1);
-        }
-      } 
+      if (allThings.getType(x) != EntityRegistry.NONE && allThings.getHealth(x) <= 0) {
+        destroy(allThings.get(x));
+      }
+    }
+    metrics.endPhase(TownMetrics.DESTROY_SWEEP);
+
+    allThings.advanceTurn(); //- Let everyone act again, age humans and decrease reproductive cooldowns
+    if (changedCells != null) {
+      markGrownUps();
     }
+    allThings.compact(); //- Fill in the holes left by everything that died this turn
+    metrics.endPhase(TownMetrics.AGING);
 
     //- Change the grow speed and add plants
-    this.growSpeed = climate.changeGrowSpeed(this.BASE_GROW_SPEED);
-    addPlants(this.growSpeed, allThings);
+    int oldGrowSpeed = this.growSpeed, oldWeather = climate.getWeatherIndex(), oldSeason = climate.getSeasonIndex();
+    this.growSpeed = climate.changeGrowSpeed(this.BASE_GROW_SPEED, random.at(turnCount, RandomService.NO_ENTITY, RandomService.WEATHER));
+    if (this.growSpeed != oldGrowSpeed || climate.getWeatherIndex() != oldWeather || climate.getSeasonIndex() != oldSeason) {
+      logEvent(EventJournal.CLIMATE, this.growSpeed, climate.getWeatherIndex(), climate.getSeasonIndex(), 0);
+    }
+    addPlants(this.growSpeed);
+    metrics.endPhase(TownMetrics.PLANT_GROWTH);
+
+    if (batchingFieldChanges) {
+      batchingFieldChanges = false;
+      metrics.addCellsTouched(fieldChanges.apply(valueInfluencers));
+    }
+
     turnCount++;
+    logEvent(EventJournal.TURN_END, turnCount, count[HUMAN], count[ZOMBIE], count[PLANT]);
+
+    if (fieldRebuildInterval > 0 && turnCount % fieldRebuildInterval == 0) {
+      rebuildValues();
+    }
+    metrics.endPhase(TownMetrics.FIELDS);
+    metrics.endTurn();
+
+    if (turnEvent.shouldCommit()) {
+      turnEvent.turn = turnCount;
+      turnEvent.humans = count[HUMAN];
+      turnEvent.zombies = count[ZOMBIE];
+      turnEvent.plants = count[PLANT];
+      turnEvent.commit();
+    }
   }
  
+  /** runParallelActions(); 
+   * Lets every entity take its turn in two phases. First, every entity decays in one sweep over the registry, and
+   * TurnPlanner decides where every animal wants to go, all at the same time against the city as it was at the start
+   * of the turn. Then the plans are
+   * carried out one at a time in order of entity id, so the result never depends on how many threads there are.
+   * 
+   * Anything that decayed to death is removed before any plans are carried out. After that, the plans can still run
+   * into each other, and the first one (lowest id) always wins:
+   * - Two animals going to the same square: the first one gets it, and the second one runs into whatever is there now.
+   * - A zombie going after a human that is moving away: if the zombie goes first, it gets the human. Otherwise the
+   *   human is gone and the zombie just moves into the empty square.
+   * - Mating pairs: the first human reproduces, and its mate loses its turn, just like in a sequential turn.
+   * If a plan can't be carried out anymore (eg. a zombie is now in the way), the animal stays where it is.
+   */
+  private void runParallelActions() {
+    allThings.decayAll();
+    metrics.endPhase(TownMetrics.DECAY);
+    ArrayList<TurnPlanner.Intent> intents = new TurnPlanner(this, turnPool).plan(city, allThings, turnCount, random);
+
+    for (int x = 0; x < intents.size(); x++) {
+      if (intents.get(x).isDecayed()) {
+        destroy(intents.get(x).getEntity());
+      }
+    }
+
+    for (int x = 0; x < intents.size(); x++) {
+      TurnPlanner.Intent intent = intents.get(x);
+      Entity entity = intent.getEntity();
+
+      //- Anything that was killed by an earlier plan or lost its turn to a mate stays put, and is cleaned up later
+      if (!(intent.isDecayed()) && intent.getDirection() != Movable.STAY && !(entity.isDead()) && entity.getShouldPerformAction()) {
+        commitIntent((Animal) entity, intent.getDirection());
+      }
+    }
+    metrics.endPhase(TownMetrics.ACTIONS);
+  }
+
+  /** commitIntent(entity, direction); 
+   * Carries out an animal's plan, as long as it can still move in the direction it picked.
+   * @param entity, the Animal carrying out its plan.
+   * @param direction, an int with the direction value it wants to go in.
+   */
+  private void commitIntent(Animal entity, int direction) {
+    //- Someone else might have gotten there first, so make sure it can still go there
+    findSurroundingSquares(entity, squareBuffer);
+    if ((entity.findPossibleMoves(squareBuffer) & (1 << direction)) != 0) {
+      //- The value maps are frozen for the whole turn, so these are the same values it planned with
+      findSurroundingValues(entity, valueBuffer);
+
+      int pos = entity.getCell();
+      performMovement(entity, findDestination(pos, direction), squareBuffer, valueBuffer);
+    }
+  }
+
   /** moveHuman(pos, newPos, person); 
    * Moves the selected human both on the visible map, but also on the value maps that it's associated with.
-   * @param pos, an int array with the old position of the human.
-   * @param newPos, an int array with the new position of the human.
+   * @param pos, an int with the old cell of the human.
+   * @param newPos, an int with the new cell of the human.
    * @param person, a Human which is the person we want to move.
    */
-  private void moveHuman(int[] pos, int[] newPos, Human person) {
+  private void moveHuman(int pos, int newPos, Human person) {
+    logEvent(EventJournal.MOVE, person.getId(), pos, newPos, 0);
     person.move(newPos);
-    city[pos[0]][pos[1]] = null;
-    city[newPos[0]][newPos[1]] = person;
+    setSquare(pos, null);
+    setSquare(newPos, person);
 
     resetValues(person.getHValue(), pos, HUMAN, valuesOfHumans);
     assignValues(person.getHValue(), newPos, HUMAN, valuesOfHumans);
@@ -472,220 +917,321 @@ class Town {
 
   /** moveZombie(pos, newPos, zombie); 
    * Moves the selected zombie both on the visible map, but also on the value maps that it's associated with.
-   * @param pos, an int array with the old position of the zombie.
-   * @param newPos, an int array with the new position of the zombie.
+   * @param pos, an int with the old cell of the zombie.
+   * @param newPos, an int with the new cell of the zombie.
    * @param zombie, a zombie which is the person we want to move.
    */
-  private void moveZombie(int[] pos, int[] newPos, Zombie zombie) {
+  private void moveZombie(int pos, int newPos, Zombie zombie) {
+    logEvent(EventJournal.MOVE, zombie.getId(), pos, newPos, 0);
     zombie.move(newPos);
-    city[pos[0]][pos[1]] = null;
-    city[newPos[0]][newPos[1]] = zombie;
+    setSquare(pos, null);
+    setSquare(newPos, zombie);
 
     resetValues(zombie.getHValue(), pos, HUMAN, valuesOfZombies);
     assignValues(zombie.getHValue(), newPos, HUMAN, valuesOfZombies);
   }
 
-  /** processEntity(stillExistingEntities, entityID); 
+  /** processEntity(e); 
    * This method performs the action of whatever the selected entity needs to do. If it can move, it checks where it wants to move,
    * then performs actions based on what it's moving into.
    * null - Move there.
    * Plant - consume or trample it, depending on what the entity is.
    * Human - Either try to reproduce with it, or eat/infect it.
    * It should never collide with a zombie.
-   * @param stillExistingEntities, an ArrayList of Entities that will be constantly added to. Anything alive, new or old, is added to this.
-   * @param entityID, an int with its location in the ArrayList of all things.
+   * @param e, the Entity taking its turn.
    */
-  private void processEntity(ArrayList<Entity> stillExistingEntities, int entityID) {
-    Entity e = allThings.get(entityID);
+  private void processEntity(Entity e) {
     
     if (!(e instanceof Plant)) {
       Animal entity = (Animal) e;
-      int[] pos = entity.getLocation().clone();
       
       //- Get the movable positions
-      Entity[] surroundingSquares = findSurroundingSquares(entity);
-      double[] surroundingValues = findSurroundingValues(entity);
-      int[] newPos = entity.decideMovement(surroundingSquares, surroundingValues);
-
-      //- If thee direction isn't their own position
-      if (!(newPos[0] == pos[0] && newPos[1] == pos[1])) { 
-        //- If it's an empty tile
-        if (city[newPos[0]][newPos[1]] == null) {
-          if (entity instanceof Human) {
+      findSurroundingSquares(entity, squareBuffer);
+      findSurroundingValues(entity, valueBuffer);
+      random.at(turnCount, entity.getId(), RandomService.MOVEMENT);
+      int direction = entity.decideMovement(squareBuffer, valueBuffer, random);
+
+      performMovement(entity, findDestination(entity.getCell(), direction), squareBuffer, valueBuffer);
+    }
+  }
+
+  /** performMovement(entity, newPos, surroundingSquares, surroundingValues); 
+   * Moves the entity to newPos, and does whatever needs to be done with what's already there (see processEntity).
+   * @param entity, the Animal that is moving.
+   * @param newPos, an int with the cell it decided to go to.
+   * @param surroundingSquares, an Entity array with the squares around it.
+   * @param surroundingValues, an int array with the values around it (in hundredths).
+   */
+  private void performMovement(Animal entity, int newPos, Entity[] surroundingSquares, int[] surroundingValues) {
+    int pos = entity.getCell();
+
+    //- If thee direction isn't their own position
+    if (newPos != pos) { 
+      //- If it's an empty tile
+      if (getSquare(newPos) == null) {
+        if (entity instanceof Human) {
+          moveHuman(pos, newPos, (Human)entity);
+
+        } else { //- The entity must be a zombie
+          moveZombie(pos, newPos, (Zombie)entity);
+        }
+        
+      } else {
+        Entity otherE = getSquare(newPos); 
+        
+        //- If it collides with a plant
+        if (otherE instanceof Plant) {
+          if (entity instanceof Human) {  
+            ((Human)entity).consume(otherE); //- Consume
+            logEvent(EventJournal.CONSUME, entity.getId(), otherE.getId(), newPos, 0);
             moveHuman(pos, newPos, (Human)entity);
 
           } else { //- The entity must be a zombie
+            ((Zombie)entity).trample(otherE); //- Destroy
+            logEvent(EventJournal.TRAMPLE, entity.getId(), otherE.getId(), newPos, 0);
+
             moveZombie(pos, newPos, (Zombie)entity);
           }
+          //- Reset the dead plant's values
+          resetValues(otherE.getHValue(), newPos, HUMAN, valuesOfPlants);
           
-        } else {
-          Entity otherE = city[newPos[0]][newPos[1]]; 
+        } else { //- If it collides with an animal (in this case it has to be a human)
+          Animal otherEntity = (Animal) otherE;
+          Human otherHuman = (Human) otherEntity;
+          Entity newEntity;
           
-          //- If it collides with a plant
-          if (otherE instanceof Plant) {
-            if (entity instanceof Human) {  
-              ((Human)entity).consume(otherE); //- Consume
-              moveHuman(pos, newPos, (Human)entity);
+          if (entity instanceof Human) { //- If this is a Human
+            Human currentHuman = (Human) entity;
+
+            //- Begin reproduction
+            //- Temporarily give it a cooldown
+            currentHuman.setReproductionCooldown(PROCREATING_COOLDOWN);
+            random.at(turnCount, currentHuman.getId(), RandomService.ESCAPE);
+            int safeLocation = findDestination(pos, currentHuman.decideMovement(surroundingSquares, surroundingValues, random));
+
+            if (safeLocation != pos) { //- Make sure the human can escape to somewhere
+              random.at(turnCount, nextEntityId, RandomService.IDENTITY);
+              newEntity = currentHuman.reproduce(otherHuman, random); //- A new baby was formed
+              register(newEntity);
+              genealogy.addChild((Human) newEntity, currentHuman, otherHuman);
+              births++;
+              metrics.countBirth();
+
+              if (((Human)newEntity).getGender() == 'M') {
+                genderCount[MALE] ++;
+              } else {
+                genderCount[FEMALE] ++;
+              }
+              count[HUMAN] += 1;
 
-            } else { //- The entity must be a zombie
-              ((Zombie)entity).trample(otherE); //- Destroy
+              if (getSquare(safeLocation) != null) { //- If there was a plant there, reset its values and kill it
+                getSquare(safeLocation).setHealth(0);
+                resetValues(getSquare(safeLocation).getHValue(), safeLocation, HUMAN, valuesOfPlants);
+              }
 
-              moveZombie(pos, newPos, (Zombie)entity);
-            }
-            //- Reset the dead plant's values
-            resetValues(otherE.getHValue(), newPos, HUMAN, valuesOfPlants);
-            
-          } else { //- If it collides with an animal (in this case it has to be a human)
-            Animal otherEntity = (Animal) otherE;
-            Human otherHuman = (Human) otherEntity;
-            Entity newEntity;
-            
-            if (entity instanceof Human) { //- If this is a Human
-              Human currentHuman = (Human) entity;
-
-              //- Begin reproduction
-              //- Temporarily give it a cooldown
-              currentHuman.setReproductionCooldown(PROCREATING_COOLDOWN);
-              int[] safeLocation = currentHuman.decideMovement(surroundingSquares, surroundingValues);
-
-              if (!(safeLocation[0] == pos[0] && safeLocation[1] == pos[1])) { //- Make sure the human can escape to somewhere
-                newEntity = currentHuman.reproduce(otherHuman); //- A new baby was formed
-
-                if (((Human)newEntity).getGender() == 'M') {
-                  genderCount[MALE] ++;
-                } else {
-                  genderCount[FEMALE] ++;
-                }
-                count[HUMAN] += 1;
-
-                if (city[safeLocation[0]][safeLocation[1]] != null) { //- If there was a plant there, reset its values and kill it
-                  city[safeLocation[0]][safeLocation[1]].setHealth(0);
-                  resetValues(city[safeLocation[0]][safeLocation[1]].getHValue(), safeLocation, HUMAN, valuesOfPlants);
-                }
-
-                //- Move the current human and the baby human
-                currentHuman.move(safeLocation);
-                city[pos[0]][pos[1]] = null;
-                city[safeLocation[0]][safeLocation[1]] = currentHuman;
-
-                newEntity.setLocation(pos);
-                city[pos[0]][pos[1]] = newEntity;
-                stillExistingEntities.add(newEntity);
-                
-                //- There's no point in removing these values, since another human will occupy it anyways
-                assignValues(entity.getHValue(), safeLocation, HUMAN, valuesOfHumans);
-                assignValues(entity.getZValue(), safeLocation, ZOMBIE, valuesOfHumans);
-              } else {
-                //- Reset its cooldown
-                currentHuman.setReproductionCooldown(0);
+              //- Move the current human and the baby human
+              logEvent(EventJournal.MOVE, currentHuman.getId(), pos, safeLocation, 0);
+              logEvent(EventJournal.BIRTH, newEntity.getId(), currentHuman.getId(), otherHuman.getId(), pos);
+              TownEvents.Birth birthEvent = new TownEvents.Birth();
+              if (birthEvent.shouldCommit()) {
+                birthEvent.child = newEntity.getId();
+                birthEvent.firstParent = currentHuman.getId();
+                birthEvent.secondParent = otherHuman.getId();
+                birthEvent.cell = pos;
+                birthEvent.commit();
               }
-            } else { //- Otherwise if this is a Zombie colliding with a Human
-              Zombie currentZombie = (Zombie)entity;
-              //- Decide whether to eat or not
-              if (currentZombie.shouldEat(otherHuman)) { //- Eating the human
-                currentZombie.consume(otherHuman);
-                
-                city[newPos[0]][newPos[1]] = null;
-                entity.move(newPos);
-                city[pos[0]][pos[1]] = null;
-                city[newPos[0]][newPos[1]] = entity;
-
-                resetValues(entity.getHValue(), pos, HUMAN, valuesOfZombies); //- Reset the old position's values
-              } else { //- Infecting the human
-                newEntity = currentZombie.infect(otherHuman);
-
-                count[ZOMBIE] += 1;
-                
-                newEntity.setLocation(newPos);
-                city[newPos[0]][newPos[1]] = newEntity;
-                stillExistingEntities.add(newEntity);
-                //- We don't need to reset the old position's values here, as it infected someone so it stays the same
+              currentHuman.move(safeLocation);
+              setSquare(pos, null);
+              setSquare(safeLocation, currentHuman);
+
+              newEntity.setCell(pos);
+              setSquare(pos, newEntity);
+              
+              //- There's no point in removing these values, since another human will occupy it anyways
+              assignValues(entity.getHValue(), safeLocation, HUMAN, valuesOfHumans);
+              assignValues(entity.getZValue(), safeLocation, ZOMBIE, valuesOfHumans);
+            } else {
+              //- Reset its cooldown
+              currentHuman.setReproductionCooldown(0);
+            }
+          } else { //- Otherwise if this is a Zombie colliding with a Human
+            Zombie currentZombie = (Zombie)entity;
+            //- Decide whether to eat or not
+            if (currentZombie.shouldEat(otherHuman)) { //- Eating the human
+              currentZombie.consume(otherHuman);
+              logEvent(EventJournal.ZOMBIE_MEAL, currentZombie.getId(), otherHuman.getId(), newPos, 0);
+              metrics.countZombieMeal();
+              logEvent(EventJournal.MOVE, currentZombie.getId(), pos, newPos, 0);
+              
+              setSquare(newPos, null);
+              entity.move(newPos);
+              setSquare(pos, null);
+              setSquare(newPos, entity);
+
+              resetValues(entity.getHValue(), pos, HUMAN, valuesOfZombies); //- Reset the old position's values
+            } else { //- Infecting the human
+              random.at(turnCount, nextEntityId, RandomService.IDENTITY);
+              newEntity = currentZombie.infect(otherHuman, random);
+              register(newEntity);
+              logEvent(EventJournal.INFECTION, currentZombie.getId(), otherHuman.getId(), newEntity.getId(), newPos);
+              metrics.countInfection();
+              TownEvents.Infection infectionEvent = new TownEvents.Infection();
+              if (infectionEvent.shouldCommit()) {
+                infectionEvent.zombie = currentZombie.getId();
+                infectionEvent.human = otherHuman.getId();
+                infectionEvent.newZombie = newEntity.getId();
+                infectionEvent.cell = newPos;
+                infectionEvent.commit();
               }
-              assignValues(entity.getHValue(), newPos, HUMAN, valuesOfZombies);
 
-              //- No matter the option, the human's values must always be reset
-              resetValues(otherE.getHValue(), newPos, HUMAN, valuesOfHumans);
-              resetValues(otherE.getZValue(), newPos, ZOMBIE, valuesOfHumans);
+              count[ZOMBIE] += 1;
+              
+              newEntity.setCell(newPos);
+              setSquare(newPos, newEntity);
+              //- We don't need to reset the old position's values here, as it infected someone so it stays the same
             }
+            assignValues(entity.getHValue(), newPos, HUMAN, valuesOfZombies);
+
+            //- No matter the option, the human's values must always be reset
+            resetValues(otherE.getHValue(), newPos, HUMAN, valuesOfHumans);
+            resetValues(otherE.getZValue(), newPos, ZOMBIE, valuesOfHumans);
           }
         }
       }
     }
-    
-    stillExistingEntities.add(e); //Add the current entity to the list of still existing ones
   }
 
   ////////////////
 
-  /** findSurroundingSquares(entity); 
+  /** findDestination(pos, direction); 
+   * Gets the cell one step away from a cell in the given direction. The step must stay inside the town, which it
+   * always does for a direction picked by decideMovement().
+   * @param pos, an int with the cell to step from.
+   * @param direction, an int with the direction value to step in, or Movable.STAY.
+   * @return an int with the cell it ends up on.
+   */
+  int findDestination(int pos, int direction) {
+    if (direction == Movable.STAY) {
+      return pos;
+    }
+    return pos + directions[direction][0] * GRID_W + directions[direction][1];
+  }
+
+  /** getCell(row, col); 
+   * Packs a position into a cell, which is just the number of the square counting across every row (row * width + col).
+   * @param row, an int with the row.
+   * @param col, an int with the column.
+   * @return an int with the cell.
+   */
+  int getCell(int row, int col) {
+    return row * GRID_W + col;
+  }
+
+  /** getRow(cell); 
+   * Gets the row a cell is on.
+   * @param cell, an int with the cell.
+   * @return an int with the row.
+   */
+  int getRow(int cell) {
+    return cell / GRID_W;
+  }
+
+  /** getCol(cell); 
+   * Gets the column a cell is in.
+   * @param cell, an int with the cell.
+   * @return an int with the column.
+   */
+  int getCol(int cell) {
+    return cell % GRID_W;
+  }
+
+  /** getSquare(cell); 
+   * Gets whatever is on a cell of the city.
+   * @param cell, an int with the cell.
+   * @return the Entity there, or null if it's empty.
+   */
+  private Entity getSquare(int cell) {
+    return city[cell / GRID_W][cell % GRID_W];
+  }
+
+  /** findSurroundingSquares(entity, surroundingEntities); 
    * Gets the entity and gets all the squares around them. This includes entities and null values.
    * @param entity, An entity that we wish to get all the squares around of.
-   * @return an Entity array containing the entities around them. The index is the direction value.
+   * @param surroundingEntities, an Entity array with room for 8 squares, which gets filled in. It can be reused.
+   * @return the same Entity array, containing the entities around them. The index is the direction value.
    */
-  private Entity[] findSurroundingSquares(Animal entity) {
-    Entity[] surroundingEntities = new Entity[directions.length];
-    int[] pos = entity.getLocation();
+  Entity[] findSurroundingSquares(Animal entity, Entity[] surroundingEntities) {
+    int pos = entity.getCell();
+    int startRow = getRow(pos);
+    int startCol = getCol(pos);
 
     for (int x = 0; x < directions.length; x++) {
-      int[] direction = {pos[0] + directions[x][0], pos[1] + directions[x][1]};
+      int row = startRow + directions[x][0];
+      int col = startCol + directions[x][1];
       
-      if (((direction[0] >= 0) && (direction[0] < city.length)) && ((direction[1] >= 0) && (direction[1] < city[0].length))) {
-        if (city[direction[0]][direction[1]] != null) {
-          surroundingEntities[x] = (city[direction[0]][direction[1]]);
-        }
+      if (((row >= 0) && (row < city.length)) && ((col >= 0) && (col < city[0].length))) {
+        surroundingEntities[x] = city[row][col];
+      } else {
+        surroundingEntities[x] = null;
       }
     }
 
     return surroundingEntities;
   }
   
-  /** findSurroundingValues(entity); 
-   * Get an entity, and get all the surrounding values in all directions around them. Anything without a value is given a 0.00.
+  /** findSurroundingValues(entity, surroundingValues); 
+   * Get an entity, and get all the surrounding values in all directions around them. Anything without a value is given a 0.
+   * Values are given in hundredths (so 1.25 is 125), which keeps the same 2 decimal points we always rounded to while
+   * letting the animals compare them exactly.
    * @param entity, an Entity that we wish to get all the values around of.
-   * @return a double array containing all the values around them. The index is the direction value.
+   * @param surroundingValues, an int array with room for 8 values, which gets filled in. It can be reused.
+   * @return the same int array, containing all the values around them in hundredths. The index is the direction value.
    */
-  private double[] findSurroundingValues(Animal entity) {
-    DecimalFormat limit = new DecimalFormat("#.##"); //- Formatting so that everything has at most 2 decimal points
-    double humanValue, zombieValue, plantValue, influences, value;
-    double[] surroundingValues = new double[directions.length];
-    int[] pos = entity.getLocation();
+  int[] findSurroundingValues(Animal entity, int[] surroundingValues) {
+    double humanValue, zombieValue, plantValue, influences;
+    int pos = entity.getCell();
+    int startRow = getRow(pos);
+    int startCol = getCol(pos);
 
     for (int x = 0; x < directions.length; x++) {
-      int[] newPos = {pos[0] + directions[x][0], pos[1] + directions[x][1]};
-      if (((newPos[0] >= 0) && (newPos[0] < city.length)) && ((newPos[1] >= 0) && (newPos[1] < city[0].length))) {
+      int row = startRow + directions[x][0];
+      int col = startCol + directions[x][1];
+      surroundingValues[x] = 0; //- Off the map squares have no value
+
+      if (((row >= 0) && (row < city.length)) && ((col >= 0) && (col < city[0].length))) {
+        int cell = valuesOfHumans.index(row, col);
+
         if (entity instanceof Human) {
-          if (valueInfluencers[newPos[0]][newPos[1]][HUMAN] > 0) { //- This is to avoid dividing by 0
+          if (valueInfluencers.get(HUMAN, cell) > 0) { //- This is to avoid dividing by 0
             //- Retrieve the values from each map
-            humanValue = valuesOfHumans[newPos[0]][newPos[1]][HUMAN];
-            zombieValue = valuesOfZombies[newPos[0]][newPos[1]][HUMAN];
-            plantValue = valuesOfPlants[newPos[0]][newPos[1]][HUMAN];
-            influences = valueInfluencers[newPos[0]][newPos[1]][HUMAN];
+            humanValue = valuesOfHumans.get(HUMAN, cell);
+            zombieValue = valuesOfZombies.get(HUMAN, cell);
+            plantValue = valuesOfPlants.get(HUMAN, cell);
+            influences = valueInfluencers.get(HUMAN, cell);
 
             if (entity.getHealth() < 30) {
-              if (valuesOfPlants[newPos[0]][newPos[1]][HUMAN] != 0) {
+              if (valuesOfPlants.get(HUMAN, cell) != 0) {
                 plantValue += 3;
               }
             } 
 
             //- Value is calculated by taking the mean of every square
-            value = Double.parseDouble(limit.format((humanValue + plantValue + zombieValue) / influences));
-            surroundingValues[x] = value;
+            surroundingValues[x] = toHundredths((humanValue + plantValue + zombieValue) / influences);
           } else {
-            surroundingValues[x] = 0.00; //- If there's no value, set it to 0.00 to ensure every square has a value
+            surroundingValues[x] = 0; //- If there's no value, set it to 0 to ensure every square has a value
           }
         } else if (entity instanceof Zombie) {        
-          if (valueInfluencers[newPos[0]][newPos[1]][ZOMBIE] > 0) { //- This is to avoid dividing by 0
+          if (valueInfluencers.get(ZOMBIE, cell) > 0) { //- This is to avoid dividing by 0
             //- Retrieve the values from each map
-            humanValue = valuesOfHumans[newPos[0]][newPos[1]][ZOMBIE];
-            zombieValue = valuesOfZombies[newPos[0]][newPos[1]][ZOMBIE];
-            plantValue = valuesOfPlants[newPos[0]][newPos[1]][ZOMBIE];
-            influences = valueInfluencers[newPos[0]][newPos[1]][ZOMBIE];
+            humanValue = valuesOfHumans.get(ZOMBIE, cell);
+            zombieValue = valuesOfZombies.get(ZOMBIE, cell);
+            plantValue = valuesOfPlants.get(ZOMBIE, cell);
+            influences = valueInfluencers.get(ZOMBIE, cell);
             
             //- Value is calculated by taking the mean of every square
-            value = Double.parseDouble(limit.format((humanValue + plantValue + zombieValue) / influences));
-            surroundingValues[x] = value;
+            surroundingValues[x] = toHundredths((humanValue + plantValue + zombieValue) / influences);
           } else {
-            surroundingValues[x] = 0.00; //- If there's no value, set it to 0.00 to ensure every square has a value
+            surroundingValues[x] = 0; //- If there's no value, set it to 0 to ensure every square has a value
           }
         }
       }
@@ -694,70 +1240,113 @@ class Town {
     return surroundingValues;
   }
   
-  /** addPlants(number, allEntities); 
-   * Takes in a number n and adds n amount of plants to the allEntities ArrayList. Amount is usually the grow speed. 
+  /** toHundredths(value); 
+   * Rounds a value to the nearest hundredth and returns it as a whole number of hundredths. This rounds exactly like
+   * DecimalFormat("#.##") did (ties go to the even hundredth), just without making any Strings.
+   * @param value, a double that we want rounded.
+   * @return an int with the value in hundredths.
+   */
+  private static int toHundredths(double value) {
+    long hundredths = (long) Math.floor(value * 100);
+
+    //- value * 100 can be rounded the wrong way, so make sure this really is the hundredth right below the value.
+    //- Math.fma only rounds once at the very end, so the sign of what it gives back is always exact.
+    while (Math.fma(value, 100, -hundredths) < 0) {
+      hundredths--;
+    }
+    while (Math.fma(value, 100, -(hundredths + 1)) >= 0) {
+      hundredths++;
+    }
+
+    //- Round up if it's past the halfway point, or exactly on it and the hundredth below is odd
+    double halfway = Math.fma(value, 200, -(2 * hundredths + 1));
+    if (halfway > 0 || (halfway == 0 && hundredths % 2 != 0)) {
+      hundredths++;
+    }
+
+    return (int) hundredths;
+  }
+
+  /** addPlants(number); 
+   * Takes in a number n and adds n amount of plants to the town. Amount is usually the grow speed. 
    * @param number, an int with the amount of plants to be added.
-   * @param allEntities, an ArrayList of Entities that contains all the entities in the town.
    */
-  private void addPlants(int number, ArrayList<Entity> allEntities) {
+  void addPlants(int number) {
+    TownEvents.PlantGrowth event = new TownEvents.PlantGrowth();
+    event.begin();
+    int planted = 0;
+
     for (int x = 0; x < number; x++) {
-      if (allEntities.size() < GRID_H * GRID_W) {   
-        int[] start = new int[2];
+      if (emptySquares.size() > 0) {   
+        int start = findEmptySquare(nextEntityId); //- Spawn a plant in an empty tile
+        int health = this.startingHP[PLANT] + generateHPVariation(nextEntityId);
         
-        do {
-          start[0] = Simulation.randInt(0, city.length);
-          start[1] = Simulation.randInt(0, city[0].length);
-          
-        } while (city[start[0]][start[1]] != null); //- Spawn a plant in an empty tile
-        
-        city[start[0]][start[1]] = new Plant(this.startingHP[PLANT] + generateHPVariation(), this.rotSpeed);
+        setSquare(start, new Plant(allThings, health, this.rotSpeed, random.at(turnCount, nextEntityId, RandomService.IDENTITY)));
         count[PLANT] += 1;
         
-        city[start[0]][start[1]].setLocation(start);
-        allEntities.add(city[start[0]][start[1]]);
+        getSquare(start).setCell(start);
+        register(getSquare(start));
+        logEvent(EventJournal.PLANT_SPAWN, getSquare(start).getId(), start, health, 0);
 
-        assignValues(city[start[0]][start[1]].getHValue(), start, HUMAN, valuesOfPlants); //- Assign the values in the proper value map
+        assignValues(getSquare(start).getHValue(), start, HUMAN, valuesOfPlants); //- Assign the values in the proper value map
+        planted++;
+      } else {
+        metrics.countPlantShortfall(); //- The map is full, so there's nowhere for it to grow
       }
     }
+
+    if (event.shouldCommit()) { //- Only if it took long enough to be worth recording
+      event.requested = number;
+      event.planted = planted;
+      event.emptySquares = emptySquares.size();
+      event.commit();
+    }
   } 
 
   /** addZombie(newPos); 
    * Adds a new zombie at the pos newPos on the map. This is used with the mouse clicks in the GUI.
-   * @param newPos, the position for the new zombie
+   * @param newPos, an int with the cell for the new zombie
    */
-  public void addZombie(int[] newPos) {
-    Entity newEntity = new Zombie(this.startingHP[ZOMBIE] + generateHPVariation(), this.decaySpeed, maxHP[ZOMBIE], "SPAWNED");
-    city[newPos[0]][newPos[1]] = newEntity;
+  public void addZombie(int newPos) {
+    int health = this.startingHP[ZOMBIE] + generateHPVariation(nextEntityId);
+    Entity newEntity = new Zombie(allThings, health, this.decaySpeed, maxHP[ZOMBIE], "SPAWNED", random.at(turnCount, nextEntityId, RandomService.IDENTITY));
+    setSquare(newPos, newEntity);
     
     count[ZOMBIE] += 1;
-    newEntity.setLocation(newPos);
-    allThings.add(city[newPos[0]][newPos[1]]);
+    newEntity.setCell(newPos);
+    register(newEntity);
+    logEvent(EventJournal.MOUSE_SPAWN, newEntity.getId(), newPos, health, 0);
 
     assignValues(newEntity.getHValue(), newPos, HUMAN, valuesOfZombies); //- Assign the values in the proper value map 
   }
 
+  /** spawnZombies(amount); 
+   * Adds zombies on random empty squares, the same as clicking on empty squares in the GUI. Stops early if the
+   * map is full.
+   * @param amount, an int with the amount of zombies to add.
+   */
+  public void spawnZombies(int amount) {
+    for (int x = 0; x < amount && emptySquares.size() > 0; x++) {
+      addZombie(findEmptySquare(nextEntityId));
+    }
+  }
+
   /** processMouseActions(mousePos); 
    * Takes in a list of mouse positions that are in the grid, and decides what to do with them.
    * If they are on an empty square, add a zombie.
    * If they are on an entity, change selectedEntity to that entity.
-   * @param mousePos, an ArrayList of int arrays, each with a mouse position on the grid.
+   * @param mousePos, a Queue of int arrays, each with a mouse position on the grid. Every position is taken out of it.
    */
-  public void processMouseActions(ArrayList<int[]> mousePos) {
-    for (int x = mousePos.size() - 1; x >= 0; x--) {
-      int[] newPos = mousePos.get(x);
+  public void processMouseActions(Queue<int[]> mousePos) {
+    int[] click;
+    while ((click = mousePos.poll()) != null) {
+      int newPos = getCell(click[0], click[1]);
         
-      if (city[newPos[0]][newPos[1]] == null) { //- Add a zombie 
+      if (getSquare(newPos) == null) { //- Add a zombie 
         addZombie(newPos);
-      } else {
-        for (int y = 0; y < allThings.size(); y++) { //- Get the entity that was selected and select it
-          int[] entityLocation = allThings.get(y).getLocation();
-          if (entityLocation[0] == newPos[0] && entityLocation[1] == newPos[1]) {
-            this.selectedEntity = allThings.get(y);
-          }
-        }
+      } else { //- Select the entity that was clicked on
+        this.selectedEntity = getSquare(newPos);
       }
-      
-      mousePos.remove(x);
     }
   }
 
@@ -784,37 +1373,99 @@ class Town {
     return true;
   }
 
-  /** generateHPVariation(); 
+  /** generateHPVariation(entityId); 
    * Generates a random variation to be added onto an entity's HP when they spawn to offer individuality.
+   * @param entityId, an int with the id of the entity being spawned.
    * @return a random int from -5 to 8.
    */
-  private int generateHPVariation() {
-    return Simulation.randInt(-5, 8);
+  private int generateHPVariation(int entityId) {
+    return random.at(turnCount, entityId, RandomService.HEALTH).randInt(-5, 8);
   }
-    
-  /// ENTITY EDITORS ///
-  /** decayEntity(entityID); 
-   * Decays the entity inside the ArrayList allThings at position entityID.
-   * @param entityID, an int with the index of the entity inside the ArrayList allThings.
+
+  /** findEmptySquare(entityId); 
+   * Picks a random empty square straight out of the list of empty squares, no matter how full the map is. The map
+   * must have at least one empty square.
+   * @param entityId, an int with the id of the entity that will be placed there.
+   * @return an int with the cell of the empty square.
    */
-  private void decayEntity(int entityID) {
-    allThings.get(entityID).decay();
+  private int findEmptySquare(int entityId) {
+    return emptySquares.pick(random.at(turnCount, entityId, RandomService.PLACEMENT));
   }
-  
-  /** destroy(entityID); 
-   * Destroys an entity at position entityID in the ArrayList by removing it from the map (if it's still there) and from allThings.
+
+  /** setSquare(pos, entity); 
+   * Puts an entity on a square of the city (or empties it, if entity is null). Every change to the city goes
+   * through here, so the list of empty squares is always up to date.
+   * @param pos, an int with the cell of the square.
+   * @param entity, the Entity to put there, or null to empty it.
+   */
+  private void setSquare(int pos, Entity entity) {
+    city[pos / GRID_W][pos % GRID_W] = entity;
+
+    if (entity == null) {
+      emptySquares.add(pos);
+    } else {
+      emptySquares.remove(pos);
+    }
+
+    if (changedCells != null) {
+      changedCells.mark(pos);
+    }
+  }
+
+  /** markGrownUps(); 
+   * Marks the square of every human who just grew up as changed, since the display draws children differently.
+   */
+  private void markGrownUps() {
+    for (int x = 0; x < allThings.size(); x++) {
+      if (allThings.getType(x) == HUMAN && allThings.getAge(x) == MIN_REPRODUCTION_AGE) {
+        changedCells.mark(allThings.getCell(x));
+      }
+    }
+  }
+
+  /** logEvent(type, a, b, c, d); 
+   * Logs a change to the town, if there's a journal (see EventJournal for what the values mean).
+   * @param type, an int with the type of event.
+   * @param a, an int with the first value of the event.
+   * @param b, an int with the second value of the event.
+   * @param c, an int with the third value of the event.
+   * @param d, an int with the fourth value of the event.
+   */
+  private void logEvent(int type, int a, int b, int c, int d) {
+    if (journal != null) {
+      journal.record(type, a, b, c, d);
+    }
+  }
+
+  /** register(entity); 
+   * Gives a newly created entity the next id in the town, and tells animals how big the town is. The entity already
+   * added itself to the registry when it was made.
+   * @param entity, the Entity that was just created.
+   */
+  private void register(Entity entity) {
+    entity.setId(nextEntityId);
+    nextEntityId++;
+
+    if (entity instanceof Animal) {
+      ((Animal) entity).setBounds(GRID_H, GRID_W);
+    }
+  }
+    
+  /// ENTITY EDITORS ///
+  /** destroy(entity); 
+   * Destroys an entity by removing it from the map (if it's still there) and from allThings.
    * It resets the values if they have not already been reset, reduces the count, and also does specific actions based on conditions.
    * If the current entity was selected, try to find an alive child (if its a Human) and change selected entity to that child. Otherwise,
    * reset selected entity.
-   * If the current entity was Human, remove it from both the parent's list of alive kids and all its kids' list of alive parents.
-   * @param entityID, an int with the index of the entity inside the ArrayList allThings.
+   * If the current entity was Human, take it out of the genealogy, which also removes it from its parents' lists of alive kids.
+   * @param entity, the Entity that is being destroyed.
    */
-  private void destroy(int entityID) {
-    int[] position = allThings.get(entityID).getLocation();
-    Entity entity = allThings.get(entityID);
+  void destroy(Entity entity) {
+    int position = entity.getCell();
+    logEvent(EventJournal.DEATH, entity.getId(), position, (entity instanceof Human) ? HUMAN : (entity instanceof Zombie) ? ZOMBIE : PLANT, 0);
 
-    if (city[position[0]][position[1]] == allThings.get(entityID)) { //- If the entity died a normal death and still exists on the map
-      city[position[0]][position[1]] = null;
+    if (getSquare(position) == entity) { //- If the entity died a normal death and still exists on the map
+      setSquare(position, null);
       if (entity instanceof Human) {
         resetValues(entity.getHValue(), position, HUMAN, valuesOfHumans);
         resetValues(entity.getZValue(), position, ZOMBIE, valuesOfHumans);
@@ -828,24 +1479,16 @@ class Town {
     if (entity instanceof Human) { 
       count[HUMAN] -= 1;
       Human person = (Human)entity;
-      //- Remove this human from all its kids' list of alive parents and its parents' list of alive kids.
-      if (person.hasAliveParents()) {
-        for (int x = person.getParents().size() - 1; x >= 0 ; x--) {
-          person.getParents().get(x).removeKid(person);
+      //- Change the selected entity to the youngest alive child if this human was selected.
+      if (this.selectedEntity == person && person.hasAliveKids()) {
+        Human child = genealogy.findNewestLivingChild(person.getLineage());
+        if (child != null) {
+          this.selectedEntity = child;
         }
       }
 
-      if (person.hasAliveKids()) {
-        for (int x = person.getKids().size() - 1; x >= 0; x--) {
-          if (this.selectedEntity == person) { //- Change the selected entity to the first alive child if this human was selected.
-            if (person.getKids().get(x).getHealth() > 0) {
-              this.selectedEntity = person.getKids().get(x);
-            }
-          }
-          
-          person.getKids().get(x).removeParent(person);
-        }        
-      }
+      //- Its kids' links to it go stale on their own, so only its parents' lists need to change
+      genealogy.remove(person);
 
       if (((Human)entity).getGender() == 'M') {
         genderCount[MALE]--;
@@ -865,7 +1508,7 @@ class Town {
       this.selectedEntity = null;
     }
 
-    allThings.remove(entityID);
+    allThings.remove(entity);
   }
   /// ENTITY EDITORS ///
 }
\ No newline at end of file
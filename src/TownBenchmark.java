@@ -0,0 +1,511 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/** Class: TownBenchmark
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: Microbenchmarks for the busiest parts of the town. Every benchmark runs against seeded fixture towns
+ *               for every combination of grid size and density, warms up first, then reports the average time and
+ *               the amount of memory allocated for every operation.
+ *
+ *               Operations are timed in batches of BATCH between one pair of clock reads, since the fast ones only
+ *               take a few hundred ns and the clock reads would be a big part of that. Benchmarks that change the
+ *               town with every operation (and have to prepare() before each one) are timed one at a time instead,
+ *               and are marked with a * along with how much the clock reads add to every operation.
+ *
+ *               Example: java TownBenchmark sizes=50,200 densities=0.1,0.4 benchmarks=runCycle,findSurroundingValues
+ */
+
+class TownBenchmark {
+  private static final long SEED = 20191121L;
+
+  private static int warmupIterations = 3;
+  private static int measureIterations = 5;
+  private static long iterationNanos = 500000000L;
+  private static final int BATCH = 1000; //- How many operations are timed together
+
+  //- How long the clock and allocation counter reads around a single operation take
+  private static double overheadNanos;
+
+  //- Results get added on here so the JIT can't throw any of the work away
+  private static long sink;
+
+  private static com.sun.management.ThreadMXBean threads;
+
+  public static void main(String[] args) throws Exception {
+    int[] sizes = {50, 200};
+    double[] densities = {0.1, 0.4};
+    String[] only = null;
+
+    for (int x = 0; x < args.length; x++) {
+      String[] pair = args[x].replaceFirst("^--", "").split("=", 2);
+      if (pair.length != 2) {
+        throw new IllegalArgumentException("Expected key=value but got: " + args[x]);
+      }
+
+      if (pair[0].equals("sizes")) {
+        sizes = Arrays.stream(pair[1].split(",")).mapToInt(Integer::parseInt).toArray();
+      } else if (pair[0].equals("densities")) {
+        densities = Arrays.stream(pair[1].split(",")).mapToDouble(Double::parseDouble).toArray();
+      } else if (pair[0].equals("benchmarks")) {
+        only = pair[1].split(",");
+      } else if (pair[0].equals("warmup")) {
+        warmupIterations = Integer.parseInt(pair[1]);
+      } else if (pair[0].equals("iterations")) {
+        measureIterations = Integer.parseInt(pair[1]);
+      } else if (pair[0].equals("iterationMillis")) {
+        iterationNanos = Long.parseLong(pair[1]) * 1000000L;
+      } else {
+        throw new IllegalArgumentException("Unknown option: " + pair[0]);
+      }
+    }
+
+    Simulation.nameGenerator = new NameGenerator();
+    Simulation.maxHumanHP = 60;
+    Simulation.maxPlantHP = 20;
+    Simulation.maxZombieHP = 12;
+
+    if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+      threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+      threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    overheadNanos = measureOverhead();
+
+    Benchmark[] benchmarks = {
+      new RunCycle(Town.SEQUENTIAL_FIELDS, Town.SEQUENTIAL_TURNS, false), new RunCycle(Town.FROZEN_FIELDS, Town.SEQUENTIAL_TURNS, false),
+      new RunCycle(Town.FROZEN_FIELDS, Town.PARALLEL_TURNS, false), new RunCycle(Town.SEQUENTIAL_FIELDS, Town.SEQUENTIAL_TURNS, true),
+      new StampValues("human.hValue", Human.class, false), new StampValues("human.zValue", Human.class, true),
+      new StampValues("zombie.hValue", Zombie.class, false), new StampValues("plant.hValue", Plant.class, false),
+      new SurroundingValues(), new DecideMovement(Human.class), new DecideMovement(Zombie.class),
+      new AddPlants(), new DestroyFamily()
+    };
+
+    System.out.printf("%-40s %6s %8s %14s %12s %12s%n", "Benchmark", "Size", "Density", "ns/op", "B/op", "MB/s");
+
+    boolean timedAlone = false;
+    for (int b = 0; b < benchmarks.length; b++) {
+      if (only != null && !(Arrays.asList(only).contains(benchmarks[b].group))) {
+        continue;
+      }
+      timedAlone |= benchmarks[b].perOperation;
+
+      for (int s = 0; s < sizes.length; s++) {
+        for (int d = 0; d < densities.length; d++) {
+          run(benchmarks[b], sizes[s], densities[d]);
+        }
+      }
+    }
+
+    if (timedAlone) {
+      System.out.printf("* Prepared and timed one operation at a time, so every operation also includes about %.0f ns of clock and allocation counter reads%n", overheadNanos);
+    }
+
+    if (sink == 42) { //- Never true in practice, but the JIT doesn't know that
+      System.out.println();
+    }
+  }
+
+  /** run(benchmark, size, density);
+   * Warms up and then measures one benchmark for one set of parameters, and prints the results.
+   * @param benchmark, the Benchmark to run.
+   * @param size, an int with the height and width of the fixture town.
+   * @param density, a double with how full the fixture town starts.
+   */
+  private static void run(Benchmark benchmark, int size, double density) {
+    double[] nanosPerOp = new double[measureIterations];
+    double[] bytesPerOp = new double[measureIterations];
+
+    for (int x = 0; x < warmupIterations + measureIterations; x++) {
+      benchmark.setup(size, density);
+
+      long elapsed = 0, allocated = 0, ops = 0;
+      while (elapsed < iterationNanos && ops < benchmark.maxOps) {
+        long batch = benchmark.perOperation ? 1 : Math.min(BATCH, benchmark.maxOps - ops);
+        if (benchmark.perOperation) {
+          benchmark.prepare();
+        }
+
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (long y = 0; y < batch; y++) {
+          sink += benchmark.operation();
+        }
+        elapsed += System.nanoTime() - start;
+        allocated += allocatedBytes() - bytesBefore;
+        ops += batch;
+      }
+
+      if (x >= warmupIterations) {
+        nanosPerOp[x - warmupIterations] = (double) elapsed / ops;
+        bytesPerOp[x - warmupIterations] = (double) allocated / ops;
+      }
+    }
+
+    double meanNanos = mean(nanosPerOp);
+    double meanBytes = mean(bytesPerOp);
+    double error = 0;
+    for (int x = 0; x < nanosPerOp.length; x++) {
+      error += (nanosPerOp[x] - meanNanos) * (nanosPerOp[x] - meanNanos);
+    }
+    error = Math.sqrt(error / Math.max(1, nanosPerOp.length - 1));
+
+    String allocation = "n/a", rate = "n/a";
+    if (threads != null) {
+      allocation = String.format("%.1f", meanBytes);
+      rate = String.format("%.1f", (meanBytes / meanNanos) * 1e9 / (1024 * 1024));
+    }
+
+    System.out.printf("%-40s %6d %8.2f %14s %12s %12s%n", benchmark.name + (benchmark.perOperation ? " *" : ""), size, density,
+                      String.format("%.1f +- %.1f", meanNanos, error), allocation, rate);
+  }
+
+  /** measureOverhead();
+   * Measures how long the clock and allocation counter reads around a single operation take, by timing them with
+   * no operation in between.
+   * @return a double with the average amount of ns.
+   */
+  private static double measureOverhead() {
+    int reads = 1000000;
+    long total = 0;
+
+    for (int x = 0; x < 2; x++) { //- The first round is just to warm up
+      total = 0;
+      long start = System.nanoTime();
+      for (int y = 0; y < reads; y++) {
+        total += allocatedBytes();
+        total += System.nanoTime();
+        total -= System.nanoTime();
+        total -= allocatedBytes();
+      }
+      sink += total;
+      total = System.nanoTime() - start;
+    }
+
+    return (double) total / reads;
+  }
+
+  /** allocatedBytes();
+   * Gets how many bytes this thread has allocated so far.
+   * @return a long with the amount of bytes, or 0 if the JVM can't tell us.
+   */
+  private static long allocatedBytes() {
+    if (threads == null) {
+      return 0;
+    }
+    return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /** mean(values);
+   * Gets the average of all the values.
+   * @param values, a double array with the values.
+   * @return a double with the average.
+   */
+  private static double mean(double[] values) {
+    double total = 0;
+    for (int x = 0; x < values.length; x++) {
+      total += values[x];
+    }
+    return total / values.length;
+  }
+
+  /** buildTown(size, density);
+   * Builds a seeded fixture town. Most of the entities are plants, a third are humans, and a few zombies are
+   * dropped in so there's something to run from.
+   * @param size, an int with the height and width of the town.
+   * @param density, a double with how full the town starts.
+   * @return the new Town.
+   */
+  private static Town buildTown(int size, double density) {
+    int cells = size * size;
+    int humans = Math.max(2, (int)(cells * density * 0.3));
+    int plants = Math.max(1, (int)(cells * density * 0.7));
+    int zombies = Math.max(1, (int)(cells * density * 0.02));
+
+    Town town = new Town(humans, plants, 0, 1, 1, 1, 30, 10, 6, size, size, SEED + size * 31 + (long)(density * 1000));
+    town.spawnZombies(zombies);
+
+    return town;
+  }
+
+  /** findAll(town, type);
+   * Finds every entity of the given type in the town.
+   * @param town, the Town to search.
+   * @param type, the Class of entity we want.
+   * @return an ArrayList of Entities with every match.
+   */
+  private static ArrayList<Entity> findAll(Town town, Class<?> type) {
+    ArrayList<Entity> found = new ArrayList<Entity>();
+    EntityRegistry allThings = town.getAllThings();
+
+    for (int x = 0; x < allThings.size(); x++) {
+      if (type.isInstance(allThings.get(x))) { //- Holes are null, so they're never an instance
+        found.add(allThings.get(x));
+      }
+    }
+
+    return found;
+  }
+
+  //Inner Class
+  private abstract static class Benchmark {
+    protected final String group, name;
+    protected long maxOps = Long.MAX_VALUE;
+    protected boolean perOperation = false; //- Whether prepare() has to run before every operation
+
+    /** Benchmark(group, name);
+     * Creates a benchmark.
+     * @param group, a String with the name used to pick this benchmark from the command line.
+     * @param name, a String with the full name that gets printed.
+     */
+    Benchmark(String group, String name) {
+      this.group = group;
+      this.name = name;
+    }
+
+    /** setup(size, density);
+     * Builds the fixture for one iteration. Not timed.
+     */
+    abstract void setup(int size, double density);
+
+    /** prepare();
+     * Gets ready for the next operation. Not timed, and only called if perOperation is set.
+     */
+    void prepare() {
+    }
+
+    /** operation();
+     * The work being measured.
+     * @return a long that gets added to the sink.
+     */
+    abstract long operation();
+  }
+
+  //Inner Class
+  private static class RunCycle extends Benchmark {
+    private final int fieldMode, turnMode;
+    private final boolean journaled; //- Logs every event to a journal, to measure what the journal costs
+    private Town town;
+    private int size;
+    private double density;
+
+    RunCycle(int fieldMode, int turnMode, boolean journaled) {
+      super(journaled ? "journal" : "runCycle",
+            "runCycle[" + ((turnMode == Town.PARALLEL_TURNS) ? "parallel"
+                           : (fieldMode == Town.FROZEN_FIELDS) ? "frozen" : "sequential") + (journaled ? "+journal" : "") + "]");
+      this.fieldMode = fieldMode;
+      this.turnMode = turnMode;
+      this.journaled = journaled;
+      this.perOperation = true; //- A turn takes long enough that the clock reads don't matter
+    }
+
+    void setup(int size, double density) {
+      this.size = size;
+      this.density = density;
+
+      try {
+        if (town != null && town.getJournal() != null) {
+          town.getJournal().close();
+        }
+
+        this.town = buildTown(size, density);
+        this.town.setFieldUpdateMode(fieldMode);
+        this.town.setTurnMode(turnMode);
+
+        if (journaled) {
+          File file = File.createTempFile("journal", ".bin");
+          file.deleteOnExit();
+          this.town.setJournal(new EventJournal(file.toPath(), town, 1 << 16));
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    void prepare() {
+      if (!(town.checkForHumans())) { //- Start over once everyone is gone, so we keep measuring a living town
+        setup(size, density);
+      }
+    }
+
+    long operation() {
+      town.runCycle();
+      return town.getTurnsSurvived();
+    }
+  }
+
+  //Inner Class
+  private static class StampValues extends Benchmark {
+    private final Class<?> type;
+    private final boolean zValue;
+    private Town town;
+    private Entity entity;
+    private InfluenceField valueMap;
+    private int[] locations;
+    private int next;
+
+    StampValues(String valueName, Class<?> type, boolean zValue) {
+      super("stampValues", "assignValues+resetValues[" + valueName + "]");
+      this.type = type;
+      this.zValue = zValue;
+    }
+
+    void setup(int size, double density) {
+      town = buildTown(size, density);
+      entity = findAll(town, type).get(0);
+      valueMap = town.getValueMap(entity);
+
+      RandomService random = new RandomService(SEED + size).at(0, RandomService.NO_ENTITY, RandomService.PLACEMENT);
+      locations = new int[1024];
+      for (int x = 0; x < locations.length; x++) {
+        locations[x] = town.getCell(random.randInt(0, size), random.randInt(0, size));
+      }
+    }
+
+    long operation() {
+      int location = locations[next++ & (locations.length - 1)];
+
+      //- Stamp and then remove it again, so the value maps stay the same between operations
+      if (zValue) {
+        town.assignValues(entity.getZValue(), location, Town.ZOMBIE, valueMap);
+        town.resetValues(entity.getZValue(), location, Town.ZOMBIE, valueMap);
+      } else {
+        town.assignValues(entity.getHValue(), location, Town.HUMAN, valueMap);
+        town.resetValues(entity.getHValue(), location, Town.HUMAN, valueMap);
+      }
+      return location;
+    }
+  }
+
+  //Inner Class
+  private static class SurroundingValues extends Benchmark {
+    private Town town;
+    private ArrayList<Entity> animals;
+    private int[] values = new int[Town.directions.length];
+    private int next;
+
+    SurroundingValues() {
+      super("findSurroundingValues", "findSurroundingValues");
+    }
+
+    void setup(int size, double density) {
+      town = buildTown(size, density);
+      animals = findAll(town, Animal.class);
+    }
+
+    long operation() {
+      Animal animal = (Animal) animals.get(next++ % animals.size());
+      return town.findSurroundingValues(animal, values)[0];
+    }
+  }
+
+  //Inner Class
+  private static class DecideMovement extends Benchmark {
+    private final Class<?> type;
+    private Animal[] animals;
+    private Entity[][] squares;
+    private int[][] values;
+    private RandomService random = new RandomService(SEED);
+    private int next;
+
+    DecideMovement(Class<?> type) {
+      super("decideMovement", type.getName() + ".decideMovement");
+      this.type = type;
+    }
+
+    void setup(int size, double density) {
+      Town town = buildTown(size, density);
+      ArrayList<Entity> found = findAll(town, type);
+
+      animals = new Animal[found.size()];
+      squares = new Entity[found.size()][];
+      values = new int[found.size()][];
+      for (int x = 0; x < found.size(); x++) {
+        animals[x] = (Animal) found.get(x);
+        squares[x] = town.findSurroundingSquares(animals[x], new Entity[Town.directions.length]);
+        values[x] = town.findSurroundingValues(animals[x], new int[Town.directions.length]);
+      }
+    }
+
+    long operation() {
+      int x = next++ % animals.length;
+      random.at(next, animals[x].getId(), RandomService.MOVEMENT);
+      return animals[x].decideMovement(squares[x], values[x], random);
+    }
+  }
+
+  //Inner Class
+  private static class AddPlants extends Benchmark {
+    private Town town;
+
+    AddPlants() {
+      super("addPlants", "addPlants[saturated]");
+      this.maxOps = 200;
+      this.perOperation = true; //- Every operation fills in more of the town, so there can only be a few
+    }
+
+    void setup(int size, double density) {
+      //- Ignores the density, the whole point is to measure a town that's almost full
+      int cells = size * size;
+      int humans = cells / 10;
+      int plants = cells - humans - (int) maxOps - Math.max(10, cells / 1000);
+
+      town = new Town(humans, plants, 0, 1, 1, 1, 30, 10, 6, size, size, SEED + size);
+    }
+
+    long operation() {
+      town.addPlants(1);
+      return town.getCounts()[Town.PLANT];
+    }
+  }
+
+  //Inner Class
+  private static class DestroyFamily extends Benchmark {
+    private static final int KIDS = 500;
+    private Town town;
+    private ArrayList<Entity> parents;
+    private int next;
+    private Entity parent;
+
+    DestroyFamily() {
+      super("destroy", "destroy[" + KIDS + " kids]");
+      this.perOperation = true;
+    }
+
+    void setup(int size, double density) {
+      town = buildTown(size, density);
+
+      //- Pair up adults and give every couple a big family
+      ArrayList<Entity> humans = findAll(town, Human.class);
+      RandomService random = new RandomService(SEED + size);
+      parents = new ArrayList<Entity>();
+      for (int x = 0; x + 1 < humans.size() && parents.size() < 64; x += 2) {
+        Human first = (Human) humans.get(x);
+        Human second = (Human) humans.get(x + 1);
+        for (int y = 0; y < KIDS; y++) {
+          Human child = first.reproduce(second, random.at(0, y, RandomService.IDENTITY));
+          town.getGenealogy().addChild(child, first, second);
+        }
+        parents.add(first);
+        parents.add(second);
+      }
+
+      next = 0;
+      maxOps = parents.size();
+    }
+
+    void prepare() {
+      parent = parents.get(next++);
+    }
+
+    long operation() {
+      town.destroy(parent);
+      return parent.getId();
+    }
+  }
+}
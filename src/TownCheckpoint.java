@@ -0,0 +1,302 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/** Class: TownCheckpoint
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: Saves a whole town to a binary file between turns and loads it back, so a long run can be stopped
+ *               and carried on later exactly where it left off. The file holds the town's settings and counters,
+ *               the random number state, the climate, the empty squares (in the order they get picked from), every
+ *               entity in registry order and the genealogy. The value maps aren't saved, since they're just rebuilt
+ *               from the entities when the town is loaded.
+ *
+ *               Everything goes through one big direct buffer on a FileChannel, and arrays are copied in as whole
+ *               blocks, so even a really big town only takes a moment. The file is written next to the old one and
+ *               moved over it at the end, so a crash halfway through never leaves a broken checkpoint behind.
+ */
+
+class TownCheckpoint {
+  private static final int MAGIC = 0x43484B50; //- "CHKP"
+  private static final int VERSION = 1;
+  private static final int BUFFER_SIZE = 1 << 20;
+
+  /** save(town, file);
+   * Saves a town to a file, replacing the file if it's already there. Only call this between turns.
+   * @param town, the Town to save.
+   * @param file, a Path with where to save it.
+   * @throws IOException, in case the file cannot be written.
+   */
+  public static void save(Town town, Path file) throws IOException {
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+    FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                           StandardOpenOption.TRUNCATE_EXISTING);
+    try {
+      Output out = new Output(channel);
+      out.putInt(MAGIC);
+      out.putInt(VERSION);
+      town.writeTo(out);
+      out.putInt(MAGIC); //- Marks the end, so a cut off file is caught on load
+      out.flush();
+      channel.force(false);
+    } finally {
+      channel.close();
+    }
+
+    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /** load(file);
+   * Loads a town that was saved with save().
+   * @param file, a Path with the saved town.
+   * @return the Town, ready to carry on from the turn it was saved at.
+   * @throws IOException, in case the file cannot be read or isn't a checkpoint.
+   */
+  public static Town load(Path file) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      Input in = new Input(channel);
+      if (in.getInt() != MAGIC) {
+        throw new IOException(file + " is not a town checkpoint.");
+      }
+      int version = in.getInt();
+      if (version != VERSION) {
+        throw new IOException(file + " is checkpoint version " + version + ", but only version " + VERSION + " can be loaded.");
+      }
+
+      Town town = new Town(in);
+
+      if (in.getInt() != MAGIC) {
+        throw new IOException(file + " is damaged (the end of the checkpoint is missing).");
+      }
+      return town;
+    } finally {
+      channel.close();
+    }
+  }
+
+  //Inner Class
+  //- Writes values into a buffer, and writes the buffer to the file whenever it fills up
+  static class Output {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /** Output(channel);
+     * Creates an output that writes to the given channel.
+     * @param channel, a FileChannel open for writing.
+     */
+    Output(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    /** putInt(value);
+     * Writes an int.
+     * @param value, the int to write.
+     */
+    public void putInt(int value) throws IOException {
+      require(4);
+      buffer.putInt(value);
+    }
+
+    /** putLong(value);
+     * Writes a long.
+     * @param value, the long to write.
+     */
+    public void putLong(long value) throws IOException {
+      require(8);
+      buffer.putLong(value);
+    }
+
+    /** putChar(value);
+     * Writes a char.
+     * @param value, the char to write.
+     */
+    public void putChar(char value) throws IOException {
+      require(2);
+      buffer.putChar(value);
+    }
+
+    /** putByte(value);
+     * Writes a byte.
+     * @param value, the byte to write.
+     */
+    public void putByte(byte value) throws IOException {
+      require(1);
+      buffer.put(value);
+    }
+
+    /** putBoolean(value);
+     * Writes a boolean as one byte.
+     * @param value, the boolean to write.
+     */
+    public void putBoolean(boolean value) throws IOException {
+      putByte((byte) (value ? 1 : 0));
+    }
+
+    /** putString(value);
+     * Writes a String as its length followed by its UTF-8 bytes.
+     * @param value, the String to write.
+     */
+    public void putString(String value) throws IOException {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      putInt(bytes.length);
+      require(bytes.length);
+      buffer.put(bytes);
+    }
+
+    /** putInts(values, length);
+     * Writes the start of an int array, copying as much of it into the buffer at once as will fit.
+     * @param values, the int array to write.
+     * @param length, an int with how many values to write.
+     */
+    public void putInts(int[] values, int length) throws IOException {
+      int done = 0;
+      while (done < length) {
+        require(4);
+        int amount = Math.min(length - done, buffer.remaining() / 4);
+        buffer.asIntBuffer().put(values, done, amount);
+        buffer.position(buffer.position() + amount * 4);
+        done += amount;
+      }
+    }
+
+    /** flush();
+     * Writes everything left in the buffer to the file.
+     */
+    public void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+
+    /** require(bytes);
+     * Makes sure there's room in the buffer for the given amount of bytes, writing it out if there isn't.
+     * @param bytes, an int with the amount of bytes needed.
+     */
+    private void require(int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        flush();
+        if (buffer.remaining() < bytes) {
+          throw new IOException("A value of " + bytes + " bytes doesn't fit in the checkpoint buffer.");
+        }
+      }
+    }
+  }
+
+  //Inner Class
+  //- Reads values out of a buffer, and refills the buffer from the file whenever it runs out
+  static class Input {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /** Input(channel);
+     * Creates an input that reads from the given channel.
+     * @param channel, a FileChannel open for reading.
+     */
+    Input(FileChannel channel) {
+      this.channel = channel;
+      buffer.flip(); //- Start out empty
+    }
+
+    /** getInt();
+     * Reads an int.
+     * @return the int.
+     */
+    public int getInt() throws IOException {
+      require(4);
+      return buffer.getInt();
+    }
+
+    /** getLong();
+     * Reads a long.
+     * @return the long.
+     */
+    public long getLong() throws IOException {
+      require(8);
+      return buffer.getLong();
+    }
+
+    /** getChar();
+     * Reads a char.
+     * @return the char.
+     */
+    public char getChar() throws IOException {
+      require(2);
+      return buffer.getChar();
+    }
+
+    /** getByte();
+     * Reads a byte.
+     * @return the byte.
+     */
+    public byte getByte() throws IOException {
+      require(1);
+      return buffer.get();
+    }
+
+    /** getBoolean();
+     * Reads a boolean that was written as one byte.
+     * @return the boolean.
+     */
+    public boolean getBoolean() throws IOException {
+      return getByte() != 0;
+    }
+
+    /** getString();
+     * Reads a String that was written with putString().
+     * @return the String.
+     */
+    public String getString() throws IOException {
+      int length = getInt();
+      if (length < 0 || length > BUFFER_SIZE) {
+        throw new IOException("The checkpoint has a String that is " + length + " bytes long.");
+      }
+      byte[] bytes = new byte[length];
+      require(length);
+      buffer.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** getInts(values, length);
+     * Reads the start of an int array that was written with putInts().
+     * @param values, the int array to read into.
+     * @param length, an int with how many values to read.
+     */
+    public void getInts(int[] values, int length) throws IOException {
+      int done = 0;
+      while (done < length) {
+        require(4);
+        int amount = Math.min(length - done, buffer.remaining() / 4);
+        buffer.asIntBuffer().get(values, done, amount);
+        buffer.position(buffer.position() + amount * 4);
+        done += amount;
+      }
+    }
+
+    /** require(bytes);
+     * Makes sure the buffer holds at least the given amount of bytes, reading more of the file if it doesn't.
+     * @param bytes, an int with the amount of bytes needed.
+     */
+    private void require(int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        buffer.compact();
+        while (buffer.position() < bytes) {
+          if (channel.read(buffer) < 0) {
+            throw new EOFException("The checkpoint ends too early.");
+          }
+        }
+        buffer.flip();
+      }
+    }
+  }
+}
@@ -0,0 +1,130 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/** Class: TownEvents
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: Java Flight Recorder events for the town, so a recording can be opened in JDK Mission Control and
+ *               a slow turn can be lined up with GC, allocation and what was happening in the town at the time.
+ *
+ *               Every event is off by default, and the town only fills one in if shouldCommit() says it's wanted,
+ *               so they cost close to nothing when they're off. Turn them on with the cheerville.jfc settings file,
+ *               eg. java -XX:StartFlightRecording:settings=cheerville.jfc,filename=run.jfr HeadlessSimulation ...
+ */
+
+class TownEvents {
+  //Inner Class
+  @Name("cheerville.Turn")
+  @Label("Turn")
+  @Category("Cheerville")
+  @Description("One whole turn of the town, with the population at the end of it")
+  @Enabled(false)
+  @StackTrace(false)
+  static class Turn extends Event {
+    @Label("Turn")
+    int turn;
+
+    @Label("Humans")
+    int humans;
+
+    @Label("Zombies")
+    int zombies;
+
+    @Label("Plants")
+    int plants;
+  }
+
+  //Inner Class
+  @Name("cheerville.InfluenceUpdate")
+  @Label("Influence Update")
+  @Category("Cheerville")
+  @Description("A value being added to or removed from one of the value maps (assignValues or resetValues)")
+  @Enabled(false)
+  @StackTrace(false)
+  static class InfluenceUpdate extends Event {
+    @Label("Value")
+    double value;
+
+    @Label("Removed")
+    @Description("True for resetValues, false for assignValues")
+    boolean removed;
+
+    @Label("Row")
+    int row;
+
+    @Label("Column")
+    int col;
+
+    @Label("Cells Touched")
+    @Description("Squares changed right away, or 0 if the change was batched until the end of the turn")
+    int cellsTouched;
+  }
+
+  //Inner Class
+  @Name("cheerville.Birth")
+  @Label("Birth")
+  @Category("Cheerville")
+  @Description("A baby being born from Human.reproduce")
+  @Enabled(false)
+  @StackTrace(false)
+  static class Birth extends Event {
+    @Label("Child Id")
+    int child;
+
+    @Label("First Parent Id")
+    int firstParent;
+
+    @Label("Second Parent Id")
+    int secondParent;
+
+    @Label("Cell")
+    int cell;
+  }
+
+  //Inner Class
+  @Name("cheerville.Infection")
+  @Label("Infection")
+  @Category("Cheerville")
+  @Description("A human being turned into a zombie by Zombie.infect")
+  @Enabled(false)
+  @StackTrace(false)
+  static class Infection extends Event {
+    @Label("Zombie Id")
+    int zombie;
+
+    @Label("Human Id")
+    int human;
+
+    @Label("New Zombie Id")
+    int newZombie;
+
+    @Label("Cell")
+    int cell;
+  }
+
+  //Inner Class
+  @Name("cheerville.PlantGrowth")
+  @Label("Plant Growth")
+  @Category("Cheerville")
+  @Description("A call to addPlants that took longer than the threshold")
+  @Enabled(false)
+  @StackTrace(false)
+  @Threshold("1 ms")
+  static class PlantGrowth extends Event {
+    @Label("Requested")
+    int requested;
+
+    @Label("Planted")
+    int planted;
+
+    @Label("Empty Squares Left")
+    int emptySquares;
+  }
+}
@@ -0,0 +1,342 @@
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/** Class: TownMetrics
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: Times every phase of a town's turn and counts what happened in it, and shows all of it over JMX
+ *               (see TownMetricsMBean and register). It's cheap enough to always be on: a turn only reads the clock
+ *               once per phase, the counters are plain fields, and everything is handed over to the JMX side once
+ *               at the end of the turn. The last WINDOW_TURNS turns are kept for the percentiles.
+ *
+ *               With sequential turns, every entity decays right before it acts, so decay is counted as part of
+ *               ACTIONS and DECAY stays at 0. With parallel turns, DECAY is the sweep before the planning.
+ */
+
+class TownMetrics implements TownMetricsMBean {
+  //- Every phase of a turn, in the order they happen
+  static final int DECAY = 0;
+  static final int ACTIONS = 1;
+  static final int DESTROY_SWEEP = 2;
+  static final int AGING = 3;
+  static final int PLANT_GROWTH = 4;
+  static final int FIELDS = 5;
+
+  private static final String[] PHASE_NAMES = {"decay", "actions", "destroySweep", "aging", "plantGrowth", "fields"};
+  private static final int WINDOW_TURNS = 1024;
+
+  //- Only touched by the thread running the turn
+  private long turnStart, phaseStart;
+  private final long[] phaseNanos = new long[PHASE_NAMES.length];
+  private long cellsTouched, births, infections, zombieMeals, plantShortfall;
+
+  //- Everything JMX can see, only touched while holding the lock on this. Every window is a ring of the last turns.
+  private final long[][] phaseWindows = new long[PHASE_NAMES.length][WINDOW_TURNS];
+  private final long[] turnWindow = new long[WINDOW_TURNS];
+  private long turns;
+  private long totalCellsTouched, totalBirths, totalInfections, totalZombieMeals, totalPlantShortfall;
+
+  /** register(name);
+   * Shows these metrics over JMX, as Cheerville:type=Town,name=[name].
+   * @param name, a String with the name to show the town under.
+   * @throws JMException, in case the metrics cannot be registered (eg. the name is already taken).
+   */
+  public void register(String name) throws JMException {
+    ManagementFactory.getPlatformMBeanServer().registerMBean(new StandardMBean(this, TownMetricsMBean.class),
+                                                             new ObjectName("Cheerville:type=Town,name=" + ObjectName.quote(name)));
+  }
+
+  /// RECORDING ///
+  /** startTurn();
+   * Starts the clock for a new turn.
+   */
+  public void startTurn() {
+    turnStart = System.nanoTime();
+    phaseStart = turnStart;
+  }
+
+  /** endPhase(phase);
+   * Adds the time since the last phase ended (or the turn started) to a phase.
+   * @param phase, an int with the phase that just finished (DECAY, ACTIONS, etc).
+   */
+  public void endPhase(int phase) {
+    long now = System.nanoTime();
+    phaseNanos[phase] += now - phaseStart;
+    phaseStart = now;
+  }
+
+  /** addCellsTouched(amount);
+   * Counts squares of the value maps that were changed.
+   * @param amount, an int with the amount of squares.
+   */
+  public void addCellsTouched(int amount) {
+    cellsTouched += amount;
+  }
+
+  /** countBirth();
+   * Counts a baby being born.
+   */
+  public void countBirth() {
+    births++;
+  }
+
+  /** countInfection();
+   * Counts a human being turned into a zombie.
+   */
+  public void countInfection() {
+    infections++;
+  }
+
+  /** countZombieMeal();
+   * Counts a human being eaten by a zombie.
+   */
+  public void countZombieMeal() {
+    zombieMeals++;
+  }
+
+  /** countPlantShortfall();
+   * Counts a plant that should have grown but couldn't, since there were no empty squares left.
+   */
+  public void countPlantShortfall() {
+    plantShortfall++;
+  }
+
+  /** endTurn();
+   * Hands everything from this turn over to the JMX side, and gets ready for the next turn.
+   */
+  public void endTurn() {
+    long turnNanos = System.nanoTime() - turnStart;
+
+    synchronized (this) {
+      int at = (int) (turns % WINDOW_TURNS);
+      for (int x = 0; x < phaseNanos.length; x++) {
+        phaseWindows[x][at] = phaseNanos[x];
+      }
+      turnWindow[at] = turnNanos;
+      turns++;
+
+      totalCellsTouched += cellsTouched;
+      totalBirths += births;
+      totalInfections += infections;
+      totalZombieMeals += zombieMeals;
+      totalPlantShortfall += plantShortfall;
+    }
+
+    Arrays.fill(phaseNanos, 0);
+    cellsTouched = 0;
+    births = 0;
+    infections = 0;
+    zombieMeals = 0;
+    plantShortfall = 0;
+  }
+  /// RECORDING ///
+
+  /// JMX ///
+  /** getTurns();
+   * Gets the amount of turns timed since the start (or the last reset).
+   * @return a long with the amount of turns.
+   */
+  public synchronized long getTurns() {
+    return turns;
+  }
+
+  /** getWindowTurns();
+   * Gets how many of the last turns the percentiles are worked out over.
+   * @return an int with the amount of turns.
+   */
+  public int getWindowTurns() {
+    return WINDOW_TURNS;
+  }
+
+  /** getPhaseNames();
+   * Gets the name of every phase, in the same order as every phase array.
+   * @return a String array with the names.
+   */
+  public String[] getPhaseNames() {
+    return PHASE_NAMES.clone();
+  }
+
+  /** getPhaseMeanMillis();
+   * Gets the average time of every phase over the window.
+   * @return a double array with the averages, in milliseconds.
+   */
+  public synchronized double[] getPhaseMeanMillis() {
+    double[] means = new double[PHASE_NAMES.length];
+    int filled = filledTurns();
+
+    for (int x = 0; x < means.length; x++) {
+      long total = 0;
+      for (int y = 0; y < filled; y++) {
+        total += phaseWindows[x][y];
+      }
+      means[x] = (filled == 0) ? 0 : total / 1e6 / filled;
+    }
+    return means;
+  }
+
+  /** getPhaseP50Millis();
+   * Gets the median time of every phase over the window.
+   * @return a double array with the medians, in milliseconds.
+   */
+  public double[] getPhaseP50Millis() {
+    return phasePercentiles(0.50);
+  }
+
+  /** getPhaseP95Millis();
+   * Gets the 95th percentile time of every phase over the window.
+   * @return a double array with the percentiles, in milliseconds.
+   */
+  public double[] getPhaseP95Millis() {
+    return phasePercentiles(0.95);
+  }
+
+  /** getPhaseP99Millis();
+   * Gets the 99th percentile time of every phase over the window.
+   * @return a double array with the percentiles, in milliseconds.
+   */
+  public double[] getPhaseP99Millis() {
+    return phasePercentiles(0.99);
+  }
+
+  /** getPhaseMaxMillis();
+   * Gets the longest time of every phase over the window.
+   * @return a double array with the longest times, in milliseconds.
+   */
+  public double[] getPhaseMaxMillis() {
+    return phasePercentiles(1.0);
+  }
+
+  /** getTurnP50Millis();
+   * Gets the median time of a whole turn over the window.
+   * @return a double with the median, in milliseconds.
+   */
+  public synchronized double getTurnP50Millis() {
+    return percentile(turnWindow, 0.50);
+  }
+
+  /** getTurnP95Millis();
+   * Gets the 95th percentile time of a whole turn over the window.
+   * @return a double with the percentile, in milliseconds.
+   */
+  public synchronized double getTurnP95Millis() {
+    return percentile(turnWindow, 0.95);
+  }
+
+  /** getTurnP99Millis();
+   * Gets the 99th percentile time of a whole turn over the window.
+   * @return a double with the percentile, in milliseconds.
+   */
+  public synchronized double getTurnP99Millis() {
+    return percentile(turnWindow, 0.99);
+  }
+
+  /** getTurnMaxMillis();
+   * Gets the longest turn in the window.
+   * @return a double with its time, in milliseconds.
+   */
+  public synchronized double getTurnMaxMillis() {
+    return percentile(turnWindow, 1.0);
+  }
+
+  /** getInfluenceCellsTouched();
+   * Gets how many squares of the value maps have been changed by entities being added, moved or removed.
+   * @return a long with the amount of squares.
+   */
+  public synchronized long getInfluenceCellsTouched() {
+    return totalCellsTouched;
+  }
+
+  /** getBirths();
+   * Gets how many babies have been born.
+   * @return a long with the amount of births.
+   */
+  public synchronized long getBirths() {
+    return totalBirths;
+  }
+
+  /** getInfections();
+   * Gets how many humans have been turned into zombies.
+   * @return a long with the amount of infections.
+   */
+  public synchronized long getInfections() {
+    return totalInfections;
+  }
+
+  /** getZombieMeals();
+   * Gets how many humans have been eaten by zombies.
+   * @return a long with the amount of meals.
+   */
+  public synchronized long getZombieMeals() {
+    return totalZombieMeals;
+  }
+
+  /** getPlantSpawnShortfall();
+   * Gets how many plants couldn't grow because there were no empty squares left.
+   * @return a long with the amount of plants.
+   */
+  public synchronized long getPlantSpawnShortfall() {
+    return totalPlantShortfall;
+  }
+
+  /** reset();
+   * Throws away every turn and count so far (the turn that's running still gets counted when it ends).
+   */
+  public synchronized void reset() {
+    for (int x = 0; x < phaseWindows.length; x++) {
+      Arrays.fill(phaseWindows[x], 0);
+    }
+    Arrays.fill(turnWindow, 0);
+    turns = 0;
+
+    totalCellsTouched = 0;
+    totalBirths = 0;
+    totalInfections = 0;
+    totalZombieMeals = 0;
+    totalPlantShortfall = 0;
+  }
+  /// JMX ///
+
+  /** phasePercentiles(fraction);
+   * Works out a percentile of every phase over the window.
+   * @param fraction, a double from 0 to 1 with the percentile (eg. 0.99 for the 99th).
+   * @return a double array with the percentile of every phase, in milliseconds.
+   */
+  private synchronized double[] phasePercentiles(double fraction) {
+    double[] values = new double[PHASE_NAMES.length];
+    for (int x = 0; x < values.length; x++) {
+      values[x] = percentile(phaseWindows[x], fraction);
+    }
+    return values;
+  }
+
+  /** percentile(window, fraction);
+   * Works out a percentile of the turns in a window (nearest rank). Only call this while holding the lock.
+   * @param window, a long array with the nanoseconds of every turn in the window.
+   * @param fraction, a double from 0 to 1 with the percentile.
+   * @return a double with the percentile in milliseconds, or 0 if there haven't been any turns.
+   */
+  private double percentile(long[] window, double fraction) {
+    int filled = filledTurns();
+    if (filled == 0) {
+      return 0;
+    }
+
+    long[] sorted = Arrays.copyOf(window, filled);
+    Arrays.sort(sorted);
+
+    int rank = (int) Math.ceil(fraction * filled) - 1;
+    return sorted[Math.max(0, Math.min(filled - 1, rank))] / 1e6;
+  }
+
+  /** filledTurns();
+   * Gets how much of the window has turns in it. Only call this while holding the lock.
+   * @return an int with the amount of turns in the window.
+   */
+  private int filledTurns() {
+    return (int) Math.min(turns, WINDOW_TURNS);
+  }
+}
@@ -0,0 +1,33 @@
+/** Interface: TownMetricsMBean
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: What a town's TownMetrics shows over JMX (eg. in JConsole). Times are in milliseconds, and the
+ *               percentiles are over the last few turns (getWindowTurns). Every phase array is in the same order
+ *               as getPhaseNames. This has to be public for JMX to be able to use it.
+ */
+
+public interface TownMetricsMBean {
+  public long getTurns();
+  public int getWindowTurns();
+
+  public String[] getPhaseNames();
+  public double[] getPhaseMeanMillis();
+  public double[] getPhaseP50Millis();
+  public double[] getPhaseP95Millis();
+  public double[] getPhaseP99Millis();
+  public double[] getPhaseMaxMillis();
+
+  public double getTurnP50Millis();
+  public double getTurnP95Millis();
+  public double getTurnP99Millis();
+  public double getTurnMaxMillis();
+
+  public long getInfluenceCellsTouched();
+  public long getBirths();
+  public long getInfections();
+  public long getZombieMeals();
+  public long getPlantSpawnShortfall();
+
+  public void reset();
+}
@@ -0,0 +1,68 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Class: TripleBuffer
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: Hands the latest of something (eg. a frame of the display) from one thread to another without
+ *               either of them ever waiting. The writer fills in the back buffer and publishes it, and the reader
+ *               always gets the newest one that was published. There's always a third buffer in the middle, so the
+ *               writer never has to touch the one the reader is using, and the reader just skips anything it was
+ *               too slow to see.
+ *
+ *               Only one thread may write, and only one thread may read. The buffers are swapped through a single
+ *               AtomicInteger, which also makes everything written to a buffer visible to the reader.
+ */
+
+class TripleBuffer<T> {
+  private static final int FRESH = 4; //- Set on the middle index when the reader hasn't taken it yet
+  private static final int INDEX = 3;
+
+  private final Object[] buffers;
+  private int back = 0; //- Only touched by the writer
+  private int front = 1; //- Only touched by the reader
+  private final AtomicInteger middle = new AtomicInteger(2);
+
+  //// CONSTRUCTORS ////
+  /** TripleBuffer(first, second, third);
+   * Creates a triple buffer out of three buffers, which have to be different objects.
+   * @param first, the buffer the writer starts out with.
+   * @param second, the buffer the reader starts out with (which it gets until something is published).
+   * @param third, the buffer that starts out in the middle.
+   */
+  TripleBuffer(T first, T second, T third) {
+    this.buffers = new Object[] {first, second, third};
+  }
+  //// CONSTRUCTORS ////
+
+  /// GETTERS/SETTERS ////
+  /** getBack();
+   * Gets the buffer the writer should fill in next. Only the writer may call this.
+   * @return the back buffer.
+   */
+  @SuppressWarnings("unchecked")
+  public T getBack() {
+    return (T) buffers[back];
+  }
+
+  /** getLatest();
+   * Gets the newest buffer that was published (or the same one as last time, if nothing new was published). The
+   * writer won't touch it until the reader calls this again. Only the reader may call this.
+   * @return the front buffer.
+   */
+  @SuppressWarnings("unchecked")
+  public T getLatest() {
+    if ((middle.get() & FRESH) != 0) {
+      front = middle.getAndSet(front) & INDEX;
+    }
+    return (T) buffers[front];
+  }
+  /// GETTERS/SETTERS ////
+
+  /** publish();
+   * Hands the back buffer over to the reader, and gives the writer a new back buffer. Only the writer may call this.
+   */
+  public void publish() {
+    back = middle.getAndSet(back | FRESH) & INDEX;
+  }
+}
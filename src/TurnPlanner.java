@@ -0,0 +1,223 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/** Class: TurnPlanner
+ * @version 1.0
+ * @author Joseph Wang
+ * @date 10/18/2026
+ * @description: The first half of a parallel turn. The city is split into square tiles, and every tile decides
+ *               where its animals want to go at the same time as the other tiles. Nothing in the town is changed,
+ *               so every tile sees the exact same city and value maps. The town decays everything before planning,
+ *               and carries out the plans one at a time afterwards (see Town.runCycle).
+ */
+
+class TurnPlanner {
+  //- How many squares wide and tall every tile is
+  private static final int TILE_SIZE = 32;
+
+  private final Town town;
+  private final ForkJoinPool pool;
+
+  //// CONSTRUCTORS ////
+  /** TurnPlanner(town, pool);
+   * Creates a new planner for the given town.
+   * @param town, the Town whose entities are being planned for.
+   * @param pool, the ForkJoinPool that the tiles are run on.
+   */
+  TurnPlanner(Town town, ForkJoinPool pool) {
+    this.town = town;
+    this.pool = pool;
+  }
+  //// CONSTRUCTORS ////
+
+  /** plan(city, registry, turn, random);
+   * Finds every entity in the city that decayed to death, and decides where every animal that's still alive wants to
+   * move. The value maps must be frozen for the whole turn, since they're read from every tile at once.
+   * @param city, a 2d Entity array with the city at the start of the turn.
+   * @param registry, the EntityRegistry with every entity in the city.
+   * @param turn, an int with the current turn.
+   * @param random, the town's RandomService. Every tile gets its own copy, keyed by the entity it's deciding for.
+   * @return an ArrayList of Intents, one for every entity, sorted by entity id.
+   */
+  public ArrayList<Intent> plan(Entity[][] city, EntityRegistry registry, int turn, RandomService random) {
+    int gridWidth = city[0].length;
+    int tileRows = (city.length + TILE_SIZE - 1) / TILE_SIZE;
+    int tileCols = (gridWidth + TILE_SIZE - 1) / TILE_SIZE;
+
+    //- Sort the slots by tile (a counting sort), so every tile only goes through its own entities instead of
+    //- every square in it, which is most of the work on a big, empty city
+    int[] slotTiles = new int[registry.size()];
+    int[] tileStarts = new int[tileRows * tileCols + 1];
+    for (int slot = 0; slot < registry.size(); slot++) {
+      if (registry.getType(slot) == EntityRegistry.NONE) {
+        slotTiles[slot] = -1;
+      } else {
+        int cell = registry.getCell(slot);
+        slotTiles[slot] = (cell / gridWidth / TILE_SIZE) * tileCols + (cell % gridWidth / TILE_SIZE);
+        tileStarts[slotTiles[slot] + 1]++;
+      }
+    }
+    for (int tile = 0; tile < tileRows * tileCols; tile++) {
+      tileStarts[tile + 1] += tileStarts[tile];
+    }
+
+    int[] tileSlots = new int[tileStarts[tileRows * tileCols]];
+    int[] next = Arrays.copyOf(tileStarts, tileRows * tileCols);
+    for (int slot = 0; slot < slotTiles.length; slot++) {
+      if (slotTiles[slot] >= 0) {
+        tileSlots[next[slotTiles[slot]]++] = slot;
+      }
+    }
+
+    List<List<Intent>> tileIntents = new ArrayList<List<Intent>>(Collections.nCopies(tileRows * tileCols, (List<Intent>) null));
+    pool.invoke(new TileTask(registry, tileSlots, tileStarts, turn, random, tileIntents, 0, tileIntents.size()));
+
+    ArrayList<Intent> intents = new ArrayList<Intent>();
+    for (int x = 0; x < tileIntents.size(); x++) {
+      intents.addAll(tileIntents.get(x));
+    }
+
+    //- Ids are handed out in the order entities are made, so this order doesn't depend on the tiles or the threads
+    Collections.sort(intents, new Comparator<Intent>() {
+      public int compare(Intent first, Intent second) {
+        return Integer.compare(first.getEntity().getId(), second.getEntity().getId());
+      }
+    });
+
+    return intents;
+  }
+
+  //Inner Class
+  static class Intent {
+    private final Entity entity;
+    private final boolean decayed;
+    private final int direction;
+
+    /** Intent(entity, decayed, direction);
+     * Creates the plan for one entity.
+     * @param entity, the Entity this plan is for.
+     * @param decayed, a boolean that is true if the entity decayed to death this turn.
+     * @param direction, an int with the direction value the entity wants to go in, or Movable.STAY.
+     */
+    Intent(Entity entity, boolean decayed, int direction) {
+      this.entity = entity;
+      this.decayed = decayed;
+      this.direction = direction;
+    }
+
+    /** getEntity();
+     * Gets the entity this plan is for.
+     * @return the Entity.
+     */
+    public Entity getEntity() {
+      return this.entity;
+    }
+
+    /** isDecayed();
+     * Checks to see if the entity decayed to death this turn.
+     * @return true if it did, otherwise false.
+     */
+    public boolean isDecayed() {
+      return this.decayed;
+    }
+
+    /** getDirection();
+     * Gets which way the entity wants to go.
+     * @return an int with the direction value, or Movable.STAY if it isn't going anywhere.
+     */
+    public int getDirection() {
+      return this.direction;
+    }
+  }
+
+  //Inner Class
+  private class TileTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final EntityRegistry registry;
+    private final int[] tileSlots, tileStarts;
+    private final int turn;
+    private final RandomService random;
+    private final List<List<Intent>> tileIntents;
+    private final int start, end;
+
+    /** TileTask(registry, tileSlots, tileStarts, turn, random, tileIntents, start, end);
+     * Creates a task that plans every tile from start to end.
+     * @param registry, the EntityRegistry with every entity in the city.
+     * @param tileSlots, an int array with the slot of every entity, sorted by tile.
+     * @param tileStarts, an int array with where every tile starts in tileSlots (and where the last one ends).
+     * @param turn, an int with the current turn.
+     * @param random, the town's RandomService.
+     * @param tileIntents, a List where every tile puts its plans.
+     * @param start, an int with the first tile.
+     * @param end, an int with the tile after the last one.
+     */
+    TileTask(EntityRegistry registry, int[] tileSlots, int[] tileStarts, int turn, RandomService random,
+             List<List<Intent>> tileIntents, int start, int end) {
+      this.registry = registry;
+      this.tileSlots = tileSlots;
+      this.tileStarts = tileStarts;
+      this.turn = turn;
+      this.random = random;
+      this.tileIntents = tileIntents;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    /** compute();
+     * Splits the tiles in half until there's only one left, then plans it.
+     */
+    protected void compute() {
+      if (end - start == 1) {
+        planTile(start);
+      } else {
+        int middle = (start + end) / 2;
+        invokeAll(new TileTask(registry, tileSlots, tileStarts, turn, random, tileIntents, start, middle),
+                  new TileTask(registry, tileSlots, tileStarts, turn, random, tileIntents, middle, end));
+      }
+    }
+
+    /** planTile(tile);
+     * Decides where every animal in the tile wants to go, and marks anything that decayed to death.
+     * @param tile, an int with the index of the tile.
+     */
+    private void planTile(int tile) {
+      ArrayList<Intent> intents = new ArrayList<Intent>(tileStarts[tile + 1] - tileStarts[tile]);
+      RandomService tileRandom = random.copy(); //- The key is stored inside, so tiles can't share one
+      Entity[] surroundingSquares = new Entity[Town.directions.length]; //- Reused for every animal in the tile
+      int[] surroundingValues = new int[Town.directions.length];
+
+      for (int x = tileStarts[tile]; x < tileStarts[tile + 1]; x++) {
+        Entity entity = registry.get(tileSlots[x]);
+
+        if (!(entity.getShouldPerformAction())) {
+          intents.add(new Intent(entity, false, Movable.STAY));
+          continue;
+        }
+
+        if (entity.isDead()) {
+          intents.add(new Intent(entity, true, Movable.STAY));
+        } else if (entity instanceof Animal) {
+          Animal animal = (Animal) entity;
+          town.findSurroundingSquares(animal, surroundingSquares);
+          town.findSurroundingValues(animal, surroundingValues);
+
+          tileRandom.at(turn, animal.getId(), RandomService.MOVEMENT);
+          int direction = animal.decideMovement(surroundingSquares, surroundingValues, tileRandom);
+
+          intents.add(new Intent(entity, false, direction));
+        } else {
+          intents.add(new Intent(entity, false, Movable.STAY));
+        }
+      }
+
+      tileIntents.set(tile, intents);
+    }
+  }
+}
@@ -1,4 +1,4 @@
-import java.util.ArrayList;
+import java.io.IOException;
 
 /** Class: Zombie
  * @version 2.1
@@ -10,25 +10,43 @@ import java.util.ArrayList;
 class Zombie extends Animal implements AbleToEat, HasName {
   private final int MAX_HP;
 
-  private String name, createdBy;
+  private int name; //- An index into the NameGenerator's list of zombie names
+  private String createdBy;
   private int kills;
 
   //// CONSTRUCTORS ////
-  /** Zombie(health, hunger, maxHp, createdBy); 
+  /** Zombie(registry, health, hunger, maxHp, createdBy, random); 
    * Creates a new zombie with the specified values. Calls super with health and hunger, and assigns maxHp and 
    * createdBy to its own class variables for future use.
+   * @param registry, the EntityRegistry of the town this zombie lives in.
    * @param health, an int with this zombie's health.
    * @param hunger, an int with this zombie's decay rate.
    * @param maxHp, an int with this zombie's max health.
    * @param createdBy, a String with how this zombie was created (infected or spawned)
+   * @param random, the RandomService used to pick this zombie's name.
    */
-  Zombie(int health, int hunger, int maxHp, String createdBy) {
-    super(health, hunger, -5, 0);
+  Zombie(EntityRegistry registry, int health, int hunger, int maxHp, String createdBy, RandomService random) {
+    super(registry, (byte) Town.ZOMBIE, health, hunger, -5, 0);
     
     this.MAX_HP = maxHp;
-    this.name = Simulation.nameGenerator.generateZombieName();
+    this.name = Simulation.nameGenerator.pickZombieName(random);
     this.createdBy = createdBy;
   }
+
+  /** Zombie(registry, in); 
+   * Loads a zombie that was saved with writeTo(), with the same name and kills.
+   * @param registry, the EntityRegistry of the town this zombie lives in.
+   * @param in, the TownCheckpoint.Input to read from.
+   * @throws IOException, in case the checkpoint cannot be read.
+   */
+  Zombie(EntityRegistry registry, TownCheckpoint.Input in) throws IOException {
+    super(registry, (byte) Town.ZOMBIE, in, -5, 0);
+
+    this.MAX_HP = in.getInt();
+    this.name = in.getInt();
+    this.createdBy = in.getString();
+    this.kills = in.getInt();
+  }
   //// CONSTRUCTORS ////
 
   /// GETTERS/SETTERS ////
@@ -38,7 +56,7 @@ class Zombie extends Animal implements AbleToEat, HasName {
    * @return a String, containing this zombie's name.
    */
   public String getName() {
-    return this.name;
+    return Simulation.nameGenerator.getZombieName(this.name);
   }
 
   /** getKills();
@@ -57,27 +75,40 @@ class Zombie extends Animal implements AbleToEat, HasName {
     return createdBy;
   }
   /// GETTERS/SETTERS ///
+
+  @Override
+  /** writeTo(out); 
+   * Saves everything about this zombie, including its name and kills.
+   * @param out, the TownCheckpoint.Output to write to.
+   * @throws IOException, in case the checkpoint cannot be written.
+   */
+  public void writeTo(TownCheckpoint.Output out) throws IOException {
+    super.writeTo(out);
+
+    out.putInt(this.MAX_HP);
+    out.putInt(this.name);
+    out.putString(this.createdBy);
+    out.putInt(this.kills);
+  }
   
   @Override
   /** findPossibleMoves(surroundingEntities); 
    * Takes in a list of the surrounding 8 tiles, and decides whether it can move there or not based on
    * location and if there is something there already.
-   * @return an ArrayList of Integers, containing the possible direction in which it can move.
+   * @param surroundingEntities, an Entity array containing the 8 surrounding spots.
+   * @return an int, with bit x set if it can move in direction x.
    */
-  public ArrayList<Integer> findPossibleMoves(Entity[] surroundingEntities) {
-    ArrayList<Integer> positions = new ArrayList<Integer>();
-    int[] pos = this.getLocation();
+  public int findPossibleMoves(Entity[] surroundingEntities) {
+    int positions = 0;
 
     for (int x = 0; x < surroundingEntities.length; x++) {
       if (surroundingEntities[x] == null) { 
-        int[] direction = {pos[0] + directions[x][0], pos[1] + directions[x][1]};
-
-        if (((direction[0] >= 0) && (direction[0] < Town.GRID_H)) && ((direction[1] >= 0) && (direction[1] < Town.GRID_W))) {
-          positions.add(x);
+        if (this.canStep(x)) {
+          positions |= 1 << x;
         }
       } else { 
         if (!(surroundingEntities[x] instanceof Zombie)){
-          positions.add(x);
+          positions |= 1 << x;
         }
       }
     }
@@ -85,61 +116,17 @@ class Zombie extends Animal implements AbleToEat, HasName {
     return positions;
   }
 
-  /** revalidateValues(possibleMoves, currentValues); 
-   * Takes in possible locations and the values of all 8 surrounding locations, and returns only the values
-   * of the squares that can be moved to.
-   * @param possibleMoves, an ArrayList of Integers that contains the possible moves out of all 8 directions.
-   * @param currentValues, a double array that contains all 8 surrounding values.
-   * @return a double array, containing all the values of the squares that can be moved to.
-   */
-  private double[] revalidateValues(ArrayList<Integer> possibleMoves, double[] currentValues) {
-    double[] validValues = new double[possibleMoves.size()];
-
-    for (int x = 0; x < possibleMoves.size(); x++) {
-      validValues[x] = currentValues[possibleMoves.get(x)];
-    }
-
-    return validValues;
-  }
-
   @Override
-  /** decideMovement(surroundingEntities, surroundingValues); 
+  /** decideMovement(surroundingEntities, surroundingValues, random); 
    * Takes in the surrounding 8 entities and the surrounding 8 values and decides where to go
    * based on where it can actually go and the values of that spot.
    * @param surroundingEntities, an Entity array containing the 8 surrounding spots.
-   * @param surroundingValues, a double array containing the 8 surrounding values.
-   * @return an int array contianing the new positiong that this being wishes to go to.
+   * @param surroundingValues, an int array containing the 8 surrounding values, in hundredths.
+   * @param random, the RandomService used to break ties between equally good spots.
+   * @return an int with the direction value this being wishes to go in, or STAY.
    */
-  public int[] decideMovement(Entity[] surroundingEntities, double[] surroundingValues) {
-    ArrayList<Integer> possibleMoves = findPossibleMoves(surroundingEntities);
-    if(possibleMoves.size() > 0) {
-      double[] values = revalidateValues(possibleMoves, surroundingValues);
-
-      double max = values[0];
-
-      for (int x = 0; x < values.length; x++) {
-        if (values[x] > max) {
-          max = values[x];
-        }
-      }
-        
-      ArrayList<Integer> betterLocations = new ArrayList<Integer>();
-
-      for (int x = 0; x < values.length; x++) {
-        if (values[x] == max) {
-        betterLocations.add(possibleMoves.get(x));
-        }
-      }
-
-      int choice = Simulation.randInt(0, betterLocations.size());
-      int[] pos = this.getLocation();
-      int[] newPos = {pos[0] + directions[betterLocations.get(choice)][0], 
-                      pos[1] + directions[betterLocations.get(choice)][1]};
-          
-      return newPos;
-    }
-
-    return this.getLocation();
+  public int decideMovement(Entity[] surroundingEntities, int[] surroundingValues, RandomService random) {
+    return chooseMove(findPossibleMoves(surroundingEntities), surroundingValues, random);
   }
 
   /** trample(e); 
@@ -151,13 +138,14 @@ class Zombie extends Animal implements AbleToEat, HasName {
     e.setHealth(0);
   }
   
-  /** infect(victim);
+  /** infect(victim, random);
    * Takes in a victim, and produces a new zombie using some of the victim's stats like their health. Also destroys
    * the vicim.
    * @param victim, a Human that is to be infected.
+   * @param random, the RandomService used to name the new zombie.
    * @return a Zombie, which is the infected human.
    */
-  public Zombie infect(Human victim) {
+  public Zombie infect(Human victim, RandomService random) {
     int startHealth;
     if (victim.getHealth() > this.MAX_HP) {
       startHealth = this.MAX_HP;
@@ -165,7 +153,7 @@ class Zombie extends Animal implements AbleToEat, HasName {
       startHealth = victim.getHealth();
     }
     
-    Zombie newZombie = new Zombie(startHealth, this.getDecayValue(), this.MAX_HP, "INFECTED");
+    Zombie newZombie = new Zombie(this.getRegistry(), startHealth, this.getDecayValue(), this.MAX_HP, "INFECTED", random);
     newZombie.setShouldPerformAction(false);
     
     victim.setHealth(0);